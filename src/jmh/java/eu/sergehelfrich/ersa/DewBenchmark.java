@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dew point benchmarks across the ice/water boundary
+ *
+ * @author helfrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DewBenchmark {
+
+    @Param({"253.15", "272.15", "274.15", "293.15"})
+    public double temperature;
+
+    @Param({"50"})
+    public double relativeHumidity;
+
+    @Param({"SOLVER", "NEWTON", "HALLEY", "BRACKETED", "CLOSED_FORM"})
+    public DewPointMethod method;
+
+    @Param({"EXACT", "FAST", "FASTEST"})
+    public Precision precision;
+
+    private Dew dew;
+
+    @Setup
+    public void setUp() {
+        dew = new Dew(method, precision);
+    }
+
+    @Benchmark
+    public double pvs() {
+        return dew.pvs(temperature);
+    }
+
+    @Benchmark
+    public double pvsWater() {
+        return dew.pvsWater(temperature);
+    }
+
+    @Benchmark
+    public double pvsIce() {
+        return dew.pvsIce(temperature);
+    }
+
+    @Benchmark
+    public double dewPoint() throws SolverException {
+        return dew.dewPoint(relativeHumidity, temperature);
+    }
+
+}
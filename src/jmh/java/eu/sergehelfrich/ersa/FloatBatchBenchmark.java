@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Float against double batches larger than the last level cache, per
+ * element. The readings are random walks with a resolution of 0.1.
+ *
+ * @author helfrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(FloatBatchBenchmark.LENGTH)
+public class FloatBatchBenchmark {
+
+    /**
+     * 128 MB of double readings
+     */
+    static final int LENGTH = 1 << 23;
+
+    private final Dew dew = new Dew();
+    private final Metrics metrics = new Metrics();
+
+    private final double[] temperature = new double[LENGTH];
+    private final double[] relativeHumidity = new double[LENGTH];
+    private final float[] floatTemperature = new float[LENGTH];
+    private final float[] floatRelativeHumidity = new float[LENGTH];
+    private final double[] kelvin = new double[LENGTH];
+    private final float[] floatKelvin = new float[LENGTH];
+
+    private final int[] preservationIndex = new int[LENGTH];
+    private final float[] emc = new float[LENGTH];
+    private final double[] dewPoint = new double[LENGTH];
+    private final float[] floatDewPoint = new float[LENGTH];
+    private final int[] status = new int[LENGTH];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        double t = 20;
+        double rh = 50;
+        for (int i = 0; i < LENGTH; i++) {
+            t = Math.max(-10, Math.min(40, t + random.nextGaussian() * 0.1));
+            rh = Math.max(10, Math.min(100, rh + random.nextGaussian() * 0.3));
+            temperature[i] = Math.round(t * 10) / 10.0;
+            relativeHumidity[i] = Math.round(rh * 10) / 10.0;
+            floatTemperature[i] = (float) temperature[i];
+            floatRelativeHumidity[i] = (float) relativeHumidity[i];
+            kelvin[i] = temperature[i] + Temperature.CELSIUS_OFFSET;
+            floatKelvin[i] = (float) kelvin[i];
+        }
+    }
+
+    @Benchmark
+    public int[] preservationIndex() {
+        metrics.preservationIndex(temperature, relativeHumidity, preservationIndex);
+        return preservationIndex;
+    }
+
+    @Benchmark
+    public int[] preservationIndexFloat() {
+        metrics.preservationIndex(floatTemperature, floatRelativeHumidity, preservationIndex);
+        return preservationIndex;
+    }
+
+    @Benchmark
+    public float[] emc() {
+        metrics.emc(temperature, relativeHumidity, emc);
+        return emc;
+    }
+
+    @Benchmark
+    public float[] emcFloat() {
+        metrics.emc(floatTemperature, floatRelativeHumidity, emc);
+        return emc;
+    }
+
+    @Benchmark
+    public double[] dewPoint() {
+        dew.dewPoint(relativeHumidity, kelvin, dewPoint, status);
+        return dewPoint;
+    }
+
+    @Benchmark
+    public float[] dewPointFloat() {
+        dew.dewPoint(floatRelativeHumidity, floatKelvin, floatDewPoint, status);
+        return floatDewPoint;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Saturation vapor pressure array kernels against the scalar loop, per
+ * element
+ *
+ * @author helfrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(PvsArrayBenchmark.LENGTH)
+public class PvsArrayBenchmark {
+
+    static final int LENGTH = 4096;
+
+    /**
+     * Temperatures above, below or on both sides of the melting point
+     */
+    @Param({"WATER", "ICE", "MIXED"})
+    public String range;
+
+    private final Dew dew = new Dew();
+    private final double[] temperature = new double[LENGTH];
+    private final double[] pressure = new double[LENGTH];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < LENGTH; i++) {
+            switch (range) {
+                case "WATER":
+                    temperature[i] = 274 + 100.0 * i / LENGTH;
+                    break;
+                case "ICE":
+                    temperature[i] = 180 + 90.0 * i / LENGTH;
+                    break;
+                default:
+                    temperature[i] = 253.15 + 40.0 * i / LENGTH;
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] pvs() {
+        dew.pvs(temperature, pressure);
+        return pressure;
+    }
+
+    @Benchmark
+    public double[] pvsScalar() {
+        for (int i = 0; i < LENGTH; i++) {
+            pressure[i] = dew.pvsOrNaN(temperature[i]);
+        }
+        return pressure;
+    }
+
+    @Benchmark
+    public double[] pvsWater() {
+        dew.pvsWater(temperature, pressure);
+        return pressure;
+    }
+
+    @Benchmark
+    public double[] pvsWaterScalar() {
+        for (int i = 0; i < LENGTH; i++) {
+            pressure[i] = dew.pvsWater(temperature[i]);
+        }
+        return pressure;
+    }
+
+    @Benchmark
+    public double[] pvsIce() {
+        dew.pvsIce(temperature, pressure);
+        return pressure;
+    }
+
+    @Benchmark
+    public double[] pvsIceScalar() {
+        for (int i = 0; i < LENGTH; i++) {
+            pressure[i] = dew.pvsIce(temperature[i]);
+        }
+        return pressure;
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Temperature scale conversions, single values and arrays. The array
+ * benchmarks convert a fresh copy of the input each time, so they include an
+ * array copy. {@link #convertLoop()} does the same conversion as
+ * {@link #convertBetweenScales()} element by element with
+ * {@link Temperature#toKelvin(double, Scale)} and
+ * {@link Temperature#fromKelvin(double, Scale)} for comparison.
+ *
+ * @author helfrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TemperatureBenchmark {
+
+    @Param({"CELSIUS", "FAHRENHEIT"})
+    public Scale scale;
+
+    @Param({"1024"})
+    public int length;
+
+    public double value = 21.5;
+
+    private double[] source;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        source = new double[length];
+        for (int i = 0; i < length; i++) {
+            source[i] = -40 + 90.0 * i / length;
+        }
+        values = new double[length];
+    }
+
+    @Benchmark
+    public double toKelvin() {
+        return Temperature.toKelvin(value, scale);
+    }
+
+    @Benchmark
+    public double fromKelvin() {
+        return Temperature.fromKelvin(value + Temperature.CELSIUS_OFFSET, scale);
+    }
+
+    @Benchmark
+    public double[] convert() {
+        System.arraycopy(source, 0, values, 0, length);
+        Temperature.convert(values, scale, Scale.KELVIN);
+        return values;
+    }
+
+    @Benchmark
+    public double[] convertBetweenScales() {
+        System.arraycopy(source, 0, values, 0, length);
+        Temperature.convert(values, scale, Scale.CELSIUS == scale ? Scale.FAHRENHEIT : Scale.CELSIUS);
+        return values;
+    }
+
+    @Benchmark
+    public double[] convertLoop() {
+        System.arraycopy(source, 0, values, 0, length);
+        Scale to = Scale.CELSIUS == scale ? Scale.FAHRENHEIT : Scale.CELSIUS;
+        for (int i = 0; i < length; i++) {
+            values[i] = Temperature.fromKelvin(Temperature.toKelvin(values[i], scale), to);
+        }
+        return values;
+    }
+
+}
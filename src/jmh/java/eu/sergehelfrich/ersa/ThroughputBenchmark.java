@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multi-threaded throughput on shared Dew and Metrics instances
+ *
+ * @author helfrich
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ThroughputBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        final Dew dew = new Dew();
+        final Metrics metrics = new Metrics();
+    }
+
+    @State(Scope.Thread)
+    public static class Local {
+
+        final SolverResult result = new SolverResult();
+    }
+
+    private static double reading(Shared shared, Local local) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double temperature = random.nextDouble(-10, 40);
+        double relativeHumidity = random.nextDouble(20, 95);
+        double dewPoint = shared.dew.dewPoint(relativeHumidity, temperature + Temperature.CELSIUS_OFFSET, local.result);
+        return dewPoint + shared.metrics.preservationIndex(temperature, relativeHumidity)
+                + shared.metrics.mold(temperature, relativeHumidity) + shared.metrics.emc(temperature, relativeHumidity);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double oneThread(Shared shared, Local local) {
+        return reading(shared, local);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public double allThreads(Shared shared, Local local) {
+        return reading(shared, local);
+    }
+
+}
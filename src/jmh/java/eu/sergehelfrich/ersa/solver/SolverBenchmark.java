@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+import eu.sergehelfrich.ersa.Dew;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solver convergence cost for increasingly distant initial guesses
+ *
+ * @author helfrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolverBenchmark {
+
+    /**
+     * Distance of the initial guess from the root (K)
+     */
+    @Param({"0.5", "5", "20"})
+    public double distance;
+
+    private final Solver solver = new Solver();
+    private final Dew dew = new Dew();
+    private final FunctionCallable pvs = dew::pvsOrNaN;
+    private final SolverResult result = new SolverResult();
+
+    @Benchmark
+    public double solve() throws SolverException {
+        return solver.solve(pvs, 1000, 280.12 + distance);
+    }
+
+    @Benchmark
+    public double solveResult() {
+        return solver.solve(pvs, 1000, 280.12 + distance, result);
+    }
+
+}
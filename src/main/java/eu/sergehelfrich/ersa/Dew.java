@@ -16,9 +16,16 @@
  */
 package eu.sergehelfrich.ersa;
 
+import eu.sergehelfrich.ersa.instrumentation.Instrumentation;
+import eu.sergehelfrich.ersa.solver.DifferentiableFunctionCallable;
 import eu.sergehelfrich.ersa.solver.Solver;
 import eu.sergehelfrich.ersa.solver.SolverException;
+import eu.sergehelfrich.ersa.solver.SolverResult;
 import eu.sergehelfrich.ersa.solver.FunctionCallable;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.stream.IntStream;
 
 /**
  * Dew point calculator. Based on the approach by Wolfgang Kuehn in JavaScript.
@@ -30,8 +37,134 @@ import eu.sergehelfrich.ersa.solver.FunctionCallable;
  */
 public class Dew {
 
+    /**
+     * Minimum number of elements per task in the parallel batch methods
+     */
+    private static final int PARALLEL_CHUNK = 8192;
+
+    /**
+     * Number of elements the float batch methods widen to double at a time
+     */
+    private static final int FLOAT_BLOCK = 256;
+
+    /**
+     * Saturation vapor pressure over ice at 0 Deg. C (Pa)
+     */
+    private static final double PVS_ICE_MELTING = 611.1536;
+
+    /**
+     * Critical pressure of water (Pa)
+     */
+    private static final double CRITICAL_PRESSURE = 22.064e6;
+
+    /**
+     * Critical temperature of water (K). The saturation vapor pressure
+     * equation ends here and has a pole just above, at N10.
+     */
+    private static final double CRITICAL_TEMPERATURE = 647.096;
+
+    /* Magnus-Tetens coefficients for the initial guess of the solvers */
+    private static final double MAGNUS_PRESSURE = 611.2;
+    private static final double MAGNUS_WATER_B = 17.62;
+    private static final double MAGNUS_WATER_C = 243.12;
+    private static final double MAGNUS_ICE_B = 22.46;
+    private static final double MAGNUS_ICE_C = 272.62;
+
+    /**
+     * Vectorized saturation vapor pressure kernel, null if not available
+     */
+    private static final PvsKernel VECTOR_KERNEL = vectorKernel();
+
     private final Solver solver = new Solver();
 
+    private final FunctionCallable pvsFunction = this::pvsOrNaN;
+
+    private final DifferentiableFunctionCallable pvsDifferentiable = new DifferentiableFunctionCallable() {
+        @Override
+        public double function(double temperature) {
+            return pvsOrNaN(temperature);
+        }
+
+        @Override
+        public double derivative(double temperature, double pressure) {
+            return temperature < Temperature.CELSIUS_OFFSET
+                    ? pvsIceDerivative(temperature, pressure) : pvsWaterDerivative(temperature, pressure);
+        }
+
+        @Override
+        public double secondDerivative(double temperature, double pressure, double derivative) {
+            return temperature < Temperature.CELSIUS_OFFSET
+                    ? pvsIceSecondDerivative(temperature, pressure, derivative)
+                    : pvsWaterSecondDerivative(temperature, pressure, derivative);
+        }
+
+        @Override
+        public void evaluate(double temperature, int order, double[] values) {
+            if (temperature >= Temperature.CELSIUS_OFFSET && temperature <= Temperature.MAX
+                    && (precision == Precision.EXACT || temperature > PvsApproximation.MAX_TEMPERATURE)) {
+                pvsWater(temperature, order, values);
+                return;
+            }
+            double pressure = pvsOrNaN(temperature);
+            double derivative = derivative(temperature, pressure);
+            values[0] = pressure;
+            values[1] = derivative;
+            if (order > 1) {
+                values[2] = secondDerivative(temperature, pressure, derivative);
+            }
+        }
+    };
+
+    private final DewPointMethod method;
+    private final Precision precision;
+
+    /**
+     * Dew point calculator using the solver
+     */
+    public Dew() {
+        this(DewPointMethod.SOLVER);
+    }
+
+    /**
+     *
+     * @param method method for the dew point calculation
+     * @see eu.sergehelfrich.ersa.DewPointMethod
+     */
+    public Dew(DewPointMethod method) {
+        this(method, Precision.EXACT);
+    }
+
+    /**
+     *
+     * @param method method for the dew point calculation
+     * @param precision precision of the saturation vapor pressure, also used
+     * by the iterative dew point methods
+     * @see eu.sergehelfrich.ersa.DewPointMethod
+     * @see eu.sergehelfrich.ersa.Precision
+     */
+    public Dew(DewPointMethod method, Precision precision) {
+        this.method = method;
+        this.precision = precision;
+    }
+
+    /**
+     *
+     * @return method for the dew point calculation
+     * @see eu.sergehelfrich.ersa.DewPointMethod
+     */
+    public DewPointMethod getMethod() {
+        return method;
+    }
+
+    /**
+     *
+     * @return precision of the saturation vapor pressure
+     * @see eu.sergehelfrich.ersa.Precision
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+
     /**
      * Compute the dew point for given relative humidity[%] and temperature[K].
      * @param relativeHumidity relative humidity (%)
@@ -40,7 +173,350 @@ public class Dew {
      * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
      */
     public double dewPoint(double relativeHumidity, double temperature) throws SolverException, IllegalArgumentException {        
-        return solver.solve(this::pvs, relativeHumidity / 100.0 * pvs(temperature), temperature);
+        SolverResult result = new SolverResult();
+        double dewPoint = dewPoint(relativeHumidity, temperature, result);
+        if (result.getStatus() == Status.OUT_OF_RANGE) {
+            throw new IllegalArgumentException("Temperature out of range!");
+        } else if (result.getStatus() == Status.NO_CONVERGENCE) {
+            throw new SolverException("Solver does not converge!");
+        }
+        return dewPoint;
+    }
+
+    /**
+     * Compute the dew point for given relative humidity[%] and temperature[K]
+     * without throwing.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param result status and iteration count, output
+     * @return dew point (K), NaN if the status is not OK
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public double dewPoint(double relativeHumidity, double temperature, SolverResult result) {
+        return dewPoint(relativeHumidity, temperature, pvsOrNaN(temperature), result);
+    }
+
+    /**
+     * Compute the dew point for given relative humidity[%] and temperature[K]
+     * with the saturation vapor pressure at the temperature already known.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param saturationPressure saturation vapor pressure at the temperature
+     * (Pa), NaN if out of range
+     * @param result status and iteration count, output
+     * @return dew point (K), NaN if the status is not OK
+     */
+    double dewPoint(double relativeHumidity, double temperature, double saturationPressure, SolverResult result) {
+        if (!Instrumentation.ENABLED) {
+            return calculateDewPoint(relativeHumidity, temperature, saturationPressure, result);
+        }
+        long start = System.nanoTime();
+        double dewPoint = calculateDewPoint(relativeHumidity, temperature, saturationPressure, result);
+        Instrumentation.dewPoint(start, relativeHumidity, temperature, dewPoint, result);
+        return dewPoint;
+    }
+
+    private double calculateDewPoint(double relativeHumidity, double temperature, double saturationPressure, SolverResult result) {
+        double pressure = relativeHumidity / 100.0 * saturationPressure;
+        // beyond the critical point there is no dew point, and the solvers would converge on the pole
+        if (!(pressure > 0 && pressure <= CRITICAL_PRESSURE) || temperature > CRITICAL_TEMPERATURE) {
+            result.setStatus(Status.OUT_OF_RANGE);
+            result.setIterations(0);
+            return Double.NaN;
+        }
+        switch (method) {
+            case CLOSED_FORM:
+                double dewPoint = tsOrNaN(pressure);
+                result.setStatus(Double.isNaN(dewPoint) ? Status.OUT_OF_RANGE : Status.OK);
+                result.setIterations(0);
+                return dewPoint;
+            case NEWTON:
+                return solver.solveNewton(pvsDifferentiable, pressure, initialGuess(pressure, temperature), result);
+            case HALLEY:
+                return solver.solveHalley(pvsDifferentiable, pressure, initialGuess(pressure, temperature), result);
+            case BRACKETED:
+                double x0 = initialGuess(pressure, temperature);
+                return relativeHumidity <= 100
+                        ? solver.solveBracketed(pvsDifferentiable, pressure, x0, Temperature.MIN, temperature, result)
+                        : solver.solveBracketed(pvsDifferentiable, pressure, x0, temperature, CRITICAL_TEMPERATURE, result);
+            default:
+                return solver.solve(pvsFunction, pressure, initialGuess(pressure, temperature), result);
+        }
+    }
+
+    /**
+     * Initial guess of the dew point from the Magnus-Tetens approximation,
+     * over ice below the melting point pressure. Within 0.5 K of the solution
+     * between -60 and 60 Deg. C.
+     *
+     * @param pressure vapor pressure (Pa)
+     * @param temperature temperature (K), the fallback outside the range of
+     * the approximation
+     * @return initial guess of the dew point (K)
+     */
+    private static double initialGuess(double pressure, double temperature) {
+        double gamma = Math.log(pressure / MAGNUS_PRESSURE);
+        double dewPoint = pressure < PVS_ICE_MELTING
+                ? MAGNUS_ICE_C * gamma / (MAGNUS_ICE_B - gamma)
+                : MAGNUS_WATER_C * gamma / (MAGNUS_WATER_B - gamma);
+        dewPoint += Temperature.CELSIUS_OFFSET;
+        return dewPoint >= Temperature.MIN && dewPoint <= Temperature.MAX ? dewPoint : temperature;
+    }
+
+    /**
+     * Compute the dew points for arrays of relative humidity[%] and
+     * temperature[K]. Failures are reported per element in the status array,
+     * the corresponding dew point is set to NaN.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void dewPoint(double[] relativeHumidity, double[] temperature, double[] dewPoint, int[] status) {
+        checkLength(relativeHumidity.length, temperature.length, dewPoint.length, status.length);
+        dewPoint(relativeHumidity, temperature, dewPoint, status, 0, relativeHumidity.length);
+    }
+
+    /**
+     * Compute the dew points for the remaining elements of buffers of relative
+     * humidity[%] and temperature[K]. The buffer positions are not modified.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void dewPoint(DoubleBuffer relativeHumidity, DoubleBuffer temperature, double[] dewPoint, int[] status) {
+        checkLength(relativeHumidity.remaining(), temperature.remaining(), dewPoint.length, status.length);
+        dewPoint(relativeHumidity, temperature, dewPoint, status, 0, relativeHumidity.remaining());
+    }
+
+    /**
+     * Compute the dew points for float arrays of relative humidity[%] and
+     * temperature[K]. The elements are widened and computed in double
+     * precision; float storage moves the dew point by less than 3e-5 K. Only
+     * 273.15 K itself rounds to just below the melting point and uses the
+     * saturation vapor pressure over ice, which moves its dew point by up to
+     * 1.2e-3 K.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(double[], double[], double[], int[])
+     */
+    public void dewPoint(float[] relativeHumidity, float[] temperature, float[] dewPoint, int[] status) {
+        checkLength(relativeHumidity.length, temperature.length, dewPoint.length, status.length);
+        dewPoint(relativeHumidity, temperature, dewPoint, status, 0, relativeHumidity.length);
+    }
+
+    /**
+     * Compute the dew points for the remaining elements of float buffers of
+     * relative humidity[%] and temperature[K]. The buffer positions are not
+     * modified.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(float[], float[], float[], int[])
+     */
+    public void dewPoint(FloatBuffer relativeHumidity, FloatBuffer temperature, float[] dewPoint, int[] status) {
+        checkLength(relativeHumidity.remaining(), temperature.remaining(), dewPoint.length, status.length);
+        dewPoint(relativeHumidity, temperature, dewPoint, status, 0, relativeHumidity.remaining());
+    }
+
+    /**
+     * Compute the dew points for arrays of relative humidity[%] and
+     * temperature in the given scale. The dew points are returned in the same
+     * scale.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature
+     * @param scale temperature scale of the input and output
+     * @param dewPoint dew point, output
+     * @param status status code per element, output
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void dewPoint(double[] relativeHumidity, double[] temperature, Scale scale, double[] dewPoint, int[] status) {
+        checkLength(relativeHumidity.length, temperature.length, dewPoint.length, status.length);
+        SolverResult result = new SolverResult();
+        for (int i = 0; i < relativeHumidity.length; i++) {
+            dewPoint[i] = Temperature.fromKelvin(dewPoint(relativeHumidity[i], Temperature.toKelvin(temperature[i], scale), result), scale);
+            status[i] = result.getStatus();
+        }
+    }
+
+    /**
+     * Compute the dew points for the remaining elements of buffers of relative
+     * humidity[%] and temperature in the given scale. The dew points are
+     * returned in the same scale. The buffer positions are not modified.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature
+     * @param scale temperature scale of the input and output
+     * @param dewPoint dew point, output
+     * @param status status code per element, output
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void dewPoint(DoubleBuffer relativeHumidity, DoubleBuffer temperature, Scale scale, double[] dewPoint, int[] status) {
+        int length = relativeHumidity.remaining();
+        checkLength(length, temperature.remaining(), dewPoint.length, status.length);
+        SolverResult result = new SolverResult();
+        int rhOffset = relativeHumidity.position();
+        int temperatureOffset = temperature.position();
+        for (int i = 0; i < length; i++) {
+            double kelvin = Temperature.toKelvin(temperature.get(temperatureOffset + i), scale);
+            dewPoint[i] = Temperature.fromKelvin(dewPoint(relativeHumidity.get(rhOffset + i), kelvin, result), scale);
+            status[i] = result.getStatus();
+        }
+    }
+
+    /**
+     * Compute the dew points for arrays of relative humidity[%] and
+     * temperature[K], splitting large arrays across the common fork/join pool.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(double[], double[], double[], int[])
+     */
+    public void dewPointParallel(double[] relativeHumidity, double[] temperature, double[] dewPoint, int[] status) {
+        int length = relativeHumidity.length;
+        checkLength(length, temperature.length, dewPoint.length, status.length);
+        IntStream.range(0, (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel()
+                .forEach(chunk -> dewPoint(relativeHumidity, temperature, dewPoint, status,
+                chunk * PARALLEL_CHUNK, Math.min(length, (chunk + 1) * PARALLEL_CHUNK)));
+    }
+
+    /**
+     * Compute the dew points for the remaining elements of buffers of relative
+     * humidity[%] and temperature[K], splitting large buffers across the
+     * common fork/join pool. The buffer positions are not modified.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(java.nio.DoubleBuffer, java.nio.DoubleBuffer, double[], int[])
+     */
+    public void dewPointParallel(DoubleBuffer relativeHumidity, DoubleBuffer temperature, double[] dewPoint, int[] status) {
+        int length = relativeHumidity.remaining();
+        checkLength(length, temperature.remaining(), dewPoint.length, status.length);
+        IntStream.range(0, (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel()
+                .forEach(chunk -> dewPoint(relativeHumidity, temperature, dewPoint, status,
+                chunk * PARALLEL_CHUNK, Math.min(length, (chunk + 1) * PARALLEL_CHUNK)));
+    }
+
+    /**
+     * Compute the dew points for float arrays of relative humidity[%] and
+     * temperature[K], splitting large arrays across the common fork/join
+     * pool.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(float[], float[], float[], int[])
+     */
+    public void dewPointParallel(float[] relativeHumidity, float[] temperature, float[] dewPoint, int[] status) {
+        int length = relativeHumidity.length;
+        checkLength(length, temperature.length, dewPoint.length, status.length);
+        IntStream.range(0, (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel()
+                .forEach(chunk -> dewPoint(relativeHumidity, temperature, dewPoint, status,
+                chunk * PARALLEL_CHUNK, Math.min(length, (chunk + 1) * PARALLEL_CHUNK)));
+    }
+
+    /**
+     * Compute the dew points for the remaining elements of float buffers of
+     * relative humidity[%] and temperature[K], splitting large buffers across
+     * the common fork/join pool. The buffer positions are not modified.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K), output
+     * @param status status code per element, output
+     * @see #dewPoint(java.nio.FloatBuffer, java.nio.FloatBuffer, float[], int[])
+     */
+    public void dewPointParallel(FloatBuffer relativeHumidity, FloatBuffer temperature, float[] dewPoint, int[] status) {
+        int length = relativeHumidity.remaining();
+        checkLength(length, temperature.remaining(), dewPoint.length, status.length);
+        IntStream.range(0, (length + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel()
+                .forEach(chunk -> dewPoint(relativeHumidity, temperature, dewPoint, status,
+                chunk * PARALLEL_CHUNK, Math.min(length, (chunk + 1) * PARALLEL_CHUNK)));
+    }
+
+    private void dewPoint(double[] relativeHumidity, double[] temperature, double[] dewPoint, int[] status, int from, int to) {
+        SolverResult result = new SolverResult();
+        for (int i = from; i < to; i++) {
+            dewPoint[i] = dewPoint(relativeHumidity[i], temperature[i], result);
+            status[i] = result.getStatus();
+        }
+    }
+
+    private void dewPoint(DoubleBuffer relativeHumidity, DoubleBuffer temperature, double[] dewPoint, int[] status, int from, int to) {
+        SolverResult result = new SolverResult();
+        int rhOffset = relativeHumidity.position();
+        int temperatureOffset = temperature.position();
+        for (int i = from; i < to; i++) {
+            dewPoint[i] = dewPoint(relativeHumidity.get(rhOffset + i), temperature.get(temperatureOffset + i), result);
+            status[i] = result.getStatus();
+        }
+    }
+
+    private void dewPoint(float[] relativeHumidity, float[] temperature, float[] dewPoint, int[] status, int from, int to) {
+        SolverResult result = new SolverResult();
+        double[] rh = new double[FLOAT_BLOCK];
+        double[] t = new double[FLOAT_BLOCK];
+        for (int block = from; block < to; block += FLOAT_BLOCK) {
+            int length = Math.min(FLOAT_BLOCK, to - block);
+            // widening in a separate loop keeps the conversions out of the dependency chain of the solver
+            for (int i = 0; i < length; i++) {
+                rh[i] = relativeHumidity[block + i];
+                t[i] = temperature[block + i];
+            }
+            for (int i = 0; i < length; i++) {
+                dewPoint[block + i] = (float) dewPoint(rh[i], t[i], result);
+                status[block + i] = result.getStatus();
+            }
+        }
+    }
+
+    private void dewPoint(FloatBuffer relativeHumidity, FloatBuffer temperature, float[] dewPoint, int[] status, int from, int to) {
+        SolverResult result = new SolverResult();
+        double[] rh = new double[FLOAT_BLOCK];
+        double[] t = new double[FLOAT_BLOCK];
+        int rhOffset = relativeHumidity.position();
+        int temperatureOffset = temperature.position();
+        for (int block = from; block < to; block += FLOAT_BLOCK) {
+            int length = Math.min(FLOAT_BLOCK, to - block);
+            for (int i = 0; i < length; i++) {
+                rh[i] = relativeHumidity.get(rhOffset + block + i);
+                t[i] = temperature.get(temperatureOffset + block + i);
+            }
+            for (int i = 0; i < length; i++) {
+                dewPoint[block + i] = (float) dewPoint(rh[i], t[i], result);
+                status[block + i] = result.getStatus();
+            }
+        }
+    }
+
+    private static void checkLength(int relativeHumidity, int temperature, int dewPoint, int status) {
+        if (temperature != relativeHumidity || dewPoint < relativeHumidity || status < relativeHumidity) {
+            throw new IllegalArgumentException("Array lengths do not match!");
+        }
+    }
+
+    private static void checkLength(int temperature, int pressure) {
+        if (pressure < temperature) {
+            throw new IllegalArgumentException("Array lengths do not match!");
+        }
     }
 
     private double calculate(FunctionCallable functionCallable, double relativeHumidity, double temperature) throws SolverException {
@@ -51,15 +527,39 @@ public class Dew {
 
     /**
      * Compute Saturation Vapor Pressure for
-     * Temperature.MIN&lt;temperature[K]&lt;Temperature.MAX
+     * Temperature.MIN&lt;temperature[K]&lt;Temperature.MAX with the precision
+     * of this calculator
      *
      * @param temperature temperature
      * @return saturation vapor pressure
      * @see eu.sergehelfrich.ersa.Temperature
+     * @see #getPrecision()
      */
     public double pvs(double temperature) throws IllegalArgumentException {
-        if (temperature < Temperature.MIN || temperature > Temperature.MAX) {
+        double pressure = pvsOrNaN(temperature);
+        if (Double.isNaN(pressure)) {
             throw new IllegalArgumentException("Temperature out of range!");
+        }
+        return pressure;
+    }
+
+    /**
+     * Compute Saturation Vapor Pressure for
+     * Temperature.MIN&lt;temperature[K]&lt;Temperature.MAX with the precision
+     * of this calculator without throwing
+     *
+     * @param temperature temperature
+     * @return saturation vapor pressure, NaN if the temperature is out of range
+     * @see eu.sergehelfrich.ersa.Temperature
+     * @see #getPrecision()
+     */
+    public double pvsOrNaN(double temperature) {
+        if (!(temperature >= Temperature.MIN && temperature <= Temperature.MAX)) {
+            return Double.NaN;
+        } else if (precision != Precision.EXACT && temperature <= PvsApproximation.MAX_TEMPERATURE) {
+            return precision == Precision.FAST
+                    ? PvsApproximation.fast(temperature)
+                    : PvsApproximation.fastest(temperature);
         } else if (temperature < Temperature.CELSIUS_OFFSET) {
             return pvsIce(temperature);
         } else {
@@ -67,13 +567,131 @@ public class Dew {
         }
     }
 
+    /**
+     * Compute the saturation vapor pressures for an array of temperatures
+     * with the precision of this calculator. Exact pressures are vectorized
+     * on Java 17 and later if the module jdk.incubator.vector is added.
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure (Pa), NaN if the temperature
+     * is out of range, output
+     * @see #pvsOrNaN(double)
+     */
+    public void pvs(double[] temperature, double[] pressure) {
+        checkLength(temperature.length, pressure.length);
+        if (VECTOR_KERNEL != null && precision == Precision.EXACT) {
+            VECTOR_KERNEL.pvs(temperature, pressure, 0, temperature.length);
+            return;
+        }
+        for (int i = 0; i < temperature.length; i++) {
+            pressure[i] = pvsOrNaN(temperature[i]);
+        }
+    }
+
+    /**
+     * Compute the saturation vapor pressures over water for an array of
+     * temperatures.
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure (Pa), output
+     * @see #pvsWater(double)
+     * @see #pvs(double[], double[])
+     */
+    public void pvsWater(double[] temperature, double[] pressure) {
+        checkLength(temperature.length, pressure.length);
+        if (VECTOR_KERNEL != null) {
+            VECTOR_KERNEL.pvsWater(temperature, pressure, 0, temperature.length);
+            return;
+        }
+        for (int i = 0; i < temperature.length; i++) {
+            pressure[i] = pvsWater(temperature[i]);
+        }
+    }
+
+    /**
+     * Compute the saturation vapor pressures over ice for an array of
+     * temperatures.
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure (Pa), output
+     * @see #pvsIce(double)
+     * @see #pvs(double[], double[])
+     */
+    public void pvsIce(double[] temperature, double[] pressure) {
+        checkLength(temperature.length, pressure.length);
+        if (VECTOR_KERNEL != null) {
+            VECTOR_KERNEL.pvsIce(temperature, pressure, 0, temperature.length);
+            return;
+        }
+        for (int i = 0; i < temperature.length; i++) {
+            pressure[i] = pvsIce(temperature[i]);
+        }
+    }
+
+    /**
+     *
+     * @return true if the array methods for the saturation vapor pressure are
+     * vectorized
+     * @see #pvs(double[], double[])
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != null;
+    }
+
+    private static PvsKernel vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            // only present in the Java 17 version of the multi-release JAR
+            return Class.forName("eu.sergehelfrich.ersa.VectorPvsKernel").asSubclass(PvsKernel.class)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Compute the saturation temperature for a given vapor pressure using the
+     * closed-form backward equations. This is the inverse of
+     * {@link #pvs(double)} up to the critical pressure.
+     *
+     * @param pressure vapor pressure (Pa)
+     * @return saturation temperature (K)
+     * @throws IllegalArgumentException saturation temperature out of range
+     * @see eu.sergehelfrich.ersa.Temperature
+     */
+    public double ts(double pressure) throws IllegalArgumentException {
+        double temperature = tsOrNaN(pressure);
+        if (Double.isNaN(temperature)) {
+            throw new IllegalArgumentException("Temperature out of range!");
+        }
+        return temperature;
+    }
+
+    /**
+     * Compute the saturation temperature for a given vapor pressure using the
+     * closed-form backward equations without throwing.
+     *
+     * @param pressure vapor pressure (Pa)
+     * @return saturation temperature (K), NaN if out of range
+     * @see #ts(double)
+     */
+    public double tsOrNaN(double pressure) {
+        double temperature = pressure < PVS_ICE_MELTING ? tsIce(pressure) : tsWater(pressure);
+        if (!(temperature >= Temperature.MIN && temperature <= Temperature.MAX)) {
+            return Double.NaN;
+        }
+        return temperature;
+    }
+
     /* Ice saturation vapor pressure coefficients */
-    private static final double K0 = -5.8666426e3;
-    private static final double K1 = 2.232870244e1;
-    private static final double K2 = 1.39387003e-2;
-    private static final double K3 = -3.4262402e-5;
-    private static final double K4 = 2.7040955e-8;
-    private static final double K5 = 6.7063522e-1;
+    static final double K0 = -5.8666426e3;
+    static final double K1 = 2.232870244e1;
+    static final double K2 = 1.39387003e-2;
+    static final double K3 = -3.4262402e-5;
+    static final double K4 = 2.7040955e-8;
+    static final double K5 = 6.7063522e-1;
 
     /**
      * Saturation Vapor Pressure formula for range -100..0 Deg. C. This is taken
@@ -96,17 +714,70 @@ public class Dew {
         return Math.exp(lnP);
     }
 
+    /**
+     * First derivative of {@link #pvsIce(double)} with respect to the
+     * temperature.
+     *
+     * @param temperature temperature
+     * @param pressure saturation vapor pressure at this temperature
+     * @return derivative of the saturation vapor pressure
+     */
+    public double pvsIceDerivative(double temperature, double pressure) {
+        double dLnP = -K0 / (temperature * temperature) + K2 + (2 * K3 + 3 * K4 * temperature) * temperature
+                + K5 / temperature;
+        return pressure * dLnP;
+    }
+
+    /**
+     * Second derivative of {@link #pvsIce(double)} with respect to the
+     * temperature.
+     *
+     * @param temperature temperature
+     * @param pressure saturation vapor pressure at this temperature
+     * @param derivative first derivative at this temperature
+     * @return second derivative of the saturation vapor pressure
+     */
+    public double pvsIceSecondDerivative(double temperature, double pressure, double derivative) {
+        double ddLnP = 2 * K0 / (temperature * temperature * temperature) + 2 * K3 + 6 * K4 * temperature
+                - K5 / (temperature * temperature);
+        return derivative * derivative / pressure + pressure * ddLnP;
+    }
+
+    /* Frost point coefficients */
+    private static final double C0 = 2.1257969e2;
+    private static final double C1 = -1.0264612e1;
+    private static final double C2 = 1.4354796e-1;
+    private static final double D1 = -8.2871619e-2;
+    private static final double D2 = 2.3540411e-3;
+    private static final double D3 = -2.4363951e-5;
+
+    /**
+     * Frost point formula, the inverse of {@link #pvsIce(double)}. This is
+     * taken from the same paper by Bob Hardy.
+     *
+     * @param pressure vapor pressure
+     * @return frost point temperature
+     * @see
+     * <a href="http://citeseerx.ist.psu.edu/viewdoc/download?doi=10.1.1.564.407&rep=rep1&type=pdf">
+     * ITS-90 Formulations for Vapor Pressure, Frostpoint Temperature, Dewpoint
+     * Temperature, and Enhancement Factors in the Range 100 to +100 C</a>
+     */
+    public double tsIce(double pressure) {
+        double lnP = Math.log(pressure);
+        return (C0 + (C1 + C2 * lnP) * lnP) / (1 + (D1 + (D2 + D3 * lnP) * lnP) * lnP);
+    }
+
     /* Water saturation vapor pressure coefficients */
-    private static final double N1 = 0.11670521452767e4;
-    private static final double N6 = 0.14915108613530e2;
-    private static final double N2 = -0.72421316703206e6;
-    private static final double N7 = -0.48232657361591e4;
-    private static final double N3 = -0.17073846940092e2;
-    private static final double N8 = 0.40511340542057e6;
-    private static final double N4 = 0.12020824702470e5;
-    private static final double N9 = -0.23855557567849;
-    private static final double N5 = -0.32325550322333e7;
-    private static final double N10 = 0.65017534844798e3;
+    static final double N1 = 0.11670521452767e4;
+    static final double N6 = 0.14915108613530e2;
+    static final double N2 = -0.72421316703206e6;
+    static final double N7 = -0.48232657361591e4;
+    static final double N3 = -0.17073846940092e2;
+    static final double N8 = 0.40511340542057e6;
+    static final double N4 = 0.12020824702470e5;
+    static final double N9 = -0.23855557567849;
+    static final double N5 = -0.32325550322333e7;
+    static final double N10 = 0.65017534844798e3;
 
     /**
      * Saturation Vapor Pressure formula for range 273..678 K. This is taken
@@ -136,4 +807,114 @@ public class Dew {
         return p * 1e6;
     }
 
+    /**
+     * First derivative of {@link #pvsWater(double)} with respect to the
+     * temperature, obtained by implicit differentiation of Equation (29).
+     *
+     * @param temperature temperature
+     * @param pressure saturation vapor pressure at this temperature
+     * @return derivative of the saturation vapor pressure
+     */
+    public double pvsWaterDerivative(double temperature, double pressure) {
+        double d = temperature - N10;
+        double th = temperature + N9 / d;
+        double a = (th + N1) * th + N2;
+        double b = (N3 * th + N4) * th + N5;
+        double c = (N6 * th + N7) * th + N8;
+
+        double beta = 2 * c / (-b + Math.sqrt(b * b - 4 * a * c));
+        double dBeta = -(((2 * th + N1) * beta + 2 * N3 * th + N4) * beta + 2 * N6 * th + N7) / (2 * a * beta + b);
+        return 4 * pressure * dBeta * (1 - N9 / (d * d)) / beta;
+    }
+
+    /**
+     * Second derivative of {@link #pvsWater(double)} with respect to the
+     * temperature, obtained by implicit differentiation of Equation (29).
+     *
+     * @param temperature temperature
+     * @param pressure saturation vapor pressure at this temperature
+     * @param derivative first derivative at this temperature
+     * @return second derivative of the saturation vapor pressure
+     */
+    public double pvsWaterSecondDerivative(double temperature, double pressure, double derivative) {
+        double d = temperature - N10;
+        double th = temperature + N9 / d;
+        double dTh = 1 - N9 / (d * d);
+        double ddTh = 2 * N9 / (d * d * d);
+        double a = (th + N1) * th + N2;
+        double b = (N3 * th + N4) * th + N5;
+        double c = (N6 * th + N7) * th + N8;
+
+        double beta = 2 * c / (-b + Math.sqrt(b * b - 4 * a * c));
+        double fBeta = 2 * a * beta + b;
+        double fThBeta = 2 * (2 * th + N1) * beta + 2 * N3 * th + N4;
+        double fThTh = 2 * (beta + N3) * beta + 2 * N6;
+        double dBeta = -(((2 * th + N1) * beta + 2 * N3 * th + N4) * beta + 2 * N6 * th + N7) / fBeta;
+        double ddBeta = -(fThTh + 2 * fThBeta * dBeta + 2 * a * dBeta * dBeta) / fBeta;
+
+        double betaT = dBeta * dTh;
+        double betaTT = ddBeta * dTh * dTh + dBeta * ddTh;
+        return pressure * (12 * betaT * betaT + 4 * beta * betaTT) / (beta * beta);
+    }
+
+    /**
+     * {@link #pvsWater(double)} and its derivatives in one pass, sharing beta
+     * and its intermediates, so with a single sqrt
+     *
+     * @param temperature temperature
+     * @param order 1 for the first derivative, 2 for the first and second
+     * @param values saturation vapor pressure and its derivatives, output
+     */
+    static void pvsWater(double temperature, int order, double[] values) {
+        double d = temperature - N10;
+        double th = temperature + N9 / d;
+        double dTh = 1 - N9 / (d * d);
+        double a = (th + N1) * th + N2;
+        double b = (N3 * th + N4) * th + N5;
+        double c = (N6 * th + N7) * th + N8;
+
+        double beta = 2 * c / (-b + Math.sqrt(b * b - 4 * a * c));
+        double p = beta * beta;
+        p *= p;
+        double pressure = p * 1e6;
+        double fBeta = 2 * a * beta + b;
+        double fThBeta = 2 * (2 * th + N1) * beta + 2 * N3 * th + N4;
+        double dBeta = -(((2 * th + N1) * beta + 2 * N3 * th + N4) * beta + 2 * N6 * th + N7) / fBeta;
+        double betaT = dBeta * dTh;
+        values[0] = pressure;
+        values[1] = 4 * pressure * betaT / beta;
+        if (order > 1) {
+            double ddTh = 2 * N9 / (d * d * d);
+            double fThTh = 2 * (beta + N3) * beta + 2 * N6;
+            double ddBeta = -(fThTh + 2 * fThBeta * dBeta + 2 * a * dBeta * dBeta) / fBeta;
+            double betaTT = ddBeta * dTh * dTh + dBeta * ddTh;
+            values[2] = pressure * (12 * betaT * betaT + 4 * beta * betaTT) / (beta * beta);
+        }
+    }
+
+    /**
+     * Saturation Temperature formula for range 611.213 Pa..22.064 MPa, the
+     * inverse of {@link #pvsWater(double)}. This is taken from the same
+     * release by IAPWS.
+     * <p>
+     * This is Equation (31) in Section 8.2 "The Saturation-Temperature
+     * Equation (Backward Equation)"
+     *
+     * @param pressure vapor pressure
+     * @return saturation temperature
+     * @see <a href="http://www.iapws.org/relguide/IF97-Rev.pdf">Revised Release
+     * on the IAPWS Industrial Formulation 1997 for the Thermodynamic Properties
+     * of Water and Steam </a>
+     */
+    public double tsWater(double pressure) {
+        double beta = Math.sqrt(Math.sqrt(pressure * 1e-6));
+        double e = (beta + N3) * beta + N6;
+        double f = (N1 * beta + N4) * beta + N7;
+        double g = (N2 * beta + N5) * beta + N8;
+
+        double d = 2 * g / (-f - Math.sqrt(f * f - 4 * e * g));
+        double s = N10 + d;
+        return (s - Math.sqrt(s * s - 4 * (N9 + N10 * d))) / 2;
+    }
+
 }
@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverException;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded concurrent cache of dew points and saturation vapor pressures.
+ * Inputs are quantized to a grid aligned with 0 deg. C, and the cached value is
+ * the one computed at the grid point, so the result for nearby inputs is
+ * identical. With the default steps of 0.1 K and 0.1 % readings that are
+ * already quantized like that are returned exactly.
+ * <p>
+ * The cache is set-associative: a key, packed into a long, maps to a set of
+ * {@value #WAYS} slots, and a full set evicts with the CLOCK (second chance)
+ * policy. Sets are grouped into segments with a lock each; hits take an
+ * optimistic read and do not block. Only successful results are cached.
+ * <p>
+ * A hit costs a few dozen nanoseconds, several times less than solving for the
+ * dew point iteratively, but more than {@link Dew#pvs(double)} or the
+ * {@link DewPointMethod#CLOSED_FORM} dew point, which are better computed
+ * directly.
+ *
+ * @author helfrich
+ */
+public class DewPointCache {
+
+    /**
+     * Slots per set
+     */
+    static final int WAYS = 8;
+
+    private static final int SEGMENTS = 16;
+    private static final long DEW_POINT = 1L << 62;
+    private static final long PVS = 2L << 62;
+    private static final int INDEX_BIAS = 1 << 30;
+    private static final int MAX_INDEX = 1 << 29;
+
+    private final Dew dew;
+    private final double temperatureStep;
+    private final double relativeHumidityStep;
+    private final int setMask;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cache with quantization steps of 0.1 K and 0.1 %
+     *
+     * @param dew dew point calculator
+     * @param capacity minimum number of entries, rounded up to a power of two
+     * of at least 128
+     */
+    public DewPointCache(Dew dew, int capacity) {
+        this(dew, capacity, 0.1, 0.1);
+    }
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param capacity minimum number of entries, rounded up to a power of two
+     * of at least 128
+     * @param temperatureStep temperature quantization step (K)
+     * @param relativeHumidityStep relative humidity quantization step (%)
+     */
+    public DewPointCache(Dew dew, int capacity, double temperatureStep, double relativeHumidityStep) {
+        if (capacity < 1 || capacity > 1 << 28) {
+            throw new IllegalArgumentException("Capacity out of range!");
+        }
+        if (!(temperatureStep >= 1e-4) || !(relativeHumidityStep >= 1e-4)) {
+            throw new IllegalArgumentException("Step out of range!");
+        }
+        this.dew = dew;
+        this.temperatureStep = temperatureStep;
+        this.relativeHumidityStep = relativeHumidityStep;
+        int sets = Math.max(1, Integer.highestOneBit(((capacity + WAYS - 1) / WAYS + SEGMENTS - 1) / SEGMENTS * 2 - 1));
+        this.setMask = sets - 1;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(sets);
+        }
+    }
+
+    /**
+     * Dew point for given relative humidity[%] and temperature[K]
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @return dew point (K) at the quantized inputs
+     * @throws SolverException Solver does not converge
+     * @see Dew#dewPoint(double, double)
+     */
+    public double dewPoint(double relativeHumidity, double temperature) throws SolverException, IllegalArgumentException {
+        SolverResult result = new SolverResult();
+        double dewPoint = dewPoint(relativeHumidity, temperature, result);
+        if (result.getStatus() == Status.OUT_OF_RANGE) {
+            throw new IllegalArgumentException("Temperature out of range!");
+        } else if (result.getStatus() == Status.NO_CONVERGENCE) {
+            throw new SolverException("Solver does not converge!");
+        }
+        return dewPoint;
+    }
+
+    /**
+     * Dew point for given relative humidity[%] and temperature[K] without
+     * throwing. A hit reports zero iterations.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param result status and iteration count, output
+     * @return dew point (K) at the quantized inputs, NaN if the status is not
+     * OK
+     * @see Dew#dewPoint(double, double, SolverResult)
+     */
+    public double dewPoint(double relativeHumidity, double temperature, SolverResult result) {
+        double temperatureGrid = (temperature - Temperature.CELSIUS_OFFSET) / temperatureStep;
+        double relativeHumidityGrid = relativeHumidity / relativeHumidityStep;
+        if (!(Math.abs(temperatureGrid) < MAX_INDEX && relativeHumidityGrid >= 0 && relativeHumidityGrid < MAX_INDEX)) {
+            // not representable in a key, e.g. NaN or negative humidity
+            return dew.dewPoint(relativeHumidity, temperature, result);
+        }
+        long temperatureIndex = (long) Math.floor(temperatureGrid + 0.5);
+        long relativeHumidityIndex = (long) (relativeHumidityGrid + 0.5);
+        long key = DEW_POINT | (temperatureIndex + INDEX_BIAS) << 31 | relativeHumidityIndex;
+        double dewPoint = get(key);
+        if (!Double.isNaN(dewPoint)) {
+            result.setStatus(Status.OK);
+            result.setIterations(0);
+            return dewPoint;
+        }
+        dewPoint = dew.dewPoint(relativeHumidityIndex * relativeHumidityStep,
+                Temperature.CELSIUS_OFFSET + temperatureIndex * temperatureStep, result);
+        if (result.getStatus() == Status.OK) {
+            put(key, dewPoint);
+        }
+        return dewPoint;
+    }
+
+    /**
+     * Saturation vapor pressure
+     *
+     * @param temperature temperature (K)
+     * @return saturation vapor pressure (Pa) at the quantized temperature
+     * @throws IllegalArgumentException if the temperature is out of range
+     * @see Dew#pvs(double)
+     */
+    public double pvs(double temperature) throws IllegalArgumentException {
+        double pressure = pvsOrNaN(temperature);
+        if (Double.isNaN(pressure)) {
+            throw new IllegalArgumentException("Temperature out of range!");
+        }
+        return pressure;
+    }
+
+    /**
+     * Saturation vapor pressure without throwing
+     *
+     * @param temperature temperature (K)
+     * @return saturation vapor pressure (Pa) at the quantized temperature, NaN
+     * if out of range
+     * @see Dew#pvsOrNaN(double)
+     */
+    public double pvsOrNaN(double temperature) {
+        double temperatureGrid = (temperature - Temperature.CELSIUS_OFFSET) / temperatureStep;
+        if (!(Math.abs(temperatureGrid) < MAX_INDEX)) {
+            return dew.pvsOrNaN(temperature);
+        }
+        long temperatureIndex = (long) Math.floor(temperatureGrid + 0.5);
+        long key = PVS | (temperatureIndex + INDEX_BIAS) << 31;
+        double pressure = get(key);
+        if (!Double.isNaN(pressure)) {
+            return pressure;
+        }
+        pressure = dew.pvsOrNaN(Temperature.CELSIUS_OFFSET + temperatureIndex * temperatureStep);
+        if (!Double.isNaN(pressure)) {
+            put(key, pressure);
+        }
+        return pressure;
+    }
+
+    /**
+     *
+     * @return number of entries the cache can hold
+     */
+    public int getCapacity() {
+        return SEGMENTS * WAYS * (setMask + 1);
+    }
+
+    /**
+     *
+     * @return number of lookups answered from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     *
+     * @return number of lookups that were computed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     *
+     * @return number of entries evicted to make room
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Remove all entries and reset the statistics
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    private static long hash(long key) {
+        // Stafford variant 13 of the MurmurHash3 finalizer
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+
+    private double get(long key) {
+        long hash = hash(key);
+        double value = segments[(int) (hash >>> 60)].get(key, ((int) hash & setMask) * WAYS);
+        if (Double.isNaN(value)) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    private void put(long key, double value) {
+        long hash = hash(key);
+        if (segments[(int) (hash >>> 60)].put(key, value, ((int) hash & setMask) * WAYS)) {
+            evictions.increment();
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        /* Key and raw value bits interleaved, so a set spans two cache lines */
+        private final long[] entries;
+        /* CLOCK reference bits, set without the lock as they are only a hint */
+        private final byte[] referenced;
+        private final byte[] hands;
+
+        Segment(int sets) {
+            entries = new long[2 * sets * WAYS];
+            referenced = new byte[sets * WAYS];
+            hands = new byte[sets];
+        }
+
+        double get(long key, int set) {
+            long stamp = lock.tryOptimisticRead();
+            int slot = find(key, set);
+            double value = slot < 0 ? Double.NaN : Double.longBitsToDouble(entries[2 * slot + 1]);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = find(key, set);
+                    value = slot < 0 ? Double.NaN : Double.longBitsToDouble(entries[2 * slot + 1]);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (slot >= 0 && referenced[slot] == 0) {
+                referenced[slot] = 1;
+            }
+            return value;
+        }
+
+        /**
+         *
+         * @return true if an entry was evicted
+         */
+        boolean put(long key, double value, int set) {
+            long stamp = lock.writeLock();
+            try {
+                if (find(key, set) >= 0) {
+                    return false;
+                }
+                for (int slot = set; slot < set + WAYS; slot++) {
+                    if (entries[2 * slot] == 0) {
+                        store(slot, key, value);
+                        return false;
+                    }
+                }
+                int index = set / WAYS;
+                int hand = hands[index];
+                while (referenced[set + hand] != 0) {
+                    referenced[set + hand] = 0;
+                    hand = (hand + 1) & (WAYS - 1);
+                }
+                store(set + hand, key, value);
+                hands[index] = (byte) ((hand + 1) & (WAYS - 1));
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int find(long key, int set) {
+            for (int slot = set; slot < set + WAYS; slot++) {
+                if (entries[2 * slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void store(int slot, long key, double value) {
+            entries[2 * slot] = key;
+            entries[2 * slot + 1] = Double.doubleToRawLongBits(value);
+            referenced[slot] = 0;
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(entries, 0);
+                Arrays.fill(referenced, (byte) 0);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Method used by {@link Dew} to invert the saturation vapor pressure. Above
+ * the critical point of water (647.096 K, 22.064 MPa) there is no dew point
+ * and all methods report {@link eu.sergehelfrich.ersa.solver.Status#OUT_OF_RANGE}.
+ *
+ * @author helfrich
+ */
+public enum DewPointMethod {
+
+    /**
+     * Numerical inversion with {@link eu.sergehelfrich.ersa.solver.Solver}
+     */
+    SOLVER,
+
+    /**
+     * Newton's method with the analytic derivative of the saturation vapor
+     * pressure
+     */
+    NEWTON,
+
+    /**
+     * Halley's method with the analytic first and second derivatives of the
+     * saturation vapor pressure
+     */
+    HALLEY,
+
+    /**
+     * Newton's method with the analytic derivative, safeguarded by bisection
+     * within [{@link Temperature#MIN}, temperature] (or [temperature, 647.096
+     * K] above 100 % relative humidity). Converges within
+     * a fixed iteration budget, also across the ice/water switch at 0 deg. C.
+     *
+     * @see eu.sergehelfrich.ersa.solver.Solver#solveBracketed(eu.sergehelfrich.ersa.solver.DifferentiableFunctionCallable,
+     * double, double, double, double, eu.sergehelfrich.ersa.solver.SolverResult)
+     */
+    BRACKETED,
+
+    /**
+     * Closed-form backward equations: IAPWS-IF97 Eq. (31) over water and
+     * Hardy's ITS-90 frost point equation over ice. The maximum deviation from
+     * {@link #SOLVER} is 0.003 K (measured in 0.5 K / 0.5 % RH steps over the
+     * valid range); the backward equations reproduce the temperature passed to
+     * {@link Dew#pvsWater(double)} within 1e-10 K and to
+     * {@link Dew#pvsIce(double)} within 6e-5 K.
+     */
+    CLOSED_FORM
+}
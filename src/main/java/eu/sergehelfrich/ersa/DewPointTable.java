@@ -0,0 +1,525 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Precomputed dew point table. The dew point is computed once on a grid of
+ * temperature and logarithmic relative humidity, on which it is nearly linear,
+ * and interpolated between the grid points. The temperature grid is aligned
+ * with 0 deg. C and split there, so no cell or stencil spans the switch from
+ * ice to water. The table is immutable and can be shared between threads.
+ * <p>
+ * {@link #getMaxError()} is a guaranteed bound on the deviation from the exact
+ * dew point, derived per cell from the analytic derivatives of the saturation
+ * vapor pressure. Where the dew point cannot be computed (the frost point
+ * would be below {@link Temperature#MIN}, or the temperature is above the
+ * critical temperature of water) the table is undefined, see
+ * {@link #getMinRelativeHumidity(double)}.
+ *
+ * @author helfrich
+ */
+public class DewPointTable {
+
+    /* Lebesgue constant and first and second order error constants of bilinear
+     * and Catmull-Rom interpolation (in units of the grid step, maximum over
+     * the interior and boundary stencils) */
+    private static final double LINEAR_LEBESGUE = 1;
+    private static final double LINEAR_FIRST_ORDER = 0.5;
+    private static final double LINEAR_SECOND_ORDER = 0.125;
+    private static final double CUBIC_LEBESGUE = 1.25;
+    private static final double CUBIC_FIRST_ORDER = 0.75;
+    private static final double CUBIC_SECOND_ORDER = 0.28125;
+
+    private final double minTemperature;
+    private final double maxTemperature;
+    private final double temperatureStep;
+    private final double temperatureScale;
+    private final int temperatureCount;
+
+    /**
+     * Grid line of the melting point, clamped to the table
+     */
+    private final int meltingIndex;
+
+    /**
+     * 1 if the melting point lies inside the table and its grid line is stored
+     * twice, as the limit over ice and over water, otherwise 0
+     */
+    private final int split;
+
+    private final double minRelativeHumidity;
+    private final double maxRelativeHumidity;
+    private final double logMinRelativeHumidity;
+    private final double relativeHumidityStep;
+    private final double relativeHumidityScale;
+    private final int relativeHumidityCount;
+
+    private final Interpolation interpolation;
+
+    /**
+     * Dew points, row major by temperature
+     */
+    private final double[] values;
+
+    /**
+     * First defined cell per temperature column, relativeHumidityCount - 1 if
+     * there is none
+     */
+    private final int[] firstDefined;
+
+    /**
+     * Error bound per temperature column, NaN if no cell is defined
+     */
+    private final double[] columnErrors;
+
+    private final double maxError;
+
+    /**
+     * Table for Temperature.MIN&lt;temperature[K]&lt;Temperature.MAX and
+     * 1&lt;relative humidity[%]&lt;100 in steps of 1 K and at most 1 % with
+     * bilinear interpolation
+     *
+     * @param dew dew point calculator
+     */
+    public DewPointTable(Dew dew) {
+        this(dew, Temperature.MIN, Temperature.MAX, 1, 1, 100, 1, Interpolation.BILINEAR);
+    }
+
+    /**
+     * The temperature grid lines are 0 deg. C plus multiples of the
+     * temperature step, from the last one at or below the minimum temperature
+     * to the first one at or above the maximum temperature, within
+     * Temperature.MIN..Temperature.MAX. The relative humidity grid is
+     * logarithmic, with steps of at most the relative humidity step.
+     *
+     * @param dew dew point calculator
+     * @param minTemperature minimum temperature (K)
+     * @param maxTemperature maximum temperature (K)
+     * @param temperatureStep temperature grid step (K)
+     * @param minRelativeHumidity minimum relative humidity (%)
+     * @param maxRelativeHumidity maximum relative humidity (%)
+     * @param relativeHumidityStep largest relative humidity grid step (%)
+     * @param interpolation interpolation
+     */
+    public DewPointTable(Dew dew, double minTemperature, double maxTemperature, double temperatureStep,
+            double minRelativeHumidity, double maxRelativeHumidity, double relativeHumidityStep,
+            Interpolation interpolation) {
+        if (minTemperature < Temperature.MIN || maxTemperature > Temperature.MAX) {
+            throw new IllegalArgumentException("Temperature out of range!");
+        }
+        if (!(minRelativeHumidity > 0) || !(maxRelativeHumidity > minRelativeHumidity) || !(temperatureStep > 0)
+                || !(relativeHumidityStep > 0 && relativeHumidityStep < maxRelativeHumidity)
+                || !(maxTemperature >= minTemperature)) {
+            throw new IllegalArgumentException("Invalid table range!");
+        }
+        long first = (long) Math.floor((minTemperature - Temperature.CELSIUS_OFFSET) / temperatureStep + 1e-9);
+        long last = (long) Math.ceil((maxTemperature - Temperature.CELSIUS_OFFSET) / temperatureStep - 1e-9);
+        if (Temperature.CELSIUS_OFFSET + first * temperatureStep < Temperature.MIN) {
+            first++;
+        }
+        if (Temperature.CELSIUS_OFFSET + last * temperatureStep > Temperature.MAX) {
+            last--;
+        }
+        if (last - first < 1 || last - first >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid table range!");
+        }
+        this.minTemperature = Temperature.CELSIUS_OFFSET + first * temperatureStep;
+        this.maxTemperature = Temperature.CELSIUS_OFFSET + last * temperatureStep;
+        this.temperatureStep = temperatureStep;
+        this.temperatureScale = 1 / temperatureStep;
+        this.temperatureCount = (int) (last - first) + 1;
+        this.meltingIndex = (int) Math.max(0, Math.min(-first, last - first));
+        this.split = first < 0 && last > 0 ? 1 : 0;
+
+        double logRange = Math.log(maxRelativeHumidity / minRelativeHumidity);
+        int steps = (int) Math.ceil(logRange / -Math.log1p(-relativeHumidityStep / maxRelativeHumidity) - 1e-9);
+        this.minRelativeHumidity = minRelativeHumidity;
+        this.maxRelativeHumidity = maxRelativeHumidity;
+        this.logMinRelativeHumidity = Math.log(minRelativeHumidity);
+        this.relativeHumidityStep = logRange / Math.max(steps, 1);
+        this.relativeHumidityScale = 1 / this.relativeHumidityStep;
+        this.relativeHumidityCount = Math.max(steps, 1) + 1;
+        this.interpolation = interpolation;
+
+        int rows = temperatureCount + split;
+        values = new double[rows * relativeHumidityCount];
+        double[] temperature = new double[values.length];
+        double[] relativeHumidity = new double[values.length];
+        for (int r = 0; r < rows; r++) {
+            // the melting point row over ice is computed just below it
+            double t = isIceLimit(r) ? Math.nextDown(Temperature.CELSIUS_OFFSET) : rowTemperature(r);
+            for (int j = 0; j < relativeHumidityCount; j++) {
+                temperature[r * relativeHumidityCount + j] = t;
+                relativeHumidity[r * relativeHumidityCount + j] = gridRelativeHumidity(j);
+            }
+        }
+        dew.dewPointParallel(relativeHumidity, temperature, values, new int[values.length]);
+
+        firstDefined = new int[temperatureCount - 1];
+        columnErrors = new double[temperatureCount - 1];
+        maxError = bound(dew);
+    }
+
+    private double rowTemperature(int row) {
+        int line = row > meltingIndex ? row - split : row;
+        return line == meltingIndex && split == 1 ? Temperature.CELSIUS_OFFSET
+                : minTemperature + line * temperatureStep;
+    }
+
+    private boolean isIceLimit(int row) {
+        return split == 1 && row == meltingIndex;
+    }
+
+    private boolean isIceRow(int row) {
+        return row <= meltingIndex && (split == 1 || rowTemperature(row) < Temperature.CELSIUS_OFFSET);
+    }
+
+    private double gridRelativeHumidity(int j) {
+        return j == relativeHumidityCount - 1 ? maxRelativeHumidity
+                : Math.exp(logMinRelativeHumidity + j * relativeHumidityStep);
+    }
+
+    /**
+     * Fill firstDefined and columnErrors and return the largest error bound.
+     * <p>
+     * With u = ln(relative humidity) and g = ln(pvs), the dew point Td solves
+     * g(Td) = u + g(T) - ln(100), so Td_u = 1/g'(Td), Td_T = g'(T)/g'(Td),
+     * Td_uu = -g''(Td)/g'(Td)^3 and Td_TT = (g''(T) - g''(Td) Td_T^2)/g'(Td).
+     * g'' increases with the temperature over ice and over water, so g' is
+     * convex, and the dew point increases with u and T, so the ranges of these
+     * over a cell follow from its lowest and highest grid point. The bound
+     * per cell is the smaller of the second order bound
+     * c2 (hT^2 max|Td_TT| + L hu^2 max|Td_uu|) and the first order bound
+     * L c1 (hT dTd_T + hu dTd_u) / 2, where L, c1 and c2 are the constants of
+     * the interpolation and dTd_T, dTd_u the ranges of the gradient, plus
+     * L^2 times the deviation of the grid points from the exact dew point. Cells across a dew point of 0 deg. C only have the first order
+     * bound, plus the jump between pvsIce and pvsWater at the melting point.
+     */
+    private double bound(Dew dew) {
+        boolean cubic = interpolation == Interpolation.CUBIC;
+        double lebesgue = cubic ? CUBIC_LEBESGUE : LINEAR_LEBESGUE;
+        double firstOrder = cubic ? CUBIC_FIRST_ORDER : LINEAR_FIRST_ORDER;
+        double secondOrder = cubic ? CUBIC_SECOND_ORDER : LINEAR_SECOND_ORDER;
+        int rows = temperatureCount + split;
+        int n = relativeHumidityCount;
+
+        // first and second derivative of g at the grid temperatures
+        double[] rowG1 = new double[rows];
+        double[] rowG2 = new double[rows];
+        double[] lnP = new double[rows];
+        double[] d = new double[3];
+        for (int r = 0; r < rows; r++) {
+            lnPvs(dew, rowTemperature(r), isIceRow(r), d);
+            lnP[r] = d[0];
+            rowG1[r] = d[1];
+            rowG2[r] = d[2];
+        }
+        // ... at the grid dew points, and the deviation of these from the exact dew point
+        double[] g1 = new double[values.length];
+        double[] g2 = new double[values.length];
+        double[] deviation = new double[values.length];
+        int[] lastUndefined = new int[rows];
+        for (int r = 0; r < rows; r++) {
+            lastUndefined[r] = -1;
+            for (int j = 0; j < n; j++) {
+                int k = r * n + j;
+                double dewPoint = values[k];
+                if (Double.isNaN(dewPoint)) {
+                    lastUndefined[r] = j;
+                    continue;
+                }
+                lnPvs(dew, dewPoint, dewPoint < Temperature.CELSIUS_OFFSET, d);
+                g1[k] = d[1];
+                g2[k] = d[2];
+                double u = Math.log(gridRelativeHumidity(j) / 100);
+                deviation[k] = Math.abs(d[0] - u - lnP[r]) / d[1];
+            }
+        }
+        double[] iceMelting = new double[3];
+        double[] waterMelting = new double[3];
+        lnPvs(dew, Temperature.CELSIUS_OFFSET, true, iceMelting);
+        lnPvs(dew, Temperature.CELSIUS_OFFSET, false, waterMelting);
+        double gap = waterMelting[0] - iceMelting[0];
+
+        double hT = temperatureStep;
+        double hu = relativeHumidityStep;
+        double max = Double.NaN;
+        for (int column = 0; column < temperatureCount - 1; column++) {
+            int row = column < meltingIndex ? column : column + split;
+            int rowLo = row;
+            int rowHi = row + 1;
+            if (cubic) {
+                rowLo = Math.max(row - 1, column < meltingIndex ? 0 : meltingIndex + split);
+                rowHi = Math.min(row + 2, column < meltingIndex ? meltingIndex : rows - 1);
+            }
+            int undefined = -1;
+            for (int r = rowLo; r <= rowHi; r++) {
+                undefined = Math.max(undefined, lastUndefined[r]);
+            }
+            int start = undefined < 0 ? 0 : cubic ? undefined + 2 : undefined + 1;
+            firstDefined[column] = Math.min(start, n - 1);
+
+            double airG1Min = minG1(rowTemperature(rowLo), rowG1[rowLo], rowG2[rowLo],
+                    rowTemperature(rowHi), rowG1[rowHi], rowG2[rowHi]);
+            double airG1Max = Math.max(rowG1[rowLo], rowG1[rowHi]);
+            double airG2Min = rowG2[rowLo];
+            double airG2Max = rowG2[rowHi];
+            double columnError = Double.NaN;
+            for (int j = firstDefined[column]; j < n - 1; j++) {
+                int jLo = cubic ? Math.max(j - 1, 0) : j;
+                int jHi = cubic ? Math.min(j + 2, n - 1) : j + 1;
+                int lo = rowLo * n + jLo;
+                int hi = rowHi * n + jHi;
+                double t0 = values[lo];
+                double t1 = values[hi];
+                double nodeDeviation = 0;
+                for (int r = rowLo; r <= rowHi; r++) {
+                    for (int k = r * n + jLo; k <= r * n + jHi; k++) {
+                        nodeDeviation = Math.max(nodeDeviation, deviation[k]);
+                    }
+                }
+                boolean kink = t0 < Temperature.CELSIUS_OFFSET && t1 >= Temperature.CELSIUS_OFFSET;
+                double dewG1Min;
+                double dewG1Max;
+                if (kink) {
+                    dewG1Min = Math.min(
+                            minG1(t0, g1[lo], g2[lo], Temperature.CELSIUS_OFFSET, iceMelting[1], iceMelting[2]),
+                            minG1(Temperature.CELSIUS_OFFSET, waterMelting[1], waterMelting[2], t1, g1[hi], g2[hi]));
+                    dewG1Max = Math.max(Math.max(g1[lo], iceMelting[1]), Math.max(waterMelting[1], g1[hi]));
+                } else {
+                    dewG1Min = minG1(t0, g1[lo], g2[lo], t1, g1[hi], g2[hi]);
+                    dewG1Max = Math.max(g1[lo], g1[hi]);
+                }
+                double slopeMin = airG1Min / dewG1Max;
+                double slopeMax = airG1Max / dewG1Min;
+                double error = lebesgue * firstOrder
+                        * (hT * (slopeMax - slopeMin) + hu * (1 / dewG1Min - 1 / dewG1Max)) / 2;
+                if (kink) {
+                    // a straight line crosses the gap between ice and water at most twice
+                    error += 2 * lebesgue * lebesgue * gap / dewG1Min;
+                } else {
+                    // g''(Td) Td_T^2 and the numerator of Td_TT
+                    double p0 = Math.min(g2[lo] * slopeMin * slopeMin, g2[lo] * slopeMax * slopeMax);
+                    double p1 = Math.max(g2[hi] * slopeMin * slopeMin, g2[hi] * slopeMax * slopeMax);
+                    double tt = Math.max(Math.abs(airG2Min - p1), Math.abs(airG2Max - p0)) / dewG1Min;
+                    double uu = Math.max(-g2[lo], g2[hi]) / (dewG1Min * dewG1Min * dewG1Min);
+                    error = Math.min(error, secondOrder * (hT * hT * tt + lebesgue * hu * hu * uu));
+                }
+                error += lebesgue * lebesgue * nodeDeviation;
+                if (error > columnError || Double.isNaN(columnError)) {
+                    columnError = error;
+                }
+            }
+            columnErrors[column] = columnError;
+            if (columnError > max || Double.isNaN(max)) {
+                max = columnError;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * ln(pvs) and its first and second derivative over ice or water
+     */
+    private static void lnPvs(Dew dew, double temperature, boolean ice, double[] values) {
+        double pressure = ice ? dew.pvsIce(temperature) : dew.pvsWater(temperature);
+        double derivative = ice ? dew.pvsIceDerivative(temperature, pressure)
+                : dew.pvsWaterDerivative(temperature, pressure);
+        double secondDerivative = ice ? dew.pvsIceSecondDerivative(temperature, pressure, derivative)
+                : dew.pvsWaterSecondDerivative(temperature, pressure, derivative);
+        values[0] = Math.log(pressure);
+        values[1] = derivative / pressure;
+        values[2] = secondDerivative / pressure - values[1] * values[1];
+    }
+
+    /**
+     * Lower bound of a convex function over [x0, x1] from its values and
+     * derivatives at the ends
+     */
+    private static double minG1(double x0, double y0, double slope0, double x1, double y1, double slope1) {
+        if (slope1 <= 0) {
+            return y1;
+        } else if (slope0 >= 0) {
+            return y0;
+        }
+        return y0 + slope0 * (x1 - x0);
+    }
+
+    /**
+     * Interpolate the dew point for given relative humidity[%] and
+     * temperature[K].
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @return dew point (K), NaN outside the table or where it is undefined
+     */
+    public double dewPoint(double relativeHumidity, double temperature) {
+        int column = column(temperature);
+        if (column < 0 || !(relativeHumidity >= minRelativeHumidity && relativeHumidity <= maxRelativeHumidity)) {
+            return Double.NaN;
+        }
+        double y = (Math.log(relativeHumidity) - logMinRelativeHumidity) * relativeHumidityScale;
+        int j = Math.min((int) y, relativeHumidityCount - 2);
+        if (j < firstDefined[column]) {
+            return Double.NaN;
+        }
+        double fx = (temperature - minTemperature) * temperatureScale - column;
+        double fy = y - j;
+        int row = column < meltingIndex ? column : column + split;
+        if (interpolation == Interpolation.CUBIC) {
+            return column < meltingIndex
+                    ? cubic(row, 0, meltingIndex, j, fx, fy)
+                    : cubic(row, meltingIndex + split, temperatureCount - 1 + split, j, fx, fy);
+        }
+        int k = row * relativeHumidityCount + j;
+        double v0 = values[k] + (values[k + 1] - values[k]) * fy;
+        double v1 = values[k + relativeHumidityCount] + (values[k + relativeHumidityCount + 1] - values[k + relativeHumidityCount]) * fy;
+        return v0 + (v1 - v0) * fx;
+    }
+
+    /**
+     * Cell column of a temperature. Cells end at the melting point.
+     *
+     * @return column, -1 outside the table
+     */
+    private int column(double temperature) {
+        if (!(temperature >= minTemperature && temperature <= maxTemperature)) {
+            return -1;
+        }
+        int line = (int) ((temperature - minTemperature) * temperatureScale);
+        return temperature < Temperature.CELSIUS_OFFSET
+                ? Math.min(line, meltingIndex - 1)
+                : Math.min(Math.max(line, meltingIndex), temperatureCount - 2);
+    }
+
+    /**
+     * Catmull-Rom interpolation within the rows first..last, extrapolated
+     * linearly beyond them
+     */
+    private double cubic(int row, int first, int last, int j, double fx, double fy) {
+        double r1 = row(row, j, fy);
+        double r2 = row(row + 1, j, fy);
+        double r0 = row > first ? row(row - 1, j, fy) : 2 * r1 - r2;
+        double r3 = row + 2 <= last ? row(row + 2, j, fy) : 2 * r2 - r1;
+        return catmullRom(r0, r1, r2, r3, fx);
+    }
+
+    private double row(int row, int j, double fy) {
+        int k = row * relativeHumidityCount + j;
+        double p1 = values[k];
+        double p2 = values[k + 1];
+        double p0 = j > 0 ? values[k - 1] : 2 * p1 - p2;
+        double p3 = j + 2 < relativeHumidityCount ? values[k + 2] : 2 * p2 - p1;
+        return catmullRom(p0, p1, p2, p3, fy);
+    }
+
+    private static double catmullRom(double p0, double p1, double p2, double p3, double t) {
+        return p1 + 0.5 * t * (p2 - p0 + t * (2 * p0 - 5 * p1 + 4 * p2 - p3 + t * (3 * (p1 - p2) + p3 - p0)));
+    }
+
+    /**
+     * Bound on the deviation of {@link #dewPoint(double, double)} from the
+     * exact dew point, i.e. the inverse of the saturation vapor pressure with
+     * {@link Precision#EXACT}, wherever the table is defined. It includes the
+     * deviation of the dew point calculator the table was built with.
+     *
+     * @return largest error (K), NaN if the table is undefined everywhere
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /**
+     *
+     * @param temperature temperature (K)
+     * @return bound on the error at this temperature (K), NaN outside the
+     * table or where it is undefined at this temperature
+     * @see #getMaxError()
+     */
+    public double getMaxError(double temperature) {
+        int column = column(temperature);
+        return column < 0 ? Double.NaN : columnErrors[column];
+    }
+
+    /**
+     * The table is defined from this relative humidity up to
+     * {@link #getMaxRelativeHumidity()}, and undefined below it: the frost
+     * point would be below Temperature.MIN. Above the critical temperature of
+     * water it is undefined at any relative humidity.
+     *
+     * @param temperature temperature (K)
+     * @return lowest relative humidity at which the table is defined at this
+     * temperature (%), NaN outside the table or if it is undefined at this
+     * temperature
+     */
+    public double getMinRelativeHumidity(double temperature) {
+        int column = column(temperature);
+        return column < 0 || firstDefined[column] == relativeHumidityCount - 1 ? Double.NaN
+                : gridRelativeHumidity(firstDefined[column]);
+    }
+
+    /**
+     *
+     * @return lowest temperature grid line (K)
+     */
+    public double getMinTemperature() {
+        return minTemperature;
+    }
+
+    /**
+     *
+     * @return highest temperature grid line (K)
+     */
+    public double getMaxTemperature() {
+        return maxTemperature;
+    }
+
+    /**
+     *
+     * @return minimum relative humidity (%)
+     */
+    public double getMinRelativeHumidity() {
+        return minRelativeHumidity;
+    }
+
+    /**
+     *
+     * @return maximum relative humidity (%)
+     */
+    public double getMaxRelativeHumidity() {
+        return maxRelativeHumidity;
+    }
+
+    /**
+     *
+     * @return approximate heap size of the table (bytes)
+     */
+    public long getMemoryFootprint() {
+        return (long) values.length * Double.BYTES + (long) firstDefined.length * Integer.BYTES
+                + (long) columnErrors.length * Double.BYTES;
+    }
+
+    /**
+     *
+     * @return interpolation
+     * @see eu.sergehelfrich.ersa.Interpolation
+     */
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+}
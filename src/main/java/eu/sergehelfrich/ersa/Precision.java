@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Precision of the saturation vapor pressure used by {@link Dew#pvs(double)}
+ * and the iterative dew point methods. The approximations replace
+ * {@link Math#exp(double)}, {@link Math#log(double)} and
+ * {@link Math#sqrt(double)} with Chebyshev polynomials in 1/T for the base 2
+ * logarithm of the pressure, over ice below and over water above 0 deg. C,
+ * and a polynomial for the power of two. They cover 173..373.15 K; above that
+ * the exact formulas are used. {@link Dew#pvsWater(double)} and
+ * {@link Dew#pvsIce(double)} are always exact.
+ *
+ * @author helfrich
+ */
+public enum Precision {
+
+    /**
+     * IAPWS-IF97 over water and ITS-90 (Hardy) over ice
+     */
+    EXACT,
+
+    /**
+     * Maximum relative error 3e-8 of the saturation vapor pressure, degree 8
+     * (ice) and 7 (water) polynomials. About twice as fast as the exact
+     * formula over ice; over water, where the exact formula needs no
+     * logarithm, about as fast.
+     */
+    FAST,
+
+    /**
+     * Maximum relative error 4e-4 of the saturation vapor pressure, below
+     * 0.01 K in the dew point; degree 3 polynomials. About three times as
+     * fast as the exact formula over ice and slightly faster over water.
+     */
+    FASTEST
+
+}
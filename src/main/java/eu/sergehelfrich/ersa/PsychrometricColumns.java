@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Psychrometric states in columns. Only the first {@link #size()} elements of
+ * each column are valid.
+ *
+ * @author helfrich
+ * @see Psychrometrics#state(double[], double[], PsychrometricColumns)
+ */
+public class PsychrometricColumns {
+
+    final double[] vaporPressure;
+    final double[] saturationVaporPressure;
+    final double[] dewPoint;
+    final double[] dewPointDepression;
+    final double[] absoluteHumidity;
+    final double[] mixingRatio;
+    final int[] status;
+
+    int size;
+
+    /**
+     *
+     * @param capacity maximum number of states
+     */
+    public PsychrometricColumns(int capacity) {
+        vaporPressure = new double[capacity];
+        saturationVaporPressure = new double[capacity];
+        dewPoint = new double[capacity];
+        dewPointDepression = new double[capacity];
+        absoluteHumidity = new double[capacity];
+        mixingRatio = new double[capacity];
+        status = new int[capacity];
+    }
+
+    /**
+     *
+     * @return maximum number of states
+     */
+    public int getCapacity() {
+        return status.length;
+    }
+
+    /**
+     *
+     * @return number of states
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return vapor pressure (Pa)
+     * @see PsychrometricState#getVaporPressure()
+     */
+    public double[] getVaporPressure() {
+        return vaporPressure;
+    }
+
+    /**
+     *
+     * @return saturation vapor pressure (Pa)
+     * @see PsychrometricState#getSaturationVaporPressure()
+     */
+    public double[] getSaturationVaporPressure() {
+        return saturationVaporPressure;
+    }
+
+    /**
+     *
+     * @return dew point (K), NaN where the status is not OK
+     */
+    public double[] getDewPoint() {
+        return dewPoint;
+    }
+
+    /**
+     *
+     * @return temperature minus dew point (K), NaN where the status is not OK
+     */
+    public double[] getDewPointDepression() {
+        return dewPointDepression;
+    }
+
+    /**
+     *
+     * @return absolute humidity (g/m^3)
+     * @see PsychrometricState#getAbsoluteHumidity()
+     */
+    public double[] getAbsoluteHumidity() {
+        return absoluteHumidity;
+    }
+
+    /**
+     *
+     * @return mixing ratio (g/kg dry air)
+     * @see PsychrometricState#getMixingRatio()
+     */
+    public double[] getMixingRatio() {
+        return mixingRatio;
+    }
+
+    /**
+     *
+     * @return dew point status codes
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public int[] getStatus() {
+        return status;
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverResult;
+
+/**
+ * Psychrometric state of moist air. The status and iteration count are those
+ * of the dew point calculation. An instance can be reused for any number of
+ * calculations, but not shared between threads.
+ *
+ * @author helfrich
+ * @see Psychrometrics
+ */
+public class PsychrometricState {
+
+    private final SolverResult result = new SolverResult();
+    private double vaporPressure = Double.NaN;
+    private double saturationVaporPressure = Double.NaN;
+    private double dewPoint = Double.NaN;
+    private double dewPointDepression = Double.NaN;
+    private double absoluteHumidity = Double.NaN;
+    private double mixingRatio = Double.NaN;
+
+    /**
+     *
+     * @return result of the dew point calculation, output
+     */
+    SolverResult result() {
+        return result;
+    }
+
+    void set(double vaporPressure, double saturationVaporPressure, double dewPoint, double dewPointDepression,
+            double absoluteHumidity, double mixingRatio) {
+        this.vaporPressure = vaporPressure;
+        this.saturationVaporPressure = saturationVaporPressure;
+        this.dewPoint = dewPoint;
+        this.dewPointDepression = dewPointDepression;
+        this.absoluteHumidity = absoluteHumidity;
+        this.mixingRatio = mixingRatio;
+    }
+
+    /**
+     *
+     * @return status code of the dew point calculation
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public int getStatus() {
+        return result.getStatus();
+    }
+
+    /**
+     *
+     * @return number of iterations of the dew point calculation
+     */
+    public int getIterations() {
+        return result.getIterations();
+    }
+
+    /**
+     *
+     * @return vapor pressure (Pa), NaN if the temperature is out of range
+     */
+    public double getVaporPressure() {
+        return vaporPressure;
+    }
+
+    /**
+     *
+     * @return saturation vapor pressure (Pa), NaN if the temperature is out
+     * of range
+     */
+    public double getSaturationVaporPressure() {
+        return saturationVaporPressure;
+    }
+
+    /**
+     *
+     * @return dew point (K), NaN if the status is not OK
+     */
+    public double getDewPoint() {
+        return dewPoint;
+    }
+
+    /**
+     *
+     * @return temperature minus dew point (K), NaN if the status is not OK
+     */
+    public double getDewPointDepression() {
+        return dewPointDepression;
+    }
+
+    /**
+     *
+     * @return absolute humidity (g/m^3), NaN if the temperature is out of
+     * range
+     */
+    public double getAbsoluteHumidity() {
+        return absoluteHumidity;
+    }
+
+    /**
+     *
+     * @return mixing ratio (g/kg dry air), NaN if the temperature is out of
+     * range or the vapor pressure is not below the air pressure
+     */
+    public double getMixingRatio() {
+        return mixingRatio;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverResult;
+
+/**
+ * Psychrometric state of moist air from temperature and relative humidity:
+ * vapor pressure, dew point, dew point depression, absolute humidity and
+ * mixing ratio. All of them are derived from a single saturation vapor
+ * pressure evaluation and the dew point inversion.
+ *
+ * @author helfrich
+ */
+public class Psychrometrics {
+
+    /**
+     * Standard atmospheric pressure (Pa)
+     */
+    public static final double STANDARD_PRESSURE = 101325;
+
+    /**
+     * Specific gas constant of water vapor (J/(kg K))
+     */
+    private static final double WATER_VAPOR_GAS_CONSTANT = 461.526;
+
+    /**
+     * Ratio of the molar masses of water and dry air
+     */
+    private static final double MOLAR_MASS_RATIO = 0.621945;
+
+    private final Dew dew;
+    private final double pressure;
+
+    /**
+     * Psychrometrics at standard atmospheric pressure
+     *
+     * @param dew dew point calculator
+     */
+    public Psychrometrics(Dew dew) {
+        this(dew, STANDARD_PRESSURE);
+    }
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param pressure air pressure (Pa), used for the mixing ratio
+     */
+    public Psychrometrics(Dew dew, double pressure) {
+        this.dew = dew;
+        this.pressure = pressure;
+    }
+
+    /**
+     *
+     * @return air pressure (Pa)
+     */
+    public double getPressure() {
+        return pressure;
+    }
+
+    /**
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @return psychrometric state
+     * @see #state(double, double, PsychrometricState)
+     */
+    public PsychrometricState state(double relativeHumidity, double temperature) {
+        PsychrometricState state = new PsychrometricState();
+        state(relativeHumidity, temperature, state);
+        return state;
+    }
+
+    /**
+     * Compute the psychrometric state without throwing. If the temperature is
+     * out of range all values are NaN; if only the dew point cannot be
+     * computed, the dew point and its depression are NaN and the status tells
+     * why.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param state psychrometric state, output
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void state(double relativeHumidity, double temperature, PsychrometricState state) {
+        double saturationVaporPressure = dew.pvsOrNaN(temperature);
+        double dewPoint = dew.dewPoint(relativeHumidity, temperature, saturationVaporPressure, state.result());
+        double vaporPressure = relativeHumidity / 100.0 * saturationVaporPressure;
+        state.set(vaporPressure, saturationVaporPressure, dewPoint, temperature - dewPoint,
+                absoluteHumidity(vaporPressure, temperature), mixingRatio(vaporPressure));
+    }
+
+    /**
+     * Compute the psychrometric states for arrays of relative humidity[%] and
+     * temperature[K]. The saturation vapor pressures are computed with
+     * {@link Dew#pvs(double[], double[])}, which is vectorized where
+     * available.
+     *
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param columns psychrometric states, output
+     * @see #state(double, double, PsychrometricState)
+     */
+    public void state(double[] relativeHumidity, double[] temperature, PsychrometricColumns columns) {
+        int length = relativeHumidity.length;
+        if (temperature.length != length || columns.getCapacity() < length) {
+            throw new IllegalArgumentException("Array lengths do not match!");
+        }
+        dew.pvs(temperature, columns.saturationVaporPressure);
+        SolverResult result = new SolverResult();
+        for (int i = 0; i < length; i++) {
+            double saturationVaporPressure = columns.saturationVaporPressure[i];
+            double dewPoint = dew.dewPoint(relativeHumidity[i], temperature[i], saturationVaporPressure, result);
+            double vaporPressure = relativeHumidity[i] / 100.0 * saturationVaporPressure;
+            columns.vaporPressure[i] = vaporPressure;
+            columns.dewPoint[i] = dewPoint;
+            columns.dewPointDepression[i] = temperature[i] - dewPoint;
+            columns.absoluteHumidity[i] = absoluteHumidity(vaporPressure, temperature[i]);
+            columns.mixingRatio[i] = mixingRatio(vaporPressure);
+            columns.status[i] = result.getStatus();
+        }
+        columns.size = length;
+    }
+
+    private static double absoluteHumidity(double vaporPressure, double temperature) {
+        return 1000 * vaporPressure / (WATER_VAPOR_GAS_CONSTANT * temperature);
+    }
+
+    private double mixingRatio(double vaporPressure) {
+        return vaporPressure < pressure ? 1000 * MOLAR_MASS_RATIO * vaporPressure / (pressure - vaporPressure) : Double.NaN;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Approximations of the saturation vapor pressure for 173..373.15 K without
+ * exp, log or sqrt. log2(p) is a polynomial in s = scale / T + offset, which
+ * maps 1/T to [-1, 1] on each range, fitted by interpolation at the Chebyshev
+ * nodes. p = 2^k * 2^f is then evaluated with k = rint(log2(p)) and a
+ * polynomial for 2^f on [-0.5, 0.5], also fitted at the Chebyshev nodes.
+ *
+ * @author helfrich
+ * @see Precision
+ */
+final class PvsApproximation {
+
+    /**
+     * Upper end of the approximations (K)
+     */
+    static final double MAX_TEMPERATURE = 373.15;
+
+    private static final double ICE_SCALE = 943.6834747878186;
+    private static final double ICE_OFFSET = -4.454817773339991;
+    private static final double WATER_SCALE = 2038.5184499999993;
+    private static final double WATER_OFFSET = -6.462999999999998;
+
+    /* Precision.FAST: log2(p) over ice, over water and 2^f */
+    private static final double FAST_ICE0 = -0.1467640982987255;
+    private static final double FAST_ICE1 = -9.396192948946597;
+    private static final double FAST_ICE2 = 0.015836076142904165;
+    private static final double FAST_ICE3 = 0.006577906093860442;
+    private static final double FAST_ICE4 = -0.00260501304695282;
+    private static final double FAST_ICE5 = 0.0006167391663982613;
+    private static final double FAST_ICE6 = -9.540768815696765E-5;
+    private static final double FAST_ICE7 = -1.0352222439280467E-5;
+    private static final double FAST_ICE8 = 1.0938016487216373E-5;
+    private static final double FAST_WATER0 = 13.022960850612895;
+    private static final double FAST_WATER1 = -3.6926460143466864;
+    private static final double FAST_WATER2 = -0.08017225836046382;
+    private static final double FAST_WATER3 = 0.005755522307765659;
+    private static final double FAST_WATER4 = -0.0001314475646765345;
+    private static final double FAST_WATER5 = -0.00033183401833269954;
+    private static final double FAST_WATER6 = 8.513651503960773E-5;
+    private static final double FAST_WATER7 = 1.071094277449447E-5;
+    private static final double FAST_EXP0 = 0.9999999999999989;
+    private static final double FAST_EXP1 = 0.6931472067028283;
+    private static final double FAST_EXP2 = 0.24022650922297145;
+    private static final double FAST_EXP3 = 0.05550327226676277;
+    private static final double FAST_EXP4 = 0.00961805667761162;
+    private static final double FAST_EXP5 = 0.0013400428175884826;
+    private static final double FAST_EXP6 = 0.00015461444941422542;
+
+    /* Precision.FASTEST: log2(p) over ice, over water and 2^f */
+    private static final double FASTEST_ICE0 = -0.14642774195460762;
+    private static final double FASTEST_ICE1 = -9.396268727822271;
+    private static final double FASTEST_ICE2 = 0.013155776964228316;
+    private static final double FASTEST_ICE3 = 0.007185589633779799;
+    private static final double FASTEST_WATER0 = 13.022966648474133;
+    private static final double FASTEST_WATER1 = -3.6926058728771087;
+    private static final double FASTEST_WATER2 = -0.0802292126273052;
+    private static final double FASTEST_WATER3 = 0.00543306047655534;
+    private static final double FASTEST_EXP0 = 0.9999245569508707;
+    private static final double FASTEST_EXP1 = 0.6931367338836224;
+    private static final double FASTEST_EXP2 = 0.24263947854625822;
+    private static final double FASTEST_EXP3 = 0.0558382829462154;
+
+    private PvsApproximation() {
+    }
+
+    /**
+     * Maximum relative error 3e-8
+     *
+     * @param temperature temperature (K), 173..373.15
+     * @return saturation vapor pressure (Pa), over ice below 0 deg. C
+     */
+    static double fast(double temperature) {
+        // Estrin's scheme: shorter dependency chains than Horner's at these degrees
+        double log2P;
+        if (temperature < Temperature.CELSIUS_OFFSET) {
+            double s = ICE_SCALE / temperature + ICE_OFFSET;
+            double s2 = s * s;
+            double s4 = s2 * s2;
+            log2P = FAST_ICE0 + FAST_ICE1 * s + (FAST_ICE2 + FAST_ICE3 * s) * s2
+                    + (FAST_ICE4 + FAST_ICE5 * s + (FAST_ICE6 + FAST_ICE7 * s) * s2) * s4
+                    + FAST_ICE8 * (s4 * s4);
+        } else {
+            double s = WATER_SCALE / temperature + WATER_OFFSET;
+            double s2 = s * s;
+            log2P = FAST_WATER0 + FAST_WATER1 * s + (FAST_WATER2 + FAST_WATER3 * s) * s2
+                    + (FAST_WATER4 + FAST_WATER5 * s + (FAST_WATER6 + FAST_WATER7 * s) * s2) * (s2 * s2);
+        }
+        double k = Math.rint(log2P);
+        double f = log2P - k;
+        double f2 = f * f;
+        return (FAST_EXP0 + FAST_EXP1 * f + (FAST_EXP2 + FAST_EXP3 * f) * f2
+                + (FAST_EXP4 + FAST_EXP5 * f + FAST_EXP6 * f2) * (f2 * f2)) * powerOfTwo(k);
+    }
+
+    /**
+     * Maximum relative error 4e-4
+     *
+     * @param temperature temperature (K), 173..373.15
+     * @return saturation vapor pressure (Pa), over ice below 0 deg. C
+     */
+    static double fastest(double temperature) {
+        double log2P;
+        if (temperature < Temperature.CELSIUS_OFFSET) {
+            double s = ICE_SCALE / temperature + ICE_OFFSET;
+            log2P = FASTEST_ICE0 + s * (FASTEST_ICE1 + s * (FASTEST_ICE2 + s * FASTEST_ICE3));
+        } else {
+            double s = WATER_SCALE / temperature + WATER_OFFSET;
+            log2P = FASTEST_WATER0 + s * (FASTEST_WATER1 + s * (FASTEST_WATER2 + s * FASTEST_WATER3));
+        }
+        double k = Math.rint(log2P);
+        double f = log2P - k;
+        return (FASTEST_EXP0 + f * (FASTEST_EXP1 + f * (FASTEST_EXP2 + f * FASTEST_EXP3))) * powerOfTwo(k);
+    }
+
+    /**
+     *
+     * @param k integer in the normal exponent range
+     * @return 2^k
+     */
+    private static double powerOfTwo(double k) {
+        return Double.longBitsToDouble(((long) k + 1023) << 52);
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+/**
+ * Saturation vapor pressure kernel for arrays. A vectorized implementation is
+ * included for Java 17 and later in the multi-release JAR.
+ *
+ * @author helfrich
+ * @see Dew#pvs(double[], double[])
+ */
+interface PvsKernel {
+
+    /**
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure (Pa), NaN if the temperature
+     * is out of range, output
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @see Dew#pvsOrNaN(double)
+     */
+    void pvs(double[] temperature, double[] pressure, int from, int to);
+
+    /**
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure over water (Pa), output
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @see Dew#pvsWater(double)
+     */
+    void pvsWater(double[] temperature, double[] pressure, int from, int to);
+
+    /**
+     *
+     * @param temperature temperature (K)
+     * @param pressure saturation vapor pressure over ice (Pa), output
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @see Dew#pvsIce(double)
+     */
+    void pvsIce(double[] temperature, double[] pressure, int from, int to);
+
+}
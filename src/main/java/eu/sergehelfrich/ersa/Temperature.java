@@ -17,6 +17,10 @@
 package eu.sergehelfrich.ersa;
 
 /**
+ * Temperature, stored in Kelvin. Reads and writes of the value and the scale
+ * are atomic and visible to other threads, but an instance that is shared
+ * between threads should not have its scale changed; the static conversion
+ * methods are stateless alternatives.
  *
  * @author helfrich
  */
@@ -39,8 +43,8 @@ public class Temperature {
      */
     public static final int MAX = 678; // K
 
-    private double value;
-    private Scale scale;
+    private volatile double value;
+    private volatile Scale scale;
 
     /**
      *
@@ -102,20 +106,8 @@ public class Temperature {
      *
      * @param value temperature
      */
-    public synchronized final void setTemperature(double value) {
-        switch (scale) {
-            case CELSIUS:
-                this.value = value + CELSIUS_OFFSET;
-                break;
-            case FAHRENHEIT:
-                this.value = (value - 32) / FAHRENHEIT_CELSIUS + CELSIUS_OFFSET;
-                break;
-            case KELVIN:
-                this.value = value;
-                break;
-            default:
-                this.value = value;
-        }
+    public final void setTemperature(double value) {
+        this.value = toKelvin(value, scale);
     }
 
     /**
@@ -152,7 +144,38 @@ public class Temperature {
         this.scale = scale;
     }
 
-    private synchronized double scaled(double kelvinValue) {
+    private double scaled(double kelvinValue) {
+        return fromKelvin(kelvinValue, scale);
+    }
+
+    /**
+     *
+     * @param value temperature
+     * @param scale scale of the value
+     * @return temperature (K)
+     * @see eu.sergehelfrich.ersa.Scale
+     */
+    public static double toKelvin(double value, Scale scale) {
+        switch (scale) {
+            case CELSIUS:
+                return value + CELSIUS_OFFSET;
+            case FAHRENHEIT:
+                return (value - 32) / FAHRENHEIT_CELSIUS + CELSIUS_OFFSET;
+            case KELVIN:
+                return value;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     *
+     * @param kelvinValue temperature (K)
+     * @param scale scale of the result
+     * @return temperature
+     * @see eu.sergehelfrich.ersa.Scale
+     */
+    public static double fromKelvin(double kelvinValue, Scale scale) {
         switch (scale) {
             case CELSIUS:
                 return kelvinValue - CELSIUS_OFFSET;
@@ -165,4 +188,38 @@ public class Temperature {
         }
     }
 
+    /**
+     * Convert an array of temperatures in place.
+     *
+     * @param values temperatures
+     * @param from scale of the values
+     * @param to scale of the result
+     * @see eu.sergehelfrich.ersa.Scale
+     */
+    public static void convert(double[] values, Scale from, Scale to) {
+        convert(values, 0, values.length, from, to);
+    }
+
+    /**
+     * Convert a range of an array of temperatures in place. The conversion is
+     * folded into a single multiply-add per element.
+     *
+     * @param values temperatures
+     * @param fromIndex first index (inclusive)
+     * @param toIndex last index (exclusive)
+     * @param from scale of the values
+     * @param to scale of the result
+     * @see eu.sergehelfrich.ersa.Scale
+     */
+    public static void convert(double[] values, int fromIndex, int toIndex, Scale from, Scale to) {
+        if (from == to) {
+            return;
+        }
+        double offset = fromKelvin(toKelvin(0, from), to);
+        double factor = fromKelvin(toKelvin(1, from), to) - offset;
+        for (int i = fromIndex; i < toIndex; i++) {
+            values[i] = values[i] * factor + offset;
+        }
+    }
+
 }
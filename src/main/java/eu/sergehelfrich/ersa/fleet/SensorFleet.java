@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.fleet;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fleet of sensors keyed by sensor ID. Readings can be added from any number
+ * of threads; each sensor has its own lock, so writers only contend when they
+ * update the same sensor. Snapshots are consistent per sensor and do not block
+ * the writers.
+ *
+ * @author helfrich
+ */
+public class SensorFleet {
+
+    private final Dew dew;
+    private final Metrics metrics;
+
+    private final ConcurrentHashMap<String, SensorState> sensors = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     */
+    public SensorFleet(Dew dew, Metrics metrics) {
+        this.dew = dew;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Add a reading. Readings of one sensor must be in chronological order.
+     *
+     * @param sensorId sensor ID
+     * @param timestamp time (ms)
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     */
+    public void add(String sensorId, long timestamp, double temperature, double relativeHumidity) {
+        while (true) {
+            SensorState state = sensors.get(sensorId);
+            if (state == null) {
+                state = sensors.computeIfAbsent(sensorId, id -> new SensorState(id, dew, metrics));
+            }
+            // a state removed concurrently takes no more readings, the next one is new
+            if (state.add(timestamp, temperature, relativeHumidity)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     *
+     * @param sensorId sensor ID
+     * @return snapshot of the sensor, null if unknown or without readings
+     */
+    public SensorSnapshot snapshot(String sensorId) {
+        SensorState state = sensors.get(sensorId);
+        if (state == null) {
+            return null;
+        }
+        SensorSnapshot snapshot = state.snapshot();
+        return snapshot.getCount() == 0 ? null : snapshot;
+    }
+
+    /**
+     * Snapshots of all sensors with at least one reading. Each snapshot is
+     * consistent, but they are not taken at the same instant.
+     *
+     * @return snapshots
+     */
+    public List<SensorSnapshot> snapshots() {
+        List<SensorSnapshot> snapshots = new ArrayList<>(sensors.size());
+        for (SensorState state : sensors.values()) {
+            SensorSnapshot snapshot = state.snapshot();
+            // a sensor is registered before its first reading is published
+            if (snapshot.getCount() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     *
+     * @return sensor IDs
+     */
+    public Set<String> getSensorIds() {
+        return Collections.unmodifiableSet(sensors.keySet());
+    }
+
+    /**
+     * Remove a sensor with its state. A reading added concurrently is either
+     * removed with it or starts a new state.
+     *
+     * @param sensorId sensor ID
+     * @return true if the sensor was known
+     */
+    public boolean remove(String sensorId) {
+        SensorState state = sensors.remove(sensorId);
+        if (state == null) {
+            return false;
+        }
+        state.remove();
+        return true;
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.fleet;
+
+import eu.sergehelfrich.ersa.preservation.Risk;
+
+/**
+ * Consistent, immutable view of the state of one sensor
+ *
+ * @author helfrich
+ */
+public final class SensorSnapshot {
+
+    private final String sensorId;
+    private final long count;
+    private final long timestamp;
+    private final double temperature;
+    private final double relativeHumidity;
+    private final double dewPoint;
+    private final int preservationIndex;
+    private final double timeWeightedPreservationIndex;
+    private final int mold;
+    private final double moldRiskFactor;
+    private final double moldRiskFactorPeak;
+    private final float emc;
+    private final float minEmc;
+    private final float maxEmc;
+    private final float dimensionalChange;
+    private final Risk naturalAging;
+    private final Risk moldRisk;
+    private final Risk mechanicalDamage;
+    private final Risk metalCorrosion;
+
+    SensorSnapshot(String sensorId, long count, long timestamp, double temperature, double relativeHumidity,
+            double dewPoint, int preservationIndex, double timeWeightedPreservationIndex, int mold,
+            double moldRiskFactor, double moldRiskFactorPeak, float emc, float minEmc, float maxEmc,
+            float dimensionalChange, Risk naturalAging, Risk moldRisk, Risk mechanicalDamage, Risk metalCorrosion) {
+        this.sensorId = sensorId;
+        this.count = count;
+        this.timestamp = timestamp;
+        this.temperature = temperature;
+        this.relativeHumidity = relativeHumidity;
+        this.dewPoint = dewPoint;
+        this.preservationIndex = preservationIndex;
+        this.timeWeightedPreservationIndex = timeWeightedPreservationIndex;
+        this.mold = mold;
+        this.moldRiskFactor = moldRiskFactor;
+        this.moldRiskFactorPeak = moldRiskFactorPeak;
+        this.emc = emc;
+        this.minEmc = minEmc;
+        this.maxEmc = maxEmc;
+        this.dimensionalChange = dimensionalChange;
+        this.naturalAging = naturalAging;
+        this.moldRisk = moldRisk;
+        this.mechanicalDamage = mechanicalDamage;
+        this.metalCorrosion = metalCorrosion;
+    }
+
+    /**
+     *
+     * @return sensor ID
+     */
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    /**
+     *
+     * @return number of readings
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     *
+     * @return time of the last reading (ms)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     *
+     * @return temperature of the last reading, deg. C
+     */
+    public double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     *
+     * @return relative humidity of the last reading, %
+     */
+    public double getRelativeHumidity() {
+        return relativeHumidity;
+    }
+
+    /**
+     *
+     * @return dew point of the last reading, deg. C, NaN if it could not be
+     * computed
+     */
+    public double getDewPoint() {
+        return dewPoint;
+    }
+
+    /**
+     *
+     * @return Preservation Index of the last reading
+     */
+    public int getPreservationIndex() {
+        return preservationIndex;
+    }
+
+    /**
+     *
+     * @return Time-Weighted Preservation Index
+     */
+    public double getTimeWeightedPreservationIndex() {
+        return timeWeightedPreservationIndex;
+    }
+
+    /**
+     *
+     * @return mold score of the last reading
+     */
+    public int getMold() {
+        return mold;
+    }
+
+    /**
+     *
+     * @return running Mold Risk Factor
+     */
+    public double getMoldRiskFactor() {
+        return moldRiskFactor;
+    }
+
+    /**
+     *
+     * @return highest Mold Risk Factor
+     */
+    public double getMoldRiskFactorPeak() {
+        return moldRiskFactorPeak;
+    }
+
+    /**
+     *
+     * @return equilibrium moisture content of the last reading, percent
+     */
+    public float getEmc() {
+        return emc;
+    }
+
+    /**
+     *
+     * @return MinEMC, percent
+     */
+    public float getMinEmc() {
+        return minEmc;
+    }
+
+    /**
+     *
+     * @return MaxEMC, percent
+     */
+    public float getMaxEmc() {
+        return maxEmc;
+    }
+
+    /**
+     *
+     * @return %DC
+     */
+    public float getDimensionalChange() {
+        return dimensionalChange;
+    }
+
+    /**
+     *
+     * @return natural aging risk for the Time-Weighted Preservation Index
+     */
+    public Risk getNaturalAging() {
+        return naturalAging;
+    }
+
+    /**
+     *
+     * @return mold risk of the last reading
+     */
+    public Risk getMoldRisk() {
+        return moldRisk;
+    }
+
+    /**
+     *
+     * @return mechanical damage risk for MinEMC and MaxEMC
+     */
+    public Risk getMechanicalDamage() {
+        return mechanicalDamage;
+    }
+
+    /**
+     *
+     * @return metal corrosion risk for MaxEMC
+     */
+    public Risk getMetalCorrosion() {
+        return metalCorrosion;
+    }
+
+}
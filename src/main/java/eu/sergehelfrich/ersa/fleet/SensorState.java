@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.fleet;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Temperature;
+import eu.sergehelfrich.ersa.preservation.EquilibriumMoistureContent;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.preservation.MoldRiskFactor;
+import eu.sergehelfrich.ersa.preservation.Risk;
+import eu.sergehelfrich.ersa.preservation.TimeWeightedPreservationIndex;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * State of one sensor. Writers are serialized by a per-sensor lock, readers
+ * take optimistic snapshots of the published values and only fall back to a
+ * read lock if a write intervened.
+ *
+ * @author helfrich
+ */
+class SensorState {
+
+    private final String sensorId;
+    private final Dew dew;
+    private final Metrics metrics;
+
+    /**
+     * Results of the dew points computed outside the lock
+     */
+    private static final ThreadLocal<SolverResult> RESULT = ThreadLocal.withInitial(SolverResult::new);
+
+    private final StampedLock lock = new StampedLock();
+
+    /* Guarded by the write lock */
+    private final TimeWeightedPreservationIndex twpi;
+    private final MoldRiskFactor mrf;
+    private final EquilibriumMoistureContent emcRange;
+    private boolean removed;
+
+    /* Published values, written under the write lock */
+    private long count;
+    private long timestamp;
+    private double temperature;
+    private double relativeHumidity;
+    private double dewPoint;
+    private int preservationIndex;
+    private double timeWeightedPreservationIndex;
+    private int mold;
+    private double moldRiskFactor;
+    private double moldRiskFactorPeak;
+    private float emc;
+    private float minEmc;
+    private float maxEmc;
+
+    SensorState(String sensorId, Dew dew, Metrics metrics) {
+        this.sensorId = sensorId;
+        this.dew = dew;
+        this.metrics = metrics;
+        this.twpi = new TimeWeightedPreservationIndex(metrics);
+        this.mrf = new MoldRiskFactor(metrics);
+        this.emcRange = new EquilibriumMoistureContent(metrics);
+    }
+
+    /**
+     * Add a reading
+     *
+     * @return false if the sensor was removed from its fleet and the reading
+     * was not added
+     */
+    boolean add(long timestamp, double temperature, double relativeHumidity) {
+        // the pure calculations do not need the lock
+        double dewPoint = dew.dewPoint(relativeHumidity, temperature + Temperature.CELSIUS_OFFSET, RESULT.get())
+                - Temperature.CELSIUS_OFFSET;
+        int preservationIndex = metrics.preservationIndex(temperature, relativeHumidity);
+        float emc = metrics.emc(temperature, relativeHumidity);
+        long stamp = lock.writeLock();
+        try {
+            if (removed) {
+                return false;
+            }
+            if (count > 0 && timestamp < this.timestamp) {
+                throw new IllegalArgumentException("Samples out of order!");
+            }
+            double twpiValue = twpi.add(timestamp, temperature, relativeHumidity);
+            double mrfValue = mrf.add(timestamp, temperature, relativeHumidity);
+            emcRange.add(timestamp, temperature, relativeHumidity);
+
+            this.count++;
+            this.timestamp = timestamp;
+            this.temperature = temperature;
+            this.relativeHumidity = relativeHumidity;
+            this.dewPoint = dewPoint;
+            this.preservationIndex = preservationIndex;
+            this.timeWeightedPreservationIndex = twpiValue;
+            this.mold = mrf.getMold();
+            this.moldRiskFactor = mrfValue;
+            this.moldRiskFactorPeak = mrf.getPeak();
+            this.emc = emc;
+            this.minEmc = emcRange.getMinimum();
+            this.maxEmc = emcRange.getMaximum();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Mark the sensor as removed from its fleet, so that writers that still
+     * hold it retry with a new state
+     */
+    void remove() {
+        long stamp = lock.writeLock();
+        try {
+            removed = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    SensorSnapshot snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        SensorSnapshot snapshot = read();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = read();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return snapshot;
+    }
+
+    private SensorSnapshot read() {
+        long count = this.count;
+        long timestamp = this.timestamp;
+        double temperature = this.temperature;
+        double relativeHumidity = this.relativeHumidity;
+        double dewPoint = this.dewPoint;
+        int preservationIndex = this.preservationIndex;
+        double timeWeightedPreservationIndex = this.timeWeightedPreservationIndex;
+        int mold = this.mold;
+        double moldRiskFactor = this.moldRiskFactor;
+        double moldRiskFactorPeak = this.moldRiskFactorPeak;
+        float emc = this.emc;
+        float minEmc = this.minEmc;
+        float maxEmc = this.maxEmc;
+        Risk dry = metrics.mechanicalDamage(minEmc);
+        Risk wet = metrics.mechanicalDamage(maxEmc);
+        return new SensorSnapshot(sensorId, count, timestamp, temperature, relativeHumidity, dewPoint,
+                preservationIndex, timeWeightedPreservationIndex, mold, moldRiskFactor, moldRiskFactorPeak,
+                emc, minEmc, maxEmc, metrics.dimensionalChange(minEmc, maxEmc),
+                metrics.naturalAging((int) Math.round(timeWeightedPreservationIndex)), metrics.moldRisk(mold),
+                dry.compareTo(wet) >= 0 ? dry : wet, metrics.metalCorrosion(maxEmc));
+    }
+
+}
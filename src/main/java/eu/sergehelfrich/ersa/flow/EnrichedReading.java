@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.flow;
+
+import eu.sergehelfrich.ersa.preservation.Risk;
+
+/**
+ * Immutable sensor reading with its dew point, preservation metrics and risk
+ * classes
+ *
+ * @author helfrich
+ */
+public final class EnrichedReading {
+
+    private final Reading reading;
+    private final double dewPoint;
+    private final int status;
+    private final int preservationIndex;
+    private final int mold;
+    private final float emc;
+    private final Risk naturalAging;
+    private final Risk moldRisk;
+    private final Risk mechanicalDamage;
+    private final Risk metalCorrosion;
+
+    EnrichedReading(Reading reading, double dewPoint, int status, int preservationIndex, int mold, float emc,
+            Risk naturalAging, Risk moldRisk, Risk mechanicalDamage, Risk metalCorrosion) {
+        this.reading = reading;
+        this.dewPoint = dewPoint;
+        this.status = status;
+        this.preservationIndex = preservationIndex;
+        this.mold = mold;
+        this.emc = emc;
+        this.naturalAging = naturalAging;
+        this.moldRisk = moldRisk;
+        this.mechanicalDamage = mechanicalDamage;
+        this.metalCorrosion = metalCorrosion;
+    }
+
+    /**
+     *
+     * @return reading
+     */
+    public Reading getReading() {
+        return reading;
+    }
+
+    /**
+     *
+     * @return dew point, deg. C, NaN where the status is not OK
+     */
+    public double getDewPoint() {
+        return dewPoint;
+    }
+
+    /**
+     *
+     * @return dew point status code
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     *
+     * @return Preservation Index
+     */
+    public int getPreservationIndex() {
+        return preservationIndex;
+    }
+
+    /**
+     *
+     * @return mold score
+     */
+    public int getMold() {
+        return mold;
+    }
+
+    /**
+     *
+     * @return equilibrium moisture content, %
+     */
+    public float getEmc() {
+        return emc;
+    }
+
+    /**
+     *
+     * @return natural aging risk
+     */
+    public Risk getNaturalAging() {
+        return naturalAging;
+    }
+
+    /**
+     *
+     * @return mold risk
+     */
+    public Risk getMoldRisk() {
+        return moldRisk;
+    }
+
+    /**
+     *
+     * @return mechanical damage risk
+     */
+    public Risk getMechanicalDamage() {
+        return mechanicalDamage;
+    }
+
+    /**
+     *
+     * @return metal corrosion risk
+     */
+    public Risk getMetalCorrosion() {
+        return metalCorrosion;
+    }
+
+}
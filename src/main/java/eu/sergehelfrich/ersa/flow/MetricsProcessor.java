@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.flow;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Scale;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import java.nio.DoubleBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processor that enriches sensor readings with the dew point, the
+ * preservation metrics and their risk classes.
+ *
+ * <p>
+ * It requests at most two batches of readings ahead of what it has passed
+ * on, and passes on no more than the subscriber requested, so a slow
+ * subscriber slows down the publisher instead of filling a buffer. The
+ * buffered readings are computed on the executor in micro-batches of up to
+ * one batch through the batch paths of {@link Dew} and {@link Metrics}.
+ *
+ * <p>
+ * One subscriber is supported. Completion is signalled after the buffered
+ * readings, an error at once, dropping them.
+ *
+ * @author helfrich
+ */
+public class MetricsProcessor implements Flow.Processor<Reading, EnrichedReading> {
+
+    /**
+     * Default number of readings per micro-batch
+     */
+    public static final int DEFAULT_BATCH = 256;
+
+    private static final Flow.Subscription CANCELLED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Dew dew;
+    private final Metrics metrics;
+    private final Executor executor;
+    private final int batch;
+    private final ArrayBlockingQueue<Reading> queue;
+
+    /* accessed by the drain loop only */
+    private final Reading[] readings;
+    private final double[] temperature;
+    private final double[] relativeHumidity;
+    private final double[] dewPoint;
+    private final int[] status;
+    private final int[] preservationIndex;
+    private final int[] mold;
+    private final float[] emc;
+    private int consumed;
+
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super EnrichedReading>> downstream = new AtomicReference<>();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile boolean done;
+    private volatile boolean cancelled;
+
+    /**
+     * Processor on the common fork/join pool with the default batch size
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     */
+    public MetricsProcessor(Dew dew, Metrics metrics) {
+        this(dew, metrics, ForkJoinPool.commonPool(), DEFAULT_BATCH);
+    }
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     * @param executor executor of the computation and the subscriber signals
+     * @param batch maximum number of readings per micro-batch
+     */
+    public MetricsProcessor(Dew dew, Metrics metrics, Executor executor, int batch) {
+        if (batch < 1) {
+            throw new IllegalArgumentException("Batch size must be positive!");
+        }
+        this.dew = dew;
+        this.metrics = metrics;
+        this.executor = Objects.requireNonNull(executor);
+        this.batch = batch;
+        queue = new ArrayBlockingQueue<>(2 * batch);
+        readings = new Reading[batch];
+        temperature = new double[batch];
+        relativeHumidity = new double[batch];
+        dewPoint = new double[batch];
+        status = new int[batch];
+        preservationIndex = new int[batch];
+        mold = new int[batch];
+        emc = new float[batch];
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super EnrichedReading> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(CANCELLED);
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported!"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Non-positive request!"));
+                    return;
+                }
+                long current;
+                long next;
+                do {
+                    current = requested.get();
+                    next = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, next));
+                schedule();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                cancelUpstream();
+                schedule();
+            }
+        });
+        schedule();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        subscription.request(2L * batch);
+    }
+
+    @Override
+    public void onNext(Reading reading) {
+        Objects.requireNonNull(reading);
+        if (done || cancelled) {
+            return;
+        }
+        if (!queue.offer(reading)) {
+            fail(new IllegalStateException("More readings than requested!"));
+            return;
+        }
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        error.compareAndSet(null, throwable);
+        done = true;
+        schedule();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        schedule();
+    }
+
+    private void fail(Throwable throwable) {
+        cancelUpstream();
+        onError(throwable);
+    }
+
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream.getAndSet(CANCELLED);
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            Flow.Subscriber<? super EnrichedReading> subscriber = downstream.get();
+            if (cancelled) {
+                queue.clear();
+            } else if (subscriber != null) {
+                emit(subscriber);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void emit(Flow.Subscriber<? super EnrichedReading> subscriber) {
+        long demand = requested.get();
+        long emitted = 0;
+        while (!cancelled) {
+            Throwable throwable = error.get();
+            if (throwable != null) {
+                cancelled = true;
+                queue.clear();
+                subscriber.onError(throwable);
+                return;
+            }
+            // done before polling: an empty queue is then final
+            boolean completed = done;
+            int size = 0;
+            int max = (int) Math.min(batch, demand - emitted);
+            Reading reading;
+            while (size < max && (reading = queue.poll()) != null) {
+                readings[size++] = reading;
+            }
+            if (size == 0) {
+                if (completed && queue.isEmpty()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                }
+                break;
+            }
+            enrich(subscriber, size);
+            emitted += size;
+        }
+        if (emitted != 0 && demand != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+        }
+    }
+
+    private void enrich(Flow.Subscriber<? super EnrichedReading> subscriber, int size) {
+        for (int i = 0; i < size; i++) {
+            temperature[i] = readings[i].getTemperature();
+            relativeHumidity[i] = readings[i].getRelativeHumidity();
+        }
+        DoubleBuffer t = DoubleBuffer.wrap(temperature, 0, size);
+        DoubleBuffer rh = DoubleBuffer.wrap(relativeHumidity, 0, size);
+        dew.dewPoint(rh, t, Scale.CELSIUS, dewPoint, status);
+        metrics.preservationIndex(t, rh, preservationIndex);
+        metrics.mold(t, rh, mold);
+        metrics.emc(t, rh, emc);
+        consumed += size;
+        if (consumed >= batch) {
+            upstream.get().request(consumed);
+            consumed = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            Reading reading = readings[i];
+            readings[i] = null;
+            if (!cancelled) {
+                subscriber.onNext(new EnrichedReading(reading, dewPoint[i], status[i], preservationIndex[i], mold[i], emc[i],
+                        metrics.naturalAging(preservationIndex[i]), metrics.moldRisk(mold[i]),
+                        metrics.mechanicalDamage(emc[i]), metrics.metalCorrosion(emc[i])));
+            }
+        }
+    }
+
+}
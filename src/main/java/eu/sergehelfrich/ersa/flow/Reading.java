@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.flow;
+
+/**
+ * Immutable sensor reading
+ *
+ * @author helfrich
+ */
+public final class Reading {
+
+    private final String sensorId;
+    private final long timestamp;
+    private final double temperature;
+    private final double relativeHumidity;
+
+    /**
+     *
+     * @param sensorId sensor ID
+     * @param timestamp time (ms)
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     */
+    public Reading(String sensorId, long timestamp, double temperature, double relativeHumidity) {
+        this.sensorId = sensorId;
+        this.timestamp = timestamp;
+        this.temperature = temperature;
+        this.relativeHumidity = relativeHumidity;
+    }
+
+    /**
+     *
+     * @return sensor ID
+     */
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    /**
+     *
+     * @return time (ms)
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     *
+     * @return temperature, deg. C
+     */
+    public double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     *
+     * @return relative humidity, %
+     */
+    public double getRelativeHumidity() {
+        return relativeHumidity;
+    }
+
+}
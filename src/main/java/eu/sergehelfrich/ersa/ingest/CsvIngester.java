@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Scale;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Ingests datalogger CSV files of timestamp, temperature (deg. C) and
+ * relative humidity (%). The file is memory-mapped in line-aligned chunks that
+ * are parsed in parallel on the common fork/join pool; the rows are fed in
+ * batches through the dew point and preservation metric batch paths.
+ *
+ * <p>
+ * Timestamps are epoch milliseconds or ISO 8601 date-times, UTC unless an
+ * offset is given. Lines that do not parse, such as headers, are counted as
+ * skipped; columns after the relative humidity are ignored.
+ *
+ * @author helfrich
+ */
+public class CsvIngester {
+
+    /**
+     * Rows per batch
+     */
+    static final int BATCH = 4096;
+
+    /**
+     * Smallest chunk worth a task of its own (bytes)
+     */
+    static final long MIN_CHUNK = 1L << 20;
+
+    /**
+     * Largest chunk, mappings are limited to 2 GB (bytes)
+     */
+    static final long MAX_CHUNK = 1L << 30;
+
+    private final Dew dew;
+    private final Metrics metrics;
+    private final char delimiter;
+    private final char decimalSeparator;
+
+    /**
+     * Comma separated values with a decimal point
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     */
+    public CsvIngester(Dew dew, Metrics metrics) {
+        this(dew, metrics, ',', '.');
+    }
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     * @param delimiter field delimiter, e.g. ';' or '\t'
+     * @param decimalSeparator decimal separator, e.g. ','
+     */
+    public CsvIngester(Dew dew, Metrics metrics, char delimiter, char decimalSeparator) {
+        if (delimiter == decimalSeparator) {
+            throw new IllegalArgumentException("Delimiter and decimal separator must differ!");
+        }
+        this.dew = dew;
+        this.metrics = metrics;
+        this.delimiter = delimiter;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * Ingest a file, aggregating only
+     *
+     * @param file CSV file
+     * @return summary
+     * @throws IOException if the file cannot be read
+     */
+    public IngestSummary ingest(Path file) throws IOException {
+        return ingest(file, null);
+    }
+
+    /**
+     * Ingest a file
+     *
+     * @param file CSV file
+     * @param listener receives the computed rows, may be null
+     * @return summary
+     * @throws IOException if the file cannot be read
+     */
+    public IngestSummary ingest(Path file, IngestListener listener) throws IOException {
+        return ingest(file, listener, -1);
+    }
+
+    IngestSummary ingest(Path file, IngestListener listener, int chunks) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = bounds(channel, size, chunks > 0 ? chunks : chunks(size));
+            IngestSummary summary;
+            try {
+                summary = IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(chunk -> ingest(channel, bounds[chunk], bounds[chunk + 1], listener))
+                        .reduce(IngestSummary::merge).get();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            summary.setElapsedNanos(System.nanoTime() - start);
+            return summary;
+        }
+    }
+
+    private static int chunks(long size) {
+        long parallel = Math.min(ForkJoinPool.getCommonPoolParallelism(), (size + MIN_CHUNK - 1) / MIN_CHUNK);
+        return (int) Math.max(1, Math.max(parallel, (size + MAX_CHUNK - 1) / MAX_CHUNK));
+    }
+
+    /**
+     * Split a file into chunks that start at line beginnings
+     *
+     * @param channel file
+     * @param size file size
+     * @param chunks number of chunks
+     * @return chunk boundaries, chunk i is [bounds[i], bounds[i + 1])
+     * @throws IOException if the file cannot be read
+     */
+    static long[] bounds(FileChannel channel, long size, int chunks) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max(bounds[i - 1], size / chunks * i);
+            bounds[i] = position == 0 ? 0 : lineStart(channel, position, size, block);
+        }
+        return bounds;
+    }
+
+    private static long lineStart(FileChannel channel, long position, long size, ByteBuffer block) throws IOException {
+        // a chunk boundary is a line start if the preceding byte ends a line
+        long offset = position - 1;
+        while (offset < size) {
+            block.clear();
+            int read = channel.read(block, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private IngestSummary ingest(FileChannel channel, long from, long to, IngestListener listener) {
+        IngestSummary summary = new IngestSummary();
+        if (from >= to) {
+            return summary;
+        }
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LineParser parser = new LineParser(buffer, delimiter, decimalSeparator);
+        RowBatch batch = new RowBatch(BATCH);
+        while (parser.nextLine()) {
+            long timestamp = parser.timestamp();
+            double temperature = parser.number();
+            double relativeHumidity = parser.number();
+            if (!parser.endLine()) {
+                summary.skip();
+                continue;
+            }
+            int i = batch.size++;
+            batch.timestamps[i] = timestamp;
+            batch.temperature[i] = temperature;
+            batch.relativeHumidity[i] = relativeHumidity;
+            if (batch.size == BATCH) {
+                compute(batch, summary, listener);
+            }
+        }
+        if (batch.size > 0) {
+            compute(batch, summary, listener);
+        }
+        return summary;
+    }
+
+    private void compute(RowBatch batch, IngestSummary summary, IngestListener listener) {
+        DoubleBuffer temperature = DoubleBuffer.wrap(batch.temperature, 0, batch.size);
+        DoubleBuffer relativeHumidity = DoubleBuffer.wrap(batch.relativeHumidity, 0, batch.size);
+        dew.dewPoint(relativeHumidity, temperature, Scale.CELSIUS, batch.dewPoint, batch.status);
+        metrics.preservationIndex(temperature, relativeHumidity, batch.preservationIndex);
+        metrics.mold(temperature, relativeHumidity, batch.mold);
+        metrics.emc(temperature, relativeHumidity, batch.emc);
+        summary.add(batch);
+        if (listener != null) {
+            listener.rows(batch);
+        }
+        batch.size = 0;
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+/**
+ * Receives the computed rows of an ingestion. Batches of different chunks are
+ * delivered concurrently from the worker threads, the batches of one chunk in
+ * file order.
+ *
+ * @author helfrich
+ */
+@FunctionalInterface
+public interface IngestListener {
+
+    /**
+     * Called for every batch of rows. The batch and its arrays are reused
+     * after the call returns.
+     *
+     * @param batch rows
+     */
+    void rows(RowBatch batch);
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+import eu.sergehelfrich.ersa.solver.Status;
+
+/**
+ * Aggregated result of an ingestion
+ *
+ * @author helfrich
+ */
+public class IngestSummary {
+
+    private long rows;
+    private long skipped;
+    private long failures;
+    private long elapsedNanos;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private double minDewPoint = Double.NaN;
+    private double maxDewPoint = Double.NaN;
+    private long preservationIndexSum;
+    private long moldRows;
+    private float minEmc = Float.NaN;
+    private float maxEmc = Float.NaN;
+
+    void add(RowBatch batch) {
+        rows += batch.size;
+        for (int i = 0; i < batch.size; i++) {
+            long timestamp = batch.timestamps[i];
+            firstTimestamp = Math.min(firstTimestamp, timestamp);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            if (batch.status[i] == Status.OK) {
+                double dewPoint = batch.dewPoint[i];
+                minDewPoint = !(minDewPoint <= dewPoint) ? dewPoint : minDewPoint;
+                maxDewPoint = !(maxDewPoint >= dewPoint) ? dewPoint : maxDewPoint;
+            } else {
+                failures++;
+            }
+            preservationIndexSum += batch.preservationIndex[i];
+            if (batch.mold[i] > 0) {
+                moldRows++;
+            }
+            float emc = batch.emc[i];
+            minEmc = !(minEmc <= emc) ? emc : minEmc;
+            maxEmc = !(maxEmc >= emc) ? emc : maxEmc;
+        }
+    }
+
+    void skip() {
+        skipped++;
+    }
+
+    IngestSummary merge(IngestSummary other) {
+        rows += other.rows;
+        skipped += other.skipped;
+        failures += other.failures;
+        firstTimestamp = Math.min(firstTimestamp, other.firstTimestamp);
+        lastTimestamp = Math.max(lastTimestamp, other.lastTimestamp);
+        minDewPoint = !(minDewPoint <= other.minDewPoint) ? other.minDewPoint : minDewPoint;
+        maxDewPoint = !(maxDewPoint >= other.maxDewPoint) ? other.maxDewPoint : maxDewPoint;
+        preservationIndexSum += other.preservationIndexSum;
+        moldRows += other.moldRows;
+        minEmc = !(minEmc <= other.minEmc) ? other.minEmc : minEmc;
+        maxEmc = !(maxEmc >= other.maxEmc) ? other.maxEmc : maxEmc;
+        return this;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     *
+     * @return number of ingested rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     *
+     * @return number of lines that did not parse, e.g. headers
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     *
+     * @return number of rows without a dew point
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     *
+     * @return wall-clock time of the ingestion (ns)
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     *
+     * @return ingested rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? Double.NaN : rows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     *
+     * @return earliest timestamp (ms), Long.MAX_VALUE if there are no rows
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     *
+     * @return latest timestamp (ms), Long.MIN_VALUE if there are no rows
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     *
+     * @return lowest dew point (deg. C)
+     */
+    public double getMinimumDewPoint() {
+        return minDewPoint;
+    }
+
+    /**
+     *
+     * @return highest dew point (deg. C)
+     */
+    public double getMaximumDewPoint() {
+        return maxDewPoint;
+    }
+
+    /**
+     *
+     * @return mean Preservation Index over all rows
+     */
+    public double getMeanPreservationIndex() {
+        return rows == 0 ? Double.NaN : (double) preservationIndexSum / rows;
+    }
+
+    /**
+     *
+     * @return number of rows with a mold risk
+     */
+    public long getMoldRows() {
+        return moldRows;
+    }
+
+    /**
+     *
+     * @return lowest equilibrium moisture content (%)
+     */
+    public float getMinimumEmc() {
+        return minEmc;
+    }
+
+    /**
+     *
+     * @return highest equilibrium moisture content (%)
+     */
+    public float getMaximumEmc() {
+        return maxEmc;
+    }
+
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parses delimited lines of timestamp, temperature and relative humidity
+ * straight from a byte buffer without creating Strings. Fields may be padded
+ * with blanks or enclosed in double quotes. A line with a field that does not
+ * parse is rejected as a whole.
+ *
+ * <p>
+ * Timestamps are either epoch milliseconds or ISO 8601 local date-times
+ * ({@code yyyy-MM-dd[T| ]HH:mm[:ss[.SSS]]}) with an optional {@code Z} or
+ * {@code +hh[:]mm} or {@code -hh[:]mm} offset; date-times without an offset are taken as UTC.
+ * Numbers with up to 15 significant digits and a decimal exponent of at most
+ * 22, which covers logger output, are rounded correctly; others are accurate
+ * to within a few ulps. Digits beyond the 18th are ignored.
+ *
+ * @author helfrich
+ */
+final class LineParser {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long EXACT_MANTISSA = 1L << 53;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private final byte delimiter;
+    private final byte decimalSeparator;
+
+    private int position;
+    private boolean valid;
+
+    /**
+     *
+     * @param buffer buffer, parsed from its position to its limit
+     * @param delimiter field delimiter
+     * @param decimalSeparator decimal separator
+     */
+    LineParser(ByteBuffer buffer, char delimiter, char decimalSeparator) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.delimiter = (byte) delimiter;
+        this.decimalSeparator = (byte) decimalSeparator;
+        this.position = buffer.position();
+    }
+
+    /**
+     * Advance to the next non-empty line.
+     *
+     * @return false at the end of the buffer
+     */
+    boolean nextLine() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != '\n' && b != '\r') {
+                valid = true;
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    /**
+     * Skip the rest of the current line including any further fields.
+     *
+     * @return true if all fields of the line parsed
+     */
+    boolean endLine() {
+        while (position < limit) {
+            if (buffer.get(position++) == '\n') {
+                break;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     *
+     * @return timestamp (ms), undefined if the field did not parse
+     */
+    long timestamp() {
+        if (!valid) {
+            return 0;
+        }
+        skipPadding();
+        long value = 0;
+        int digits = 0;
+        while (position < limit && isDigit(buffer.get(position))) {
+            if (++digits > 18) {
+                valid = false;
+                return 0;
+            }
+            value = value * 10 + buffer.get(position++) - '0';
+        }
+        if (digits == 4 && position < limit && buffer.get(position) == '-') {
+            value = dateTime((int) value);
+        } else if (digits == 0) {
+            valid = false;
+        }
+        endField();
+        return value;
+    }
+
+    /**
+     *
+     * @return number, undefined if the field did not parse
+     */
+    double number() {
+        if (!valid) {
+            return Double.NaN;
+        }
+        skipPadding();
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position++) == '-';
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        boolean digits = false;
+        byte b;
+        while (position < limit && isDigit(b = buffer.get(position))) {
+            digits = true;
+            if (significant < 18) {
+                mantissa = mantissa * 10 + b - '0';
+                if (mantissa != 0) {
+                    significant++;
+                }
+            } else {
+                exponent++;
+            }
+            position++;
+        }
+        if (position < limit && buffer.get(position) == decimalSeparator) {
+            position++;
+            while (position < limit && isDigit(b = buffer.get(position))) {
+                digits = true;
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + b - '0';
+                    if (mantissa != 0) {
+                        significant++;
+                    }
+                    exponent--;
+                }
+                position++;
+            }
+        }
+        if (!digits) {
+            valid = false;
+            return Double.NaN;
+        }
+        if (position < limit && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negativeExponent = buffer.get(position++) == '-';
+            }
+            if (position >= limit || !isDigit(buffer.get(position))) {
+                valid = false;
+                return Double.NaN;
+            }
+            int value = 0;
+            while (position < limit && isDigit(b = buffer.get(position))) {
+                value = Math.min(value * 10 + b - '0', 9999);
+                position++;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        endField();
+        double value = scale(mantissa, exponent);
+        return negative ? -value : value;
+    }
+
+    private static double scale(long mantissa, int exponent) {
+        if (exponent == 0 || mantissa == 0) {
+            return mantissa;
+        }
+        if (mantissa < EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            // both operands are exact, so the result is correctly rounded
+            return exponent > 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return exponent > 0 ? mantissa * Math.pow(10, exponent) : mantissa / Math.pow(10, -exponent);
+    }
+
+    private long dateTime(int year) {
+        int month = expect('-') ? digits(2) : -1;
+        int day = expect('-') ? digits(2) : -1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millisecond = 0;
+        int offset = 0;
+        if (position + 1 < limit && (buffer.get(position) == 'T'
+                || buffer.get(position) == ' ' && isDigit(buffer.get(position + 1)))) {
+            position++;
+            hour = digits(2);
+            minute = expect(':') ? digits(2) : -1;
+            if (position < limit && buffer.get(position) == ':') {
+                position++;
+                second = digits(2);
+                if (position < limit && (buffer.get(position) == '.' || buffer.get(position) == ',' && delimiter != ',')) {
+                    position++;
+                    int scale = 100;
+                    byte b;
+                    while (position < limit && isDigit(b = buffer.get(position))) {
+                        millisecond += (b - '0') * scale;
+                        scale /= 10;
+                        position++;
+                    }
+                }
+            }
+            if (position < limit && buffer.get(position) == 'Z') {
+                position++;
+            } else if (position < limit && (buffer.get(position) == '+' || buffer.get(position) == '-')) {
+                int sign = buffer.get(position++) == '-' ? -1 : 1;
+                int offsetHours = digits(2);
+                if (position < limit && buffer.get(position) == ':') {
+                    position++;
+                }
+                int offsetMinutes = digits(2);
+                if (offsetHours < 0 || offsetMinutes < 0 || offsetHours > 18 || offsetMinutes > 59) {
+                    valid = false;
+                }
+                offset = sign * (offsetHours * 60 + offsetMinutes);
+            }
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            valid = false;
+            return 0;
+        }
+        return (((epochDay(year, month, day) * 24 + hour) * 60 + minute - offset) * 60 + second) * 1000 + millisecond;
+    }
+
+    /**
+     * Length of a month in the proleptic Gregorian calendar
+     *
+     * @param year year
+     * @param month month, 1..12
+     * @return days
+     */
+    static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar
+     *
+     * @param year year
+     * @param month month, 1..12
+     * @param day day of month
+     * @return epoch day
+     */
+    static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private boolean expect(char c) {
+        if (position < limit && buffer.get(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private int digits(int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            if (position >= limit || !isDigit(buffer.get(position))) {
+                return -1;
+            }
+            value = value * 10 + buffer.get(position++) - '0';
+        }
+        return value;
+    }
+
+    private void skipPadding() {
+        byte b;
+        while (position < limit && (b = buffer.get(position)) != delimiter && (b == ' ' || b == '\t' || b == '"')) {
+            position++;
+        }
+    }
+
+    private void endField() {
+        skipPadding();
+        if (position >= limit) {
+            return;
+        }
+        byte b = buffer.get(position);
+        if (b == delimiter) {
+            position++;
+        } else if (b != '\n' && b != '\r') {
+            valid = false;
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+/**
+ * Batch of ingested rows in columns. Only the first {@link #size()} elements
+ * of each column are valid.
+ *
+ * @author helfrich
+ */
+public class RowBatch {
+
+    final long[] timestamps;
+    final double[] temperature;
+    final double[] relativeHumidity;
+    final double[] dewPoint;
+    final int[] status;
+    final int[] preservationIndex;
+    final int[] mold;
+    final float[] emc;
+
+    int size;
+
+    RowBatch(int capacity) {
+        timestamps = new long[capacity];
+        temperature = new double[capacity];
+        relativeHumidity = new double[capacity];
+        dewPoint = new double[capacity];
+        status = new int[capacity];
+        preservationIndex = new int[capacity];
+        mold = new int[capacity];
+        emc = new float[capacity];
+    }
+
+    /**
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return timestamps (ms)
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     *
+     * @return temperature (deg. C)
+     */
+    public double[] getTemperature() {
+        return temperature;
+    }
+
+    /**
+     *
+     * @return relative humidity (%)
+     */
+    public double[] getRelativeHumidity() {
+        return relativeHumidity;
+    }
+
+    /**
+     *
+     * @return dew point (deg. C), NaN where the status is not OK
+     */
+    public double[] getDewPoint() {
+        return dewPoint;
+    }
+
+    /**
+     *
+     * @return dew point status codes
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public int[] getStatus() {
+        return status;
+    }
+
+    /**
+     *
+     * @return Preservation Index
+     */
+    public int[] getPreservationIndex() {
+        return preservationIndex;
+    }
+
+    /**
+     *
+     * @return mold risk score
+     */
+    public int[] getMold() {
+        return mold;
+    }
+
+    /**
+     *
+     * @return equilibrium moisture content (%)
+     */
+    public float[] getEmc() {
+        return emc;
+    }
+
+}
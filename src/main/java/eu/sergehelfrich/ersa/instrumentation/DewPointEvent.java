@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a slow dew point calculation
+ *
+ * @author helfrich
+ */
+@Name("eu.sergehelfrich.ersa.DewPoint")
+@Label("Slow Dew Point")
+@Category("Ersa")
+@Description("Dew point calculation slower than the ersa.instrumentation.slowDewPoint threshold")
+@StackTrace(false)
+class DewPointEvent extends Event {
+
+    @Label("Relative Humidity")
+    double relativeHumidity;
+
+    @Label("Temperature")
+    @Description("Temperature (K)")
+    double temperature;
+
+    @Label("Dew Point")
+    @Description("Dew point (K), NaN if the status is not OK")
+    double dewPoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Iterations")
+    int iterations;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+
+}
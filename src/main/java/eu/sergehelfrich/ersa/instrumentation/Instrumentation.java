@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Opt-in instrumentation of the solvers, the dew point calculation and the
+ * table lookups of {@link eu.sergehelfrich.ersa.preservation.Metrics}. It is
+ * enabled with the system property {@value #PROPERTY}{@code =true}, which is
+ * read once. The hooks are guarded by the constant {@link #ENABLED}, so when
+ * disabled the JIT compiler removes them and they cost nothing.
+ * <p>
+ * When enabled, the counters are registered as the MXBean
+ * {@value #OBJECT_NAME}, and the flight recorder gets a periodic
+ * {@code eu.sergehelfrich.ersa.Statistics} event with the counters and an
+ * {@code eu.sergehelfrich.ersa.DewPoint} event for every dew point
+ * calculation slower than {@value #SLOW_DEW_POINT_PROPERTY} nanoseconds
+ * (default {@value #DEFAULT_SLOW_DEW_POINT}).
+ *
+ * @author helfrich
+ */
+public final class Instrumentation implements InstrumentationMXBean {
+
+    /**
+     * System property that enables the instrumentation
+     */
+    public static final String PROPERTY = "ersa.instrumentation";
+
+    /**
+     * System property with the latency (ns) above which a dew point
+     * calculation is recorded as a flight recorder event
+     */
+    public static final String SLOW_DEW_POINT_PROPERTY = "ersa.instrumentation.slowDewPoint";
+
+    /**
+     * Default latency (ns) above which a dew point calculation is recorded as
+     * a flight recorder event
+     */
+    public static final long DEFAULT_SLOW_DEW_POINT = 20_000;
+
+    /**
+     * Object name of the MXBean
+     */
+    public static final String OBJECT_NAME = "eu.sergehelfrich.ersa:type=Instrumentation";
+
+    /**
+     * True if the library records into the instrumentation
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final long SLOW_DEW_POINT = Long.getLong(SLOW_DEW_POINT_PROPERTY, DEFAULT_SLOW_DEW_POINT);
+
+    private static final Instrumentation INSTANCE = new Instrumentation();
+
+    private final LongAdder solverCalls = new LongAdder();
+    private final LongAdder solverIterations = new LongAdder();
+    private final LongAdder solverNoConvergence = new LongAdder();
+    private final LongAdder solverOutOfRange = new LongAdder();
+    private final LongAdder dewPointNoConvergence = new LongAdder();
+    private final LongAdder dewPointOutOfRange = new LongAdder();
+    private final LatencyHistogram dewPointLatency = new LatencyHistogram();
+    private final LongAdder preservationIndexClamped = new LongAdder();
+    private final LongAdder emcClamped = new LongAdder();
+
+    static {
+        if (ENABLED) {
+            register();
+            FlightRecorder.addPeriodicEvent(StatisticsEvent.class, INSTANCE::emitStatistics);
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     *
+     * @return the instrumentation
+     */
+    public static Instrumentation getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register the MXBean with the platform MBean server, which is done
+     * automatically if the instrumentation is enabled. Registering again has
+     * no effect.
+     *
+     * @throws IllegalStateException registration failed
+     */
+    public static void register() throws IllegalStateException {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ex) {
+            // registered before
+        } catch (JMException ex) {
+            throw new IllegalStateException("Registration failed!", ex);
+        }
+    }
+
+    /**
+     * Record a solver run. Called by the solvers if enabled.
+     *
+     * @param status status code
+     * @param iterations number of iterations
+     */
+    public static void solver(int status, int iterations) {
+        INSTANCE.solverCalls.increment();
+        INSTANCE.solverIterations.add(iterations);
+        if (status == Status.NO_CONVERGENCE) {
+            INSTANCE.solverNoConvergence.increment();
+        } else if (status == Status.OUT_OF_RANGE) {
+            INSTANCE.solverOutOfRange.increment();
+        }
+    }
+
+    /**
+     * Record a dew point calculation. Called by
+     * {@link eu.sergehelfrich.ersa.Dew} if enabled.
+     *
+     * @param start start time as returned by {@link System#nanoTime()}
+     * @param relativeHumidity relative humidity (%)
+     * @param temperature temperature (K)
+     * @param dewPoint dew point (K)
+     * @param result status and iteration count
+     */
+    public static void dewPoint(long start, double relativeHumidity, double temperature, double dewPoint, SolverResult result) {
+        long latency = System.nanoTime() - start;
+        INSTANCE.dewPointLatency.record(latency);
+        if (result.getStatus() == Status.NO_CONVERGENCE) {
+            INSTANCE.dewPointNoConvergence.increment();
+        } else if (result.getStatus() == Status.OUT_OF_RANGE) {
+            INSTANCE.dewPointOutOfRange.increment();
+        }
+        if (latency >= SLOW_DEW_POINT) {
+            DewPointEvent event = new DewPointEvent();
+            if (event.isEnabled()) {
+                event.relativeHumidity = relativeHumidity;
+                event.temperature = temperature;
+                event.dewPoint = dewPoint;
+                event.status = result.getStatus();
+                event.iterations = result.getIterations();
+                event.latency = latency;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Record a Preservation Index lookup with inputs outside the table. Called
+     * by {@link eu.sergehelfrich.ersa.preservation.Metrics} if enabled.
+     */
+    public static void preservationIndexClamped() {
+        INSTANCE.preservationIndexClamped.increment();
+    }
+
+    /**
+     * Record an equilibrium moisture content lookup with inputs outside the
+     * table. Called by {@link eu.sergehelfrich.ersa.preservation.Metrics} if
+     * enabled.
+     */
+    public static void emcClamped() {
+        INSTANCE.emcClamped.increment();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public long getSolverCalls() {
+        return solverCalls.sum();
+    }
+
+    @Override
+    public long getSolverIterations() {
+        return solverIterations.sum();
+    }
+
+    @Override
+    public long getSolverNoConvergence() {
+        return solverNoConvergence.sum();
+    }
+
+    @Override
+    public long getSolverOutOfRange() {
+        return solverOutOfRange.sum();
+    }
+
+    @Override
+    public long getDewPointCalls() {
+        return dewPointLatency.getCount();
+    }
+
+    @Override
+    public long getDewPointNoConvergence() {
+        return dewPointNoConvergence.sum();
+    }
+
+    @Override
+    public long getDewPointOutOfRange() {
+        return dewPointOutOfRange.sum();
+    }
+
+    @Override
+    public double getDewPointLatencyMean() {
+        return dewPointLatency.getMean();
+    }
+
+    @Override
+    public long getDewPointLatencyP50() {
+        return dewPointLatency.getPercentile(50);
+    }
+
+    @Override
+    public long getDewPointLatencyP99() {
+        return dewPointLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getDewPointLatencyP999() {
+        return dewPointLatency.getPercentile(99.9);
+    }
+
+    @Override
+    public long[] getDewPointLatencyHistogram() {
+        return dewPointLatency.getCounts();
+    }
+
+    @Override
+    public long getPreservationIndexClamped() {
+        return preservationIndexClamped.sum();
+    }
+
+    @Override
+    public long getEmcClamped() {
+        return emcClamped.sum();
+    }
+
+    @Override
+    public void reset() {
+        solverCalls.reset();
+        solverIterations.reset();
+        solverNoConvergence.reset();
+        solverOutOfRange.reset();
+        dewPointNoConvergence.reset();
+        dewPointOutOfRange.reset();
+        dewPointLatency.reset();
+        preservationIndexClamped.reset();
+        emcClamped.reset();
+    }
+
+    private void emitStatistics() {
+        StatisticsEvent event = new StatisticsEvent();
+        event.solverCalls = getSolverCalls();
+        event.solverIterations = getSolverIterations();
+        event.solverNoConvergence = getSolverNoConvergence();
+        event.solverOutOfRange = getSolverOutOfRange();
+        event.dewPointCalls = getDewPointCalls();
+        event.dewPointNoConvergence = getDewPointNoConvergence();
+        event.dewPointOutOfRange = getDewPointOutOfRange();
+        event.dewPointLatencyP50 = getDewPointLatencyP50();
+        event.dewPointLatencyP99 = getDewPointLatencyP99();
+        event.preservationIndexClamped = getPreservationIndexClamped();
+        event.emcClamped = getEmcClamped();
+        event.commit();
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+/**
+ * Management interface of the instrumentation, registered as
+ * {@value Instrumentation#OBJECT_NAME}. Latencies are in nanoseconds.
+ *
+ * @author helfrich
+ */
+public interface InstrumentationMXBean {
+
+    /**
+     *
+     * @return true if the library records into this instrumentation
+     */
+    boolean isEnabled();
+
+    /**
+     *
+     * @return number of solver runs
+     */
+    long getSolverCalls();
+
+    /**
+     *
+     * @return total number of solver iterations
+     */
+    long getSolverIterations();
+
+    /**
+     *
+     * @return number of solver runs that did not converge
+     */
+    long getSolverNoConvergence();
+
+    /**
+     *
+     * @return number of solver runs that left the range of the function
+     */
+    long getSolverOutOfRange();
+
+    /**
+     *
+     * @return number of dew point calculations
+     */
+    long getDewPointCalls();
+
+    /**
+     *
+     * @return number of dew point calculations that did not converge
+     */
+    long getDewPointNoConvergence();
+
+    /**
+     *
+     * @return number of dew point calculations with inputs or results out of
+     * range
+     */
+    long getDewPointOutOfRange();
+
+    /**
+     *
+     * @return mean dew point latency, NaN if there were no calculations
+     */
+    double getDewPointLatencyMean();
+
+    /**
+     *
+     * @return median dew point latency, rounded up to a power of two
+     */
+    long getDewPointLatencyP50();
+
+    /**
+     *
+     * @return 99th percentile of the dew point latency, rounded up to a power
+     * of two
+     */
+    long getDewPointLatencyP99();
+
+    /**
+     *
+     * @return 99.9th percentile of the dew point latency, rounded up to a
+     * power of two
+     */
+    long getDewPointLatencyP999();
+
+    /**
+     *
+     * @return dew point latency histogram; element i counts latencies in
+     * [2^(i-1), 2^i) ns
+     */
+    long[] getDewPointLatencyHistogram();
+
+    /**
+     *
+     * @return number of Preservation Index lookups with inputs clamped to the
+     * table
+     */
+    long getPreservationIndexClamped();
+
+    /**
+     *
+     * @return number of equilibrium moisture content lookups with inputs
+     * clamped to the table
+     */
+    long getEmcClamped();
+
+    /**
+     * Reset all counters and the histogram
+     */
+    void reset();
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in power of two buckets of nanoseconds. Can be shared
+ * between threads; recording does not contend.
+ *
+ * @author helfrich
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of buckets; bucket i counts latencies in [2^(i-1), 2^i) ns
+     */
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     *
+     * @param nanos latency (ns)
+     */
+    public void record(long nanos) {
+        counts[bucket(nanos)].increment();
+        total.add(Math.max(0, nanos));
+    }
+
+    /**
+     *
+     * @return number of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     *
+     * @return mean latency (ns), NaN if empty
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? Double.NaN : (double) total.sum() / count;
+    }
+
+    /**
+     *
+     * @param percentile percentile, 0..100
+     * @return upper bound of the bucket of the percentile (ns), -1 if empty
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = getCounts();
+        long count = 0;
+        for (long bucket : snapshot) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     *
+     * @return count per bucket
+     */
+    public long[] getCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Clear the histogram. Latencies recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (LongAdder bucket : counts) {
+            bucket.reset();
+        }
+        total.reset();
+    }
+
+    /**
+     *
+     * @param nanos latency (ns)
+     * @return bucket of the latency
+     */
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic flight recorder event with the instrumentation counters, which are
+ * cumulative since the start or the last reset
+ *
+ * @author helfrich
+ */
+@Name("eu.sergehelfrich.ersa.Statistics")
+@Label("Ersa Statistics")
+@Category("Ersa")
+@Description("Solver, dew point and table lookup counters")
+@Period("1 s")
+@StackTrace(false)
+class StatisticsEvent extends Event {
+
+    @Label("Solver Calls")
+    long solverCalls;
+
+    @Label("Solver Iterations")
+    long solverIterations;
+
+    @Label("Solver No Convergence")
+    long solverNoConvergence;
+
+    @Label("Solver Out Of Range")
+    long solverOutOfRange;
+
+    @Label("Dew Point Calls")
+    long dewPointCalls;
+
+    @Label("Dew Point No Convergence")
+    long dewPointNoConvergence;
+
+    @Label("Dew Point Out Of Range")
+    long dewPointOutOfRange;
+
+    @Label("Dew Point Latency P50")
+    @Timespan(Timespan.NANOSECONDS)
+    long dewPointLatencyP50;
+
+    @Label("Dew Point Latency P99")
+    @Timespan(Timespan.NANOSECONDS)
+    long dewPointLatencyP99;
+
+    @Label("Preservation Index Clamped")
+    long preservationIndexClamped;
+
+    @Label("EMC Clamped")
+    long emcClamped;
+
+}
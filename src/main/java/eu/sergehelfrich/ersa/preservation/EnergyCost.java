@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Cost of holding a room at a setpoint, e.g. energy per day. Lower is better.
+ *
+ * @author helfrich
+ */
+@FunctionalInterface
+public interface EnergyCost {
+
+    /**
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @return cost, NaN if the setpoint cannot be held
+     */
+    double cost(double temperature, double relativeHumidity);
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Equilibrium Moisture Content accumulator for the MinEMC, MaxEMC and Percent
+ * Dimensional Change (%DC) metrics. The temperature is lagged by a 24-hour and
+ * the relative humidity by a 30-day moving average before the EMC is looked
+ * up. The minimum and maximum are kept over a sliding window in amortized
+ * constant time. Not thread safe.
+ *
+ * @see
+ * <a href="https://s3.cad.rit.edu/ipi-assets/publications/understanding_preservation_metrics.pdf">Preservation
+ * Metrics</a>
+ * @author helfrich
+ */
+public class EquilibriumMoistureContent {
+
+    private final Metrics metrics;
+    private final long window;
+
+    private final MovingAverage temperature = new MovingAverage(Metrics.DAY, 24);
+    private final MovingAverage relativeHumidity = new MovingAverage(30 * Metrics.DAY, 30);
+
+    private final MonotonicDeque minimum = new MonotonicDeque(false);
+    private final MonotonicDeque maximum = new MonotonicDeque(true);
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private float emc = Float.NaN;
+    private Risk mechanicalDamage;
+    private Risk metalCorrosion;
+
+    /**
+     * Accumulator with a window of one year
+     *
+     * @param metrics metrics
+     */
+    public EquilibriumMoistureContent(Metrics metrics) {
+        this(metrics, 365 * Metrics.DAY);
+    }
+
+    /**
+     *
+     * @param metrics metrics
+     * @param window window for the minimum and maximum (ms)
+     */
+    public EquilibriumMoistureContent(Metrics metrics, long window) {
+        this.metrics = metrics;
+        this.window = window;
+    }
+
+    /**
+     * Add a sample. Samples may be irregularly spaced but must be in
+     * chronological order.
+     *
+     * @param timestamp time (ms)
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @return EMC for the lagged temperature and relative humidity, percent
+     */
+    public float add(long timestamp, double temperature, double relativeHumidity) {
+        long interval = 0;
+        if (lastTimestamp != Long.MIN_VALUE) {
+            interval = timestamp - lastTimestamp;
+            if (interval < 0) {
+                throw new IllegalArgumentException("Samples out of order!");
+            }
+        }
+        lastTimestamp = timestamp;
+        double weight = Math.max(interval, 1);
+        this.temperature.add(timestamp, temperature, weight);
+        this.relativeHumidity.add(timestamp, relativeHumidity, weight);
+        emc = metrics.emc(this.temperature.getAverage(), this.relativeHumidity.getAverage());
+
+        long cutoff = timestamp - window;
+        minimum.add(timestamp, emc, cutoff);
+        maximum.add(timestamp, emc, cutoff);
+        Risk dry = metrics.mechanicalDamage(minimum.get());
+        Risk wet = metrics.mechanicalDamage(maximum.get());
+        mechanicalDamage = dry.compareTo(wet) >= 0 ? dry : wet;
+        metalCorrosion = metrics.metalCorrosion(maximum.get());
+        return emc;
+    }
+
+    /**
+     *
+     * @return EMC of the last sample, percent
+     */
+    public float getEmc() {
+        return emc;
+    }
+
+    /**
+     *
+     * @return MinEMC over the window, percent
+     */
+    public float getMinimum() {
+        return minimum.get();
+    }
+
+    /**
+     *
+     * @return MaxEMC over the window, percent
+     */
+    public float getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     *
+     * @return %DC over the window
+     * @see Metrics#dimensionalChange(float, float)
+     */
+    public float getDimensionalChange() {
+        return metrics.dimensionalChange(minimum.get(), maximum.get());
+    }
+
+    /**
+     *
+     * @return mechanical damage risk for MinEMC and MaxEMC, null if there are
+     * no samples
+     */
+    public Risk getMechanicalDamage() {
+        return mechanicalDamage;
+    }
+
+    /**
+     *
+     * @return metal corrosion risk for MaxEMC, null if there are no samples
+     */
+    public Risk getMetalCorrosion() {
+        return metalCorrosion;
+    }
+
+    /**
+     *
+     * @return dimensional change risk for %DC, null if there are no samples
+     */
+    public Risk getDimensionalChangeRisk() {
+        return lastTimestamp == Long.MIN_VALUE ? null : metrics.dimensionalChangeRisk(getDimensionalChange());
+    }
+
+}
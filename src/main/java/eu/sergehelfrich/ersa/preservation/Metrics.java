@@ -16,17 +16,10 @@
  */
 package eu.sergehelfrich.ersa.preservation;
 
-import eu.sergehelfrich.ersa.Scale;
 import eu.sergehelfrich.ersa.Temperature;
-import java.io.InputStream;
-import com.google.gson.Gson;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.UnsupportedEncodingException;
-import java.nio.charset.StandardCharsets;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import eu.sergehelfrich.ersa.instrumentation.Instrumentation;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 
 /**
  * Preservation Metrics
@@ -43,43 +36,22 @@ import java.util.logging.Logger;
 public class Metrics {
 
     /**
-     * Preservation Index
+     * One day (ms)
      */
-    private int[] piTable;
+    public static final long DAY = 86_400_000L;
 
     /**
-     * Equilibrium Moisture Content
+     * Dimensional change per percent EMC, percent. Typical tangential
+     * dimensional change coefficient of wood.
      */
-    private float[] emcTable;
-
-    public Metrics() {
-
-        Reader piReader = null;
-        Reader emcReader = null;
-
-        try {
-            InputStream isPi = getClass().getClassLoader().getResourceAsStream("pi.json");
-            InputStream isEmc = getClass().getClassLoader().getResourceAsStream("emc.json");
-            Gson gson = new Gson();
-            piReader = new InputStreamReader(isPi, StandardCharsets.UTF_8);
-            piTable = gson.fromJson(piReader, int[].class);
-            emcReader = new InputStreamReader(isEmc, StandardCharsets.UTF_8);
-            emcTable = gson.fromJson(emcReader, float[].class);
+    public static final float DIMENSIONAL_CHANGE_COEFFICIENT = 0.3F;
 
-        } finally {
-            try {
-                if (piReader != null) {
-                    piReader.close();
-                }
-                if (emcReader != null) {
-                    emcReader.close();
-                }
-            } catch (IOException ex) {
-                Logger.getLogger(Metrics.class.getName()).log(Level.SEVERE, null, ex);
-            }
-        }
-
-    }
+    /**
+     * Equilibrium moisture content band without mechanical damage risk,
+     * percent
+     */
+    static final float MIN_SAFE_EMC = 5F;
+    static final float MAX_SAFE_EMC = 12.5F;
 
     /**
      * Preservation Index
@@ -89,7 +61,10 @@ public class Metrics {
      * @return Preservation Index (PI) score for the provided conditions
      */
     public int preservationIndex(double temperature, double relativeHumidity) {
-        return piTable[((temperature < -23 ? -23 : temperature > 65 ? 65 : (int) Math.round(temperature)) + 23) * 90 + (relativeHumidity < 6L ? 6 : relativeHumidity > 95 ? 95 : (int) Math.round(relativeHumidity)) - 6];
+        if (Instrumentation.ENABLED && (temperature < -23 || temperature > 65 || relativeHumidity < 6 || relativeHumidity > 95)) {
+            Instrumentation.preservationIndexClamped();
+        }
+        return Tables.pi()[((temperature < -23 ? -23 : temperature > 65 ? 65 : (int) Math.round(temperature)) + 23) * 90 + (relativeHumidity < 6L ? 6 : relativeHumidity > 95 ? 95 : (int) Math.round(relativeHumidity)) - 6];
     }
 
     /**
@@ -101,12 +76,11 @@ public class Metrics {
      * @see eu.sergehelfrich.ersa.Temperature
      */
     public int preservationIndex(Temperature temperature, double relativeHumidity) {
-        temperature.setScale(Scale.CELSIUS);
-        return preservationIndex(temperature.getTemperature(), relativeHumidity);
+        return preservationIndex(temperature.getKelvin() - Temperature.CELSIUS_OFFSET, relativeHumidity);
     }
 
     /**
-     * Mold Risk
+     * Mold Risk. Relative humidity above 100 % is treated as 100 %.
      *
      * @param temperature deg. C
      * @param relativeHumidity %
@@ -117,7 +91,7 @@ public class Metrics {
         if (temperature > 45 || temperature < 2 || relativeHumidity < 65) {
             return 0;
         }
-        return piTable[8010 + ((int) Math.round(temperature) - 2) * 36 + (int) Math.round(relativeHumidity) - 65];
+        return Tables.pi()[8010 + ((int) Math.round(temperature) - 2) * 36 + Math.min(100, (int) Math.round(relativeHumidity)) - 65];
     }
 
     /**
@@ -129,19 +103,22 @@ public class Metrics {
      * indicate a faster onset of mold growth
      */
     public int mold(Temperature temperature, double relativeHumidity) {
-        temperature.setScale(Scale.CELSIUS);
-        return mold(temperature.getTemperature(), relativeHumidity);
+        return mold(temperature.getKelvin() - Temperature.CELSIUS_OFFSET, relativeHumidity);
     }
 
     /**
-     * Equilibrium Moisture Content
+     * Equilibrium Moisture Content. Temperature is clamped to -20..65 deg. C
+     * and relative humidity to 0..100 %.
      *
      * @param temperature deg. C
      * @param relativeHumidity %
      * @return Equilibrium moisture content in percent
      */
     public float emc(double temperature, double relativeHumidity) {
-        return emcTable[(Math.max(-20, Math.min(65, (int) Math.round(temperature))) + 20) * 101 + (int) Math.round(relativeHumidity)];
+        if (Instrumentation.ENABLED && (temperature < -20 || temperature > 65 || relativeHumidity < 0 || relativeHumidity > 100)) {
+            Instrumentation.emcClamped();
+        }
+        return Tables.emc()[(Math.max(-20, Math.min(65, (int) Math.round(temperature))) + 20) * 101 + Math.max(0, Math.min(100, (int) Math.round(relativeHumidity)))];
     }
 
     /**
@@ -152,8 +129,231 @@ public class Metrics {
      * @return Equilibrium moisture content in percent
      */
     public float emc(Temperature temperature, double relativeHumidity) {
-        temperature.setScale(Scale.CELSIUS);
-        return emc(temperature.getTemperature(), relativeHumidity);
+        return emc(temperature.getKelvin() - Temperature.CELSIUS_OFFSET, relativeHumidity);
+    }
+
+    /**
+     * Preservation Index for arrays of temperature and relative humidity
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param preservationIndex Preservation Index (PI) score per element,
+     * output
+     */
+    public void preservationIndex(double[] temperature, double[] relativeHumidity, int[] preservationIndex) {
+        checkLength(temperature.length, relativeHumidity.length, preservationIndex.length);
+        for (int i = 0; i < temperature.length; i++) {
+            preservationIndex[i] = preservationIndex(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Preservation Index for the remaining elements of buffers of temperature
+     * and relative humidity. The buffer positions are not modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param preservationIndex Preservation Index (PI) score per element,
+     * output
+     */
+    public void preservationIndex(DoubleBuffer temperature, DoubleBuffer relativeHumidity, int[] preservationIndex) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), preservationIndex.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            preservationIndex[i] = preservationIndex(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    /**
+     * Mold Risk for arrays of temperature and relative humidity
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param mold mold risk score per element, output
+     */
+    public void mold(double[] temperature, double[] relativeHumidity, int[] mold) {
+        checkLength(temperature.length, relativeHumidity.length, mold.length);
+        for (int i = 0; i < temperature.length; i++) {
+            mold[i] = mold(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Mold Risk for the remaining elements of buffers of temperature and
+     * relative humidity. The buffer positions are not modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param mold mold risk score per element, output
+     */
+    public void mold(DoubleBuffer temperature, DoubleBuffer relativeHumidity, int[] mold) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), mold.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            mold[i] = mold(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    /**
+     * Equilibrium Moisture Content for arrays of temperature and relative
+     * humidity
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param emc equilibrium moisture content in percent per element, output
+     */
+    public void emc(double[] temperature, double[] relativeHumidity, float[] emc) {
+        checkLength(temperature.length, relativeHumidity.length, emc.length);
+        for (int i = 0; i < temperature.length; i++) {
+            emc[i] = emc(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Equilibrium Moisture Content for the remaining elements of buffers of
+     * temperature and relative humidity. The buffer positions are not
+     * modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param emc equilibrium moisture content in percent per element, output
+     */
+    public void emc(DoubleBuffer temperature, DoubleBuffer relativeHumidity, float[] emc) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), emc.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            emc[i] = emc(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    /**
+     * Preservation Index for float arrays of temperature and relative
+     * humidity. For readings with a resolution of 0.1 the scores are the
+     * same as for double readings.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param preservationIndex Preservation Index (PI) score per element,
+     * output
+     */
+    public void preservationIndex(float[] temperature, float[] relativeHumidity, int[] preservationIndex) {
+        checkLength(temperature.length, relativeHumidity.length, preservationIndex.length);
+        for (int i = 0; i < temperature.length; i++) {
+            preservationIndex[i] = preservationIndexFloat(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Preservation Index for the remaining elements of float buffers of
+     * temperature and relative humidity. The buffer positions are not
+     * modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param preservationIndex Preservation Index (PI) score per element,
+     * output
+     */
+    public void preservationIndex(FloatBuffer temperature, FloatBuffer relativeHumidity, int[] preservationIndex) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), preservationIndex.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            preservationIndex[i] = preservationIndexFloat(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    /**
+     * Mold Risk for float arrays of temperature and relative humidity
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param mold mold risk score per element, output
+     */
+    public void mold(float[] temperature, float[] relativeHumidity, int[] mold) {
+        checkLength(temperature.length, relativeHumidity.length, mold.length);
+        for (int i = 0; i < temperature.length; i++) {
+            mold[i] = moldFloat(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Mold Risk for the remaining elements of float buffers of temperature and
+     * relative humidity. The buffer positions are not modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param mold mold risk score per element, output
+     */
+    public void mold(FloatBuffer temperature, FloatBuffer relativeHumidity, int[] mold) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), mold.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            mold[i] = moldFloat(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    /**
+     * Equilibrium Moisture Content for float arrays of temperature and
+     * relative humidity
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param emc equilibrium moisture content in percent per element, output
+     */
+    public void emc(float[] temperature, float[] relativeHumidity, float[] emc) {
+        checkLength(temperature.length, relativeHumidity.length, emc.length);
+        for (int i = 0; i < temperature.length; i++) {
+            emc[i] = emcFloat(temperature[i], relativeHumidity[i]);
+        }
+    }
+
+    /**
+     * Equilibrium Moisture Content for the remaining elements of float buffers
+     * of temperature and relative humidity. The buffer positions are not
+     * modified.
+     *
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @param emc equilibrium moisture content in percent per element, output
+     */
+    public void emc(FloatBuffer temperature, FloatBuffer relativeHumidity, float[] emc) {
+        int length = temperature.remaining();
+        checkLength(length, relativeHumidity.remaining(), emc.length);
+        int temperatureOffset = temperature.position();
+        int rhOffset = relativeHumidity.position();
+        for (int i = 0; i < length; i++) {
+            emc[i] = emcFloat(temperature.get(temperatureOffset + i), relativeHumidity.get(rhOffset + i));
+        }
+    }
+
+    private int preservationIndexFloat(float temperature, float relativeHumidity) {
+        if (Instrumentation.ENABLED && (temperature < -23 || temperature > 65 || relativeHumidity < 6 || relativeHumidity > 95)) {
+            Instrumentation.preservationIndexClamped();
+        }
+        return Tables.pi()[((temperature < -23 ? -23 : temperature > 65 ? 65 : Math.round(temperature)) + 23) * 90 + (relativeHumidity < 6 ? 6 : relativeHumidity > 95 ? 95 : Math.round(relativeHumidity)) - 6];
+    }
+
+    private int moldFloat(float temperature, float relativeHumidity) {
+        if (temperature > 45 || temperature < 2 || relativeHumidity < 65) {
+            return 0;
+        }
+        return Tables.pi()[8010 + (Math.round(temperature) - 2) * 36 + Math.min(100, Math.round(relativeHumidity)) - 65];
+    }
+
+    private float emcFloat(float temperature, float relativeHumidity) {
+        if (Instrumentation.ENABLED && (temperature < -20 || temperature > 65 || relativeHumidity < 0 || relativeHumidity > 100)) {
+            Instrumentation.emcClamped();
+        }
+        return Tables.emc()[(Math.max(-20, Math.min(65, Math.round(temperature))) + 20) * 101 + Math.max(0, Math.min(100, Math.round(relativeHumidity)))];
     }
 
     /**
@@ -183,7 +383,7 @@ public class Metrics {
      * @return Qualitative risk classification for mechanical damage
      */
     public Risk mechanicalDamage(float emc) {
-        return emc < 5 || emc > 12.5 ? Risk.RISK : Risk.OK;
+        return emc < MIN_SAFE_EMC || emc > MAX_SAFE_EMC ? Risk.RISK : Risk.OK;
     }
 
     /**
@@ -196,4 +396,33 @@ public class Metrics {
         return emc < 7.0 ? Risk.GOOD : emc > 10.5 ? Risk.RISK : Risk.OK;
     }
 
+    /**
+     * Percent Dimensional Change
+     *
+     * @param minEmc minimum equilibrium moisture content in percent
+     * @param maxEmc maximum equilibrium moisture content in percent
+     * @return Percent dimensional change (%DC) between the driest and the
+     * wettest conditions
+     */
+    public float dimensionalChange(float minEmc, float maxEmc) {
+        return (maxEmc - minEmc) * DIMENSIONAL_CHANGE_COEFFICIENT;
+    }
+
+    /**
+     * Dimensional change risk
+     *
+     * @param dimensionalChange %DC as returned by
+     * {@link #dimensionalChange(float, float)}
+     * @return Qualitative risk classification for dimensional change
+     */
+    public Risk dimensionalChangeRisk(float dimensionalChange) {
+        return dimensionalChange < 0.5 ? Risk.GOOD : dimensionalChange > 1.5 ? Risk.RISK : Risk.OK;
+    }
+
+    private static void checkLength(int temperature, int relativeHumidity, int output) {
+        if (relativeHumidity != temperature || output < temperature) {
+            throw new IllegalArgumentException("Array lengths do not match!");
+        }
+    }
+
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Mold Risk Factor (MRF) accumulator. Every interval between two samples adds
+ * the fraction of the time to germination (as returned by
+ * {@link Metrics#mold(double, double)} for the earlier sample) it covers.
+ * Intervals without mold risk add nothing but keep the running sum. Once the
+ * sum reaches 1.0 germination is expected and the sum resets, keeping the
+ * fraction beyond each whole germination. Each sample
+ * costs constant time and memory. Not thread safe.
+ *
+ * @see
+ * <a href="https://s3.cad.rit.edu/ipi-assets/publications/understanding_preservation_metrics.pdf">Preservation
+ * Metrics</a>
+ * @author helfrich
+ */
+public class MoldRiskFactor {
+
+    private final Metrics metrics;
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int mold;
+    private double moldRiskFactor;
+    private double peak;
+    private int resets;
+
+    /**
+     *
+     * @param metrics metrics
+     */
+    public MoldRiskFactor(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Add a sample. Samples may be irregularly spaced but must be in
+     * chronological order.
+     *
+     * @param timestamp time (ms)
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @return MRF up to this sample
+     */
+    public double add(long timestamp, double temperature, double relativeHumidity) {
+        if (lastTimestamp != Long.MIN_VALUE) {
+            long interval = timestamp - lastTimestamp;
+            if (interval < 0) {
+                throw new IllegalArgumentException("Samples out of order!");
+            }
+            if (mold > 0) {
+                moldRiskFactor += interval / (double) (mold * Metrics.DAY);
+                if (moldRiskFactor > peak) {
+                    peak = moldRiskFactor;
+                }
+                if (moldRiskFactor >= 1) {
+                    // a long interval can cover several germinations
+                    resets += (int) moldRiskFactor;
+                    moldRiskFactor -= Math.floor(moldRiskFactor);
+                }
+            }
+        }
+        lastTimestamp = timestamp;
+        mold = metrics.mold(temperature, relativeHumidity);
+        return moldRiskFactor;
+    }
+
+    /**
+     *
+     * @return running MRF
+     */
+    public double getMoldRiskFactor() {
+        return moldRiskFactor;
+    }
+
+    /**
+     *
+     * @return highest MRF reached so far
+     */
+    public double getPeak() {
+        return peak;
+    }
+
+    /**
+     *
+     * @return number of times the MRF reached 1.0 (expected germinations)
+     */
+    public int getResets() {
+        return resets;
+    }
+
+    /**
+     *
+     * @return mold score of the last sample
+     * @see Metrics#mold(double, double)
+     */
+    public int getMold() {
+        return mold;
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Sliding window minimum (or maximum) in amortized constant time. The deque
+ * holds the samples that can still become the extreme value, in
+ * chronological order, backed by growable primitive ring buffers.
+ *
+ * @author helfrich
+ */
+class MonotonicDeque {
+
+    private final boolean maximum;
+
+    private long[] timestamps = new long[16];
+    private float[] values = new float[16];
+    private int head;
+    private int size;
+
+    /**
+     *
+     * @param maximum true to track the maximum, false for the minimum
+     */
+    MonotonicDeque(boolean maximum) {
+        this.maximum = maximum;
+    }
+
+    /**
+     * Add a sample and drop the samples at or before the cutoff.
+     *
+     * @param timestamp time (ms)
+     * @param value value
+     * @param cutoff time (ms)
+     */
+    void add(long timestamp, float value, long cutoff) {
+        while (size > 0 && dominates(value, values[index(size - 1)])) {
+            size--;
+        }
+        if (size == values.length) {
+            grow();
+        }
+        timestamps[index(size)] = timestamp;
+        values[index(size)] = value;
+        size++;
+        while (size > 1 && timestamps[head] <= cutoff) {
+            head = index(1);
+            size--;
+        }
+    }
+
+    private boolean dominates(float value, float other) {
+        return maximum ? value >= other : value <= other;
+    }
+
+    private int index(int i) {
+        return (head + i) & (values.length - 1);
+    }
+
+    private void grow() {
+        long[] newTimestamps = new long[timestamps.length * 2];
+        float[] newValues = new float[values.length * 2];
+        for (int i = 0; i < size; i++) {
+            newTimestamps[i] = timestamps[index(i)];
+            newValues[i] = values[index(i)];
+        }
+        timestamps = newTimestamps;
+        values = newValues;
+        head = 0;
+    }
+
+    /**
+     *
+     * @return extreme value in the window, NaN if empty
+     */
+    float get() {
+        return size > 0 ? values[head] : Float.NaN;
+    }
+
+}
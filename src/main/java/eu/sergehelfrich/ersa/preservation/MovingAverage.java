@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import java.util.Arrays;
+
+/**
+ * Weighted moving average over a time window. The window is divided into a
+ * fixed number of buckets, so the memory is bounded regardless of the sample
+ * rate and the average covers the current bucket and the preceding
+ * {@code buckets - 1} buckets. Not thread safe.
+ *
+ * @author helfrich
+ */
+public class MovingAverage {
+
+    private final long bucketWidth;
+    private final double[] sums;
+    private final double[] weights;
+
+    private long bucket = Long.MIN_VALUE;
+    private double sum;
+    private double weight;
+
+    /**
+     *
+     * @param window window length (ms)
+     * @param buckets number of buckets
+     */
+    public MovingAverage(long window, int buckets) {
+        if (buckets < 1 || window < buckets) {
+            throw new IllegalArgumentException("Invalid window!");
+        }
+        this.bucketWidth = window / buckets;
+        this.sums = new double[buckets];
+        this.weights = new double[buckets];
+    }
+
+    /**
+     * Add a sample. Samples older than the window are ignored.
+     *
+     * @param timestamp time (ms)
+     * @param value value
+     * @param weight weight, e.g. the time since the previous sample
+     */
+    public void add(long timestamp, double value, double weight) {
+        long index = Math.floorDiv(timestamp, bucketWidth);
+        if (bucket == Long.MIN_VALUE || index > bucket) {
+            advance(index);
+        } else if (index <= bucket - sums.length) {
+            return;
+        }
+        int slot = (int) Math.floorMod(index, (long) sums.length);
+        sums[slot] += value * weight;
+        weights[slot] += weight;
+        this.sum += value * weight;
+        this.weight += weight;
+    }
+
+    private void advance(long index) {
+        if (bucket == Long.MIN_VALUE || index - bucket >= sums.length) {
+            Arrays.fill(sums, 0);
+            Arrays.fill(weights, 0);
+        } else {
+            for (long i = bucket + 1; i <= index; i++) {
+                int slot = (int) Math.floorMod(i, (long) sums.length);
+                sums[slot] = 0;
+                weights[slot] = 0;
+            }
+        }
+        bucket = index;
+        // recomputed rather than subtracted so rounding errors do not accumulate
+        sum = 0;
+        weight = 0;
+        for (int i = 0; i < sums.length; i++) {
+            sum += sums[i];
+            weight += weights[i];
+        }
+    }
+
+    /**
+     *
+     * @return average, NaN if there are no samples in the window
+     */
+    public double getAverage() {
+        return weight > 0 ? sum / weight : Double.NaN;
+    }
+
+}
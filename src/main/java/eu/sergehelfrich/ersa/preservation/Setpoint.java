@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Climate setpoint with its preservation metrics and cost
+ *
+ * @author helfrich
+ */
+public class Setpoint {
+
+    private final int temperature;
+    private final int relativeHumidity;
+    private final int preservationIndex;
+    private final float emc;
+    private final double cost;
+
+    Setpoint(int temperature, int relativeHumidity, int preservationIndex, float emc, double cost) {
+        this.temperature = temperature;
+        this.relativeHumidity = relativeHumidity;
+        this.preservationIndex = preservationIndex;
+        this.emc = emc;
+        this.cost = cost;
+    }
+
+    /**
+     *
+     * @return temperature (deg. C)
+     */
+    public int getTemperature() {
+        return temperature;
+    }
+
+    /**
+     *
+     * @return relative humidity (%)
+     */
+    public int getRelativeHumidity() {
+        return relativeHumidity;
+    }
+
+    /**
+     *
+     * @return Preservation Index
+     */
+    public int getPreservationIndex() {
+        return preservationIndex;
+    }
+
+    /**
+     *
+     * @return equilibrium moisture content (%)
+     */
+    public float getEmc() {
+        return emc;
+    }
+
+    /**
+     *
+     * @return energy cost
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "Setpoint{" + "temperature=" + temperature + ", relativeHumidity=" + relativeHumidity
+                + ", preservationIndex=" + preservationIndex + ", emc=" + emc + ", cost=" + cost + '}';
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the climate setpoints that trade off the Preservation Index against an
+ * energy cost. A setpoint is feasible if it carries no mold risk and its
+ * equilibrium moisture content is in the OK band of
+ * {@link Metrics#mechanicalDamage(float)}. The result is the Pareto front of
+ * the feasible setpoints: no other feasible setpoint has both a higher or
+ * equal Preservation Index and a lower or equal cost.
+ * <p>
+ * The search runs over the whole-degree and whole-percent grid on which the
+ * tables are defined. Along a row of constant temperature the Preservation
+ * Index does not increase with relative humidity, while the mold risk and the
+ * moisture content do not decrease. The feasible part of each row is
+ * therefore one interval, found by bisection, and the cost is only evaluated
+ * inside it. Rows are evaluated in parallel on the common fork/join pool, so
+ * the cost function must be thread-safe.
+ *
+ * @author helfrich
+ */
+public class SetpointOptimizer {
+
+    /**
+     * Lowest temperature of the table domain (deg. C)
+     */
+    public static final int MIN_TEMPERATURE = -23;
+
+    /**
+     * Highest temperature of the table domain (deg. C)
+     */
+    public static final int MAX_TEMPERATURE = 65;
+
+    /**
+     * Lowest relative humidity of the table domain (%)
+     */
+    public static final int MIN_RELATIVE_HUMIDITY = 6;
+
+    /**
+     * Highest relative humidity of the table domain (%)
+     */
+    public static final int MAX_RELATIVE_HUMIDITY = 95;
+
+    private static final Comparator<Setpoint> ORDER = Comparator.comparingInt(Setpoint::getPreservationIndex).reversed()
+            .thenComparingDouble(Setpoint::getCost)
+            .thenComparingInt(Setpoint::getTemperature)
+            .thenComparingInt(Setpoint::getRelativeHumidity);
+
+    private final Metrics metrics;
+
+    /**
+     *
+     * @param metrics metrics
+     */
+    public SetpointOptimizer(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Pareto-optimal setpoints over the whole table domain
+     *
+     * @param cost energy cost
+     * @return setpoints by descending Preservation Index and cost
+     */
+    public List<Setpoint> optimize(EnergyCost cost) {
+        return optimize(cost, MIN_TEMPERATURE, MAX_TEMPERATURE, MIN_RELATIVE_HUMIDITY, MAX_RELATIVE_HUMIDITY, 0);
+    }
+
+    /**
+     * Pareto-optimal setpoints within the range a room can be held at. Of
+     * setpoints with equal Preservation Index and cost, only the one with the
+     * lowest temperature and relative humidity is returned.
+     *
+     * @param cost energy cost
+     * @param minTemperature lowest temperature (deg. C)
+     * @param maxTemperature highest temperature (deg. C)
+     * @param minRelativeHumidity lowest relative humidity (%)
+     * @param maxRelativeHumidity highest relative humidity (%)
+     * @param minPreservationIndex lowest acceptable Preservation Index
+     * @return setpoints by descending Preservation Index and cost
+     */
+    public List<Setpoint> optimize(EnergyCost cost, int minTemperature, int maxTemperature,
+            int minRelativeHumidity, int maxRelativeHumidity, int minPreservationIndex) {
+        int fromTemperature = Math.max(MIN_TEMPERATURE, minTemperature);
+        int toTemperature = Math.min(MAX_TEMPERATURE, maxTemperature);
+        int fromRelativeHumidity = Math.max(MIN_RELATIVE_HUMIDITY, minRelativeHumidity);
+        int toRelativeHumidity = Math.min(MAX_RELATIVE_HUMIDITY, maxRelativeHumidity);
+        if (fromTemperature > toTemperature || fromRelativeHumidity > toRelativeHumidity) {
+            return Collections.emptyList();
+        }
+        List<Setpoint> candidates = IntStream.rangeClosed(fromTemperature, toTemperature).parallel()
+                .mapToObj(temperature -> row(cost, temperature, fromRelativeHumidity, toRelativeHumidity, minPreservationIndex))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        return front(candidates);
+    }
+
+    private List<Setpoint> row(EnergyCost cost, int temperature, int fromRelativeHumidity, int toRelativeHumidity,
+            int minPreservationIndex) {
+        // first relative humidity that is wet enough, then the first that violates a constraint on the wet side
+        int low = bisect(fromRelativeHumidity, toRelativeHumidity + 1,
+                rh -> metrics.emc(temperature, rh) >= Metrics.MIN_SAFE_EMC);
+        int high = bisect(low, toRelativeHumidity + 1,
+                rh -> metrics.mold(temperature, rh) > 0 || metrics.emc(temperature, rh) > Metrics.MAX_SAFE_EMC
+                || metrics.preservationIndex(temperature, rh) < minPreservationIndex);
+        List<Setpoint> row = new ArrayList<>(high - low);
+        for (int rh = low; rh < high; rh++) {
+            double value = cost.cost(temperature, rh);
+            if (!Double.isNaN(value)) {
+                row.add(new Setpoint(temperature, rh, metrics.preservationIndex(temperature, rh), metrics.emc(temperature, rh), value));
+            }
+        }
+        return front(row);
+    }
+
+    /**
+     *
+     * @param from first relative humidity
+     * @param to relative humidity after the last
+     * @param predicate predicate that is false up to some relative humidity
+     * and true from there on
+     * @return first relative humidity for which the predicate holds, to if
+     * none
+     */
+    private static int bisect(int from, int to, IntPredicate predicate) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            if (predicate.test(middle)) {
+                to = middle;
+            } else {
+                from = middle + 1;
+            }
+        }
+        return from;
+    }
+
+    private static List<Setpoint> front(List<Setpoint> setpoints) {
+        setpoints.sort(ORDER);
+        List<Setpoint> front = new ArrayList<>();
+        double lowestCost = Double.POSITIVE_INFINITY;
+        for (Setpoint setpoint : setpoints) {
+            // every earlier setpoint has a higher or equal Preservation Index
+            if (setpoint.getCost() < lowestCost) {
+                front.add(setpoint);
+                lowestCost = setpoint.getCost();
+            }
+        }
+        return front;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Shared, immutable Preservation Index and Equilibrium Moisture Content
+ * tables. Each table is loaded on first use by the class loader (holder
+ * idiom), so callers that only need the EMC never load the PI table.
+ * <p>
+ * The tables are stored as big-endian binary resources: the number of
+ * values as an int followed by the values as shorts. EMC values are stored in
+ * tenths of a percent. They are generated from the JSON arrays in src/tables
+ * by the Gradle task generateTables.
+ *
+ * @author helfrich
+ */
+final class Tables {
+
+    private Tables() {
+    }
+
+    /**
+     *
+     * @return Preservation Index table, the mold section starts at offset 8010
+     */
+    static int[] pi() {
+        return Pi.TABLE;
+    }
+
+    /**
+     *
+     * @return Equilibrium Moisture Content table
+     */
+    static float[] emc() {
+        return Emc.TABLE;
+    }
+
+    private static final class Pi {
+
+        static final int[] TABLE;
+
+        static {
+            short[] values = read("pi.bin");
+            TABLE = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                TABLE[i] = values[i];
+            }
+        }
+    }
+
+    private static final class Emc {
+
+        static final float[] TABLE;
+
+        static {
+            short[] values = read("emc.bin");
+            TABLE = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                TABLE[i] = values[i] / 10F;
+            }
+        }
+    }
+
+    private static short[] read(String name) {
+        InputStream is = Tables.class.getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            throw new IllegalStateException("Missing resource " + name);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            short[] values = new short[in.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = in.readShort();
+            }
+            return values;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+/**
+ * Time-Weighted Preservation Index (TWPI) accumulator. The temperature is
+ * lagged by a 24-hour and the relative humidity by a 30-day moving average
+ * before the Preservation Index is looked up, and every interval between two
+ * samples is weighted by the reciprocal of the Preservation Index in effect
+ * during it. Each sample costs constant time and memory. Not thread safe.
+ *
+ * @see
+ * <a href="https://s3.cad.rit.edu/ipi-assets/publications/understanding_preservation_metrics.pdf">Preservation
+ * Metrics</a>
+ * @author helfrich
+ */
+public class TimeWeightedPreservationIndex {
+
+    private final Metrics metrics;
+
+    private final MovingAverage temperature = new MovingAverage(Metrics.DAY, 24);
+    private final MovingAverage relativeHumidity = new MovingAverage(30 * Metrics.DAY, 30);
+
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int preservationIndex;
+    private double time;
+    private double weightedTime;
+
+    /**
+     *
+     * @param metrics metrics
+     */
+    public TimeWeightedPreservationIndex(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Add a sample. Samples may be irregularly spaced but must be in
+     * chronological order.
+     *
+     * @param timestamp time (ms)
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @return TWPI up to this sample
+     */
+    public double add(long timestamp, double temperature, double relativeHumidity) {
+        long interval = 0;
+        if (lastTimestamp != Long.MIN_VALUE) {
+            interval = timestamp - lastTimestamp;
+            if (interval < 0) {
+                throw new IllegalArgumentException("Samples out of order!");
+            }
+            time += interval;
+            weightedTime += interval / (double) preservationIndex;
+        }
+        lastTimestamp = timestamp;
+        double weight = Math.max(interval, 1);
+        this.temperature.add(timestamp, temperature, weight);
+        this.relativeHumidity.add(timestamp, relativeHumidity, weight);
+        preservationIndex = metrics.preservationIndex(this.temperature.getAverage(), this.relativeHumidity.getAverage());
+        return getTimeWeightedPreservationIndex();
+    }
+
+    /**
+     *
+     * @return TWPI, the current Preservation Index if less than one interval
+     * has been recorded, NaN if there are no samples
+     */
+    public double getTimeWeightedPreservationIndex() {
+        if (time > 0) {
+            return time / weightedTime;
+        }
+        return lastTimestamp == Long.MIN_VALUE ? Double.NaN : preservationIndex;
+    }
+
+    /**
+     *
+     * @return Preservation Index for the lagged temperature and relative
+     * humidity of the last sample
+     */
+    public int getPreservationIndex() {
+        return preservationIndex;
+    }
+
+    /**
+     *
+     * @return lagged (24-hour average) temperature, deg. C
+     */
+    public double getLaggedTemperature() {
+        return temperature.getAverage();
+    }
+
+    /**
+     *
+     * @return lagged (30-day average) relative humidity, %
+     */
+    public double getLaggedRelativeHumidity() {
+        return relativeHumidity.getAverage();
+    }
+
+}
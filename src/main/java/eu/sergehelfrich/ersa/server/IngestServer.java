@@ -0,0 +1,546 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.server;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Scale;
+import eu.sergehelfrich.ersa.fleet.SensorFleet;
+import eu.sergehelfrich.ersa.fleet.SensorSnapshot;
+import eu.sergehelfrich.ersa.flow.Reading;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local server for sensor readings over HTTP and UDP. Readings are lines of
+ * sensor ID, timestamp (ms), temperature (deg. C) and relative humidity (%),
+ * comma separated.
+ *
+ * <ul>
+ * <li>{@code POST /readings} adds the readings of the body to the fleet and
+ * answers with one line per reading of sensor ID, timestamp, dew point
+ * (deg. C), status, Preservation Index, mold score, EMC (%) and the natural
+ * aging, mold, mechanical damage and metal corrosion risks. A malformed line
+ * rejects the whole request. Readings older than the last reading of their
+ * sensor are answered but not added.</li>
+ * <li>{@code GET /sensors/{id}} answers with the snapshot of a sensor.</li>
+ * <li>A UDP datagram adds its readings to the fleet without an answer;
+ * malformed lines are counted and skipped.</li>
+ * </ul>
+ *
+ * <p>
+ * Every HTTP connection is served by a thread of its own, a virtual thread on
+ * Java 21 and later, so idle keep-alive connections only cost their socket.
+ * On older versions the threads come from a cached pool of platform threads.
+ * The server supports the subset of HTTP/1.1 that gateways use: requests with
+ * a Content-Length, keep-alive and pipelining, no chunked bodies.
+ *
+ * @author helfrich
+ */
+public class IngestServer implements Closeable {
+
+    /**
+     * Largest request line or header line (bytes)
+     */
+    static final int MAX_LINE = 8192;
+
+    /**
+     * Largest request body (bytes)
+     */
+    static final int MAX_BODY = 1 << 20;
+
+    /**
+     * Largest UDP datagram (bytes)
+     */
+    static final int MAX_DATAGRAM = 65507;
+
+    private static final String READINGS = "/readings";
+    private static final String SENSORS = "/sensors/";
+
+    private final Dew dew;
+    private final Metrics metrics;
+    private final SensorFleet fleet;
+    private final ExecutorService executor = newExecutor();
+    private final Set<Closeable> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder readings = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Server adding the readings to a fleet of its own
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     */
+    public IngestServer(Dew dew, Metrics metrics) {
+        this(dew, metrics, new SensorFleet(dew, metrics));
+    }
+
+    /**
+     *
+     * @param dew dew point calculator
+     * @param metrics metrics
+     * @param fleet fleet the readings are added to
+     */
+    public IngestServer(Dew dew, Metrics metrics, SensorFleet fleet) {
+        this.dew = dew;
+        this.metrics = metrics;
+        this.fleet = fleet;
+    }
+
+    /**
+     *
+     * @return true if the connections are served by virtual threads
+     */
+    public static boolean isVirtual() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        ExecutorService executor = virtualExecutor();
+        return executor != null ? executor : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ersa-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService virtualExecutor() {
+        try {
+            // Java 21, looked up reflectively to keep the Java 11 baseline
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start accepting HTTP connections
+     *
+     * @param address address to bind, port 0 for any free port
+     * @return bound address
+     * @throws IOException if the address cannot be bound
+     */
+    public InetSocketAddress startHttp(InetSocketAddress address) throws IOException {
+        ServerSocket server = new ServerSocket();
+        register(server);
+        server.bind(address, 1024);
+        start(() -> accept(server));
+        return (InetSocketAddress) server.getLocalSocketAddress();
+    }
+
+    /**
+     * Start receiving UDP datagrams
+     *
+     * @param address address to bind, port 0 for any free port
+     * @return bound address
+     * @throws IOException if the address cannot be bound
+     */
+    public InetSocketAddress startUdp(InetSocketAddress address) throws IOException {
+        DatagramSocket socket = new DatagramSocket(null);
+        register(socket);
+        socket.bind(address);
+        start(() -> receive(socket));
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    /**
+     *
+     * @return fleet the readings are added to
+     */
+    public SensorFleet getFleet() {
+        return fleet;
+    }
+
+    /**
+     *
+     * @return number of open HTTP connections
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     *
+     * @return number of readings added to the fleet
+     */
+    public long getReadingCount() {
+        return readings.sum();
+    }
+
+    /**
+     *
+     * @return number of readings not added to the fleet: malformed lines of
+     * UDP datagrams and readings older than the last one of their sensor
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stop the server and close all connections
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Closeable socket : sockets) {
+            closeQuietly(socket);
+        }
+        executor.shutdownNow();
+    }
+
+    private void register(Closeable socket) throws IOException {
+        sockets.add(socket);
+        if (closed) {
+            sockets.remove(socket);
+            socket.close();
+            throw new IOException("Server is closed!");
+        }
+    }
+
+    private void start(Runnable task) throws IOException {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Server is closed!", e);
+        }
+    }
+
+    private void accept(ServerSocket server) {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (server.isClosed()) {
+                    return;
+                }
+                continue;
+            }
+            sockets.add(socket);
+            connections.incrementAndGet();
+            try {
+                executor.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                disconnect(socket);
+            }
+            if (closed) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (InputStream in = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            try {
+                while (exchange(in, out)) {
+                    // flush once the pipelined requests have been answered
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (RuntimeException e) {
+                respond(out, 500, "Internal Server Error", "text/plain", "Internal Server Error\n", false);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // closed by the client or the server
+        } finally {
+            disconnect(socket);
+        }
+    }
+
+    private void disconnect(Socket socket) {
+        closeQuietly(socket);
+        if (sockets.remove(socket)) {
+            connections.decrementAndGet();
+        }
+    }
+
+    /**
+     * Answer one request
+     *
+     * @return true if the connection is kept alive
+     */
+    private boolean exchange(InputStream in, OutputStream out) throws IOException {
+        String requestLine;
+        try {
+            do {
+                requestLine = readLine(in);
+                if (requestLine == null) {
+                    return false;
+                }
+            } while (requestLine.isEmpty());
+            String[] request = requestLine.split(" ");
+            if (request.length != 3 || !request[2].startsWith("HTTP/1.")) {
+                throw new HttpException(400, "Bad Request");
+            }
+            boolean keepAlive = request[2].equals("HTTP/1.1");
+            long contentLength = 0;
+            String line;
+            while (!(line = nextHeader(in)).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    throw new HttpException(400, "Bad Request");
+                }
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                if (name.equals("content-length")) {
+                    try {
+                        contentLength = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new HttpException(400, "Bad Request");
+                    }
+                } else if (name.equals("transfer-encoding")) {
+                    throw new HttpException(411, "Length Required");
+                } else if (name.equals("connection")) {
+                    keepAlive = value.equalsIgnoreCase("keep-alive")
+                            || keepAlive && !value.equalsIgnoreCase("close");
+                }
+            }
+            if (contentLength < 0 || contentLength > MAX_BODY) {
+                throw new HttpException(413, "Payload Too Large");
+            }
+            byte[] body = in.readNBytes((int) contentLength);
+            if (body.length < contentLength) {
+                throw new HttpException(400, "Bad Request");
+            }
+            route(request[0], request[1], new String(body, StandardCharsets.UTF_8), out, keepAlive);
+            return keepAlive;
+        } catch (HttpException e) {
+            // the rest of the request cannot be skipped reliably
+            respond(out, e.status, e.getMessage(), "text/plain", e.getMessage() + "\n", false);
+            return false;
+        }
+    }
+
+    private void route(String method, String target, String body, OutputStream out, boolean keepAlive) throws IOException {
+        int query = target.indexOf('?');
+        String path = query < 0 ? target : target.substring(0, query);
+        if (path.equals(READINGS)) {
+            if (!method.equals("POST")) {
+                respond(out, 405, "Method Not Allowed", "text/plain", "POST only\n", keepAlive);
+                return;
+            }
+            List<Reading> parsed;
+            try {
+                parsed = ReadingFormat.parseLines(body);
+            } catch (IllegalArgumentException e) {
+                respond(out, 400, "Bad Request", "text/plain", e.getMessage() + "\n", keepAlive);
+                return;
+            }
+            respond(out, 200, "OK", "text/csv", enrich(parsed), keepAlive);
+        } else if (path.startsWith(SENSORS) && path.length() > SENSORS.length()) {
+            if (!method.equals("GET")) {
+                respond(out, 405, "Method Not Allowed", "text/plain", "GET only\n", keepAlive);
+                return;
+            }
+            String sensorId;
+            try {
+                sensorId = URLDecoder.decode(path.substring(SENSORS.length()), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                respond(out, 400, "Bad Request", "text/plain", "Malformed sensor ID\n", keepAlive);
+                return;
+            }
+            SensorSnapshot snapshot = fleet.snapshot(sensorId);
+            if (snapshot == null) {
+                respond(out, 404, "Not Found", "text/plain", "Unknown sensor\n", keepAlive);
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            ReadingFormat.append(text, snapshot);
+            respond(out, 200, "OK", "text/csv", text.toString(), keepAlive);
+        } else {
+            respond(out, 404, "Not Found", "text/plain", "Not found\n", keepAlive);
+        }
+    }
+
+    private String enrich(List<Reading> parsed) {
+        int size = parsed.size();
+        double[] temperature = new double[size];
+        double[] relativeHumidity = new double[size];
+        for (int i = 0; i < size; i++) {
+            Reading reading = parsed.get(i);
+            temperature[i] = reading.getTemperature();
+            relativeHumidity[i] = reading.getRelativeHumidity();
+            store(reading);
+        }
+        double[] dewPoint = new double[size];
+        int[] status = new int[size];
+        int[] preservationIndex = new int[size];
+        int[] mold = new int[size];
+        float[] emc = new float[size];
+        dew.dewPoint(relativeHumidity, temperature, Scale.CELSIUS, dewPoint, status);
+        metrics.preservationIndex(temperature, relativeHumidity, preservationIndex);
+        metrics.mold(temperature, relativeHumidity, mold);
+        metrics.emc(temperature, relativeHumidity, emc);
+        StringBuilder text = new StringBuilder(size * 80);
+        for (int i = 0; i < size; i++) {
+            ReadingFormat.append(text, parsed.get(i), dewPoint[i], status[i], preservationIndex[i], mold[i], emc[i],
+                    metrics.naturalAging(preservationIndex[i]), metrics.moldRisk(mold[i]),
+                    metrics.mechanicalDamage(emc[i]), metrics.metalCorrosion(emc[i]));
+        }
+        return text.toString();
+    }
+
+    private static void respond(OutputStream out, int status, String reason, String contentType, String body,
+            boolean keepAlive) throws IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + status + " " + reason + "\r\n"
+                + "Content-Type: " + contentType + "; charset=utf-8\r\n"
+                + "Content-Length: " + content.length + "\r\n"
+                // explicit for HTTP/1.0 clients, which otherwise wait for the close
+                + (keepAlive ? "Connection: keep-alive\r\n" : "Connection: close\r\n")
+                + "\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(content);
+    }
+
+    /**
+     * Read a header line; the stream must not end within the header
+     *
+     * @return line without the terminator, empty at the end of the header
+     */
+    private static String nextHeader(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (line == null) {
+            throw new HttpException(400, "Bad Request");
+        }
+        return line;
+    }
+
+    /**
+     * Read a line terminated by LF or CRLF
+     *
+     * @return line without the terminator, null at the end of the stream
+     * before the first byte
+     * @throws HttpException 400 at the end of the stream within the line
+     */
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                if (line.size() == 0) {
+                    return null;
+                }
+                throw new HttpException(400, "Bad Request");
+            }
+            if (line.size() >= MAX_LINE) {
+                throw new HttpException(431, "Request Header Fields Too Large");
+            }
+            line.write(b);
+        }
+        int length = line.size();
+        byte[] bytes = line.toByteArray();
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private void receive(DatagramSocket socket) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!closed) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    return;
+                }
+                continue;
+            }
+            String text = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+            for (String line : text.split("\r?\n")) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Reading reading;
+                try {
+                    reading = ReadingFormat.parse(line);
+                } catch (IllegalArgumentException e) {
+                    rejected.increment();
+                    continue;
+                }
+                store(reading);
+            }
+        }
+    }
+
+    private void store(Reading reading) {
+        try {
+            fleet.add(reading.getSensorId(), reading.getTimestamp(), reading.getTemperature(),
+                    reading.getRelativeHumidity());
+            readings.increment();
+        } catch (IllegalArgumentException e) {
+            // older than the last reading of the sensor
+            rejected.increment();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    private static class HttpException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpException(int status, String reason) {
+            super(reason);
+            this.status = status;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.server;
+
+import eu.sergehelfrich.ersa.fleet.SensorSnapshot;
+import eu.sergehelfrich.ersa.flow.Reading;
+import eu.sergehelfrich.ersa.preservation.Risk;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text format of the server: one reading or result per line, comma
+ * separated
+ *
+ * @author helfrich
+ */
+final class ReadingFormat {
+
+    private ReadingFormat() {
+    }
+
+    /**
+     * Parse a reading of sensor ID, timestamp (ms), temperature (deg. C) and
+     * relative humidity (%). Temperature and relative humidity must be finite
+     * and the relative humidity must not be negative.
+     *
+     * @param line line without the line terminator
+     * @return reading
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static Reading parse(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 4 || fields[0].trim().isEmpty()) {
+            throw new IllegalArgumentException("Malformed reading: " + line);
+        }
+        long timestamp = Long.parseLong(fields[1].trim());
+        double temperature = Double.parseDouble(fields[2].trim());
+        double relativeHumidity = Double.parseDouble(fields[3].trim());
+        if (!Double.isFinite(temperature) || !Double.isFinite(relativeHumidity) || relativeHumidity < 0) {
+            throw new IllegalArgumentException("Malformed reading: " + line);
+        }
+        return new Reading(fields[0].trim(), timestamp, temperature, relativeHumidity);
+    }
+
+    /**
+     * Parse readings, one per line. Blank lines are skipped.
+     *
+     * @param text lines
+     * @return readings
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    static List<Reading> parseLines(String text) {
+        List<Reading> readings = new ArrayList<>();
+        for (String line : text.split("\r?\n")) {
+            if (!line.trim().isEmpty()) {
+                readings.add(parse(line));
+            }
+        }
+        return readings;
+    }
+
+    /**
+     * Append a result line of sensor ID, timestamp, dew point (deg. C),
+     * status, Preservation Index, mold score, EMC (%) and the natural aging,
+     * mold, mechanical damage and metal corrosion risks
+     */
+    static void append(StringBuilder out, Reading reading, double dewPoint, int status, int preservationIndex,
+            int mold, float emc, Risk naturalAging, Risk moldRisk, Risk mechanicalDamage, Risk metalCorrosion) {
+        out.append(reading.getSensorId()).append(',').append(reading.getTimestamp()).append(',')
+                .append(dewPoint).append(',').append(status).append(',')
+                .append(preservationIndex).append(',').append(mold).append(',').append(emc).append(',')
+                .append(naturalAging).append(',').append(moldRisk).append(',')
+                .append(mechanicalDamage).append(',').append(metalCorrosion).append('\n');
+    }
+
+    /**
+     * Append a snapshot line of sensor ID, count, timestamp, temperature,
+     * relative humidity, dew point, Preservation Index, Time-Weighted
+     * Preservation Index, mold score, mold risk factor, EMC and the natural
+     * aging, mold, mechanical damage and metal corrosion risks
+     */
+    static void append(StringBuilder out, SensorSnapshot snapshot) {
+        out.append(snapshot.getSensorId()).append(',').append(snapshot.getCount()).append(',')
+                .append(snapshot.getTimestamp()).append(',').append(snapshot.getTemperature()).append(',')
+                .append(snapshot.getRelativeHumidity()).append(',').append(snapshot.getDewPoint()).append(',')
+                .append(snapshot.getPreservationIndex()).append(',')
+                .append(snapshot.getTimeWeightedPreservationIndex()).append(',').append(snapshot.getMold()).append(',')
+                .append(snapshot.getMoldRiskFactor()).append(',').append(snapshot.getEmc()).append(',')
+                .append(snapshot.getNaturalAging()).append(',').append(snapshot.getMoldRisk()).append(',')
+                .append(snapshot.getMechanicalDamage()).append(',').append(snapshot.getMetalCorrosion()).append('\n');
+    }
+
+}
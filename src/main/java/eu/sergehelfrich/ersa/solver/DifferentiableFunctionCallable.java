@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+/**
+ * Function with analytic derivatives. The function value is passed to the
+ * derivatives so that they can reuse it instead of evaluating f again.
+ *
+ * @author helfrich
+ */
+public interface DifferentiableFunctionCallable extends FunctionCallable {
+
+    /**
+     *
+     * @param x x
+     * @param y f(x)
+     * @return f'(x)
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
+     */
+    public double derivative(double x, double y) throws SolverException;
+
+    /**
+     * Second derivative, NaN if not available.
+     *
+     * @param x x
+     * @param y f(x)
+     * @param dy f'(x)
+     * @return f''(x)
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
+     */
+    public default double secondDerivative(double x, double y, double dy) throws SolverException {
+        return Double.NaN;
+    }
+
+    /**
+     * f(x) and its derivatives in one pass. Implementations can override this
+     * to share the intermediate results of f with the derivatives; the
+     * default calls {@link #function(double)}, {@link #derivative(double,
+     * double)} and {@link #secondDerivative(double, double, double)}.
+     *
+     * @param x x
+     * @param order 1 for f'(x), 2 for f'(x) and f''(x)
+     * @param values f(x), f'(x) and, for order 2, f''(x), output
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
+     */
+    public default void evaluate(double x, int order, double[] values) throws SolverException {
+        double y = function(x);
+        double dy = derivative(x, y);
+        values[0] = y;
+        values[1] = dy;
+        if (order > 1) {
+            values[2] = secondDerivative(x, y, dy);
+        }
+    }
+
+}
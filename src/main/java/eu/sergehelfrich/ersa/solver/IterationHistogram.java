@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of solver iteration counts. Can be shared between threads.
+ *
+ * @author helfrich
+ */
+public class IterationHistogram {
+
+    private final AtomicLongArray counts;
+
+    /**
+     * Histogram for up to 64 iterations
+     */
+    public IterationHistogram() {
+        this(64);
+    }
+
+    /**
+     *
+     * @param maxIterations largest iteration count recorded exactly, larger
+     * counts are recorded as maxIterations
+     */
+    public IterationHistogram(int maxIterations) {
+        counts = new AtomicLongArray(maxIterations + 1);
+    }
+
+    /**
+     *
+     * @param iterations iteration count
+     */
+    public void record(int iterations) {
+        counts.incrementAndGet(Math.max(0, Math.min(counts.length() - 1, iterations)));
+    }
+
+    /**
+     *
+     * @param result solver result
+     */
+    public void record(SolverResult result) {
+        record(result.getIterations());
+    }
+
+    /**
+     *
+     * @return number of recorded results
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     *
+     * @param iterations iteration count
+     * @return number of results with the iteration count
+     */
+    public long getCount(int iterations) {
+        return iterations < 0 || iterations >= counts.length() ? 0 : counts.get(iterations);
+    }
+
+    /**
+     *
+     * @param percentile percentile, 0..100
+     * @return smallest iteration count that at least the given percentage of
+     * the results did not exceed, -1 if empty
+     */
+    public int getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= rank) {
+                return i;
+            }
+        }
+        return counts.length() - 1;
+    }
+
+    /**
+     *
+     * @return largest recorded iteration count, -1 if empty
+     */
+    public int getMax() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * @return mean iteration count, NaN if empty
+     */
+    public double getMean() {
+        long total = 0;
+        long sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+            sum += i * counts.get(i);
+        }
+        return total == 0 ? Double.NaN : (double) sum / total;
+    }
+
+    /**
+     * Iteration counts and their frequencies, one per line
+     *
+     * @return histogram
+     */
+    @Override
+    public String toString() {
+        StringBuilder histogram = new StringBuilder();
+        for (int i = 0; i < counts.length(); i++) {
+            if (counts.get(i) > 0) {
+                histogram.append(i).append('\t').append(counts.get(i)).append('\n');
+            }
+        }
+        return histogram.toString();
+    }
+
+}
@@ -23,6 +23,16 @@ package eu.sergehelfrich.ersa.solver;
  */
 public class Solver {
 
+    private static final int MAX_COUNT = 10;
+
+    /**
+     * Iterations of the bracketed solver before it falls back to pure
+     * bisection
+     */
+    private static final int BRACKETED_NEWTON_COUNT = 12;
+
+    private static final double TOLERANCE = 0.0001;
+
     /**
      * Newton's Method to solve f(x)=y for x with an initial guess of x0.
      *
@@ -33,23 +43,288 @@ public class Solver {
      * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
      */
     public double solve(FunctionCallable functionCallable, double y, double x0) throws SolverException, IllegalArgumentException {
+        return checked(solve(functionCallable, y, x0, new SolverResult()));
+    }
+
+    /**
+     * Newton's Method to solve f(x)=y for x with an initial guess of x0
+     * without throwing. A NaN function value ends the iteration with
+     * {@link Status#OUT_OF_RANGE}, a SolverException thrown by the function
+     * with {@link Status#NO_CONVERGENCE}.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @param result status and iteration count, output
+     * @return x x, NaN if the status is not OK
+     */
+    public double solve(FunctionCallable functionCallable, double y, double x0, SolverResult result) {
 
         double x = x0;
         double xNew;
-        double maxCount = 10;
-        double count = 0;
-        while (true) {
-            if (count > maxCount) {
-                throw new SolverException("Solver does not converge!");
+        int count = 0;
+        try {
+            while (true) {
+                if (count > MAX_COUNT) {
+                    return result.set(Status.NO_CONVERGENCE, count, Double.NaN);
+                }
+                double dx = x / 1000.0;
+                double z = functionCallable.function(x);
+                xNew = x + dx * (y - z) / (functionCallable.function(x + dx) - z);
+                if (Double.isNaN(xNew)) {
+                    return result.set(Status.OUT_OF_RANGE, count + 1, Double.NaN);
+                }
+                if (Math.abs((xNew - x) / xNew) < 0.0001) {
+                    return result.set(Status.OK, count + 1, xNew);
+                }
+                x = xNew;
+                count++;
             }
-            double dx = x / 1000.0;
-            double z = functionCallable.function(x);
-            xNew = x + dx * (y - z) / (functionCallable.function(x + dx) - z);
-            if (Math.abs((xNew - x) / xNew) < 0.0001) {
-                return xNew;
+        } catch (SolverException ex) {
+            return result.set(Status.NO_CONVERGENCE, count + 1, Double.NaN);
+        }
+    }
+
+    /**
+     * Newton's Method with an analytic derivative to solve f(x)=y for x with
+     * an initial guess of x0.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @return x x
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
+     */
+    public double solveNewton(DifferentiableFunctionCallable functionCallable, double y, double x0) throws SolverException, IllegalArgumentException {
+        return checked(solveNewton(functionCallable, y, x0, new SolverResult()));
+    }
+
+    /**
+     * Newton's Method with an analytic derivative to solve f(x)=y for x with
+     * an initial guess of x0 without throwing.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @param result status and iteration count, output
+     * @return x x, NaN if the status is not OK
+     * @see #solve(FunctionCallable, double, double, SolverResult)
+     */
+    public double solveNewton(DifferentiableFunctionCallable functionCallable, double y, double x0, SolverResult result) {
+
+        double x = x0;
+        double xNew;
+        double[] values = result.values();
+        int count = 0;
+        try {
+            while (true) {
+                if (count > MAX_COUNT) {
+                    return result.set(Status.NO_CONVERGENCE, count, Double.NaN);
+                }
+                functionCallable.evaluate(x, 1, values);
+                xNew = x - (values[0] - y) / values[1];
+                if (Double.isNaN(xNew)) {
+                    return result.set(Status.OUT_OF_RANGE, count + 1, Double.NaN);
+                }
+                if (Math.abs((xNew - x) / xNew) < 0.0001) {
+                    return result.set(Status.OK, count + 1, xNew);
+                }
+                x = xNew;
+                count++;
             }
-            x = xNew;
-            count++;
+        } catch (SolverException ex) {
+            return result.set(Status.NO_CONVERGENCE, count + 1, Double.NaN);
+        }
+    }
+
+    /**
+     * Halley's Method to solve f(x)=y for x with an initial guess of x0. Falls
+     * back to a Newton step where the second derivative is not available.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @return x x
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not converge
+     */
+    public double solveHalley(DifferentiableFunctionCallable functionCallable, double y, double x0) throws SolverException, IllegalArgumentException {
+        return checked(solveHalley(functionCallable, y, x0, new SolverResult()));
+    }
+
+    /**
+     * Halley's Method to solve f(x)=y for x with an initial guess of x0
+     * without throwing.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @param result status and iteration count, output
+     * @return x x, NaN if the status is not OK
+     * @see #solve(FunctionCallable, double, double, SolverResult)
+     */
+    public double solveHalley(DifferentiableFunctionCallable functionCallable, double y, double x0, SolverResult result) {
+
+        double x = x0;
+        double xNew;
+        double[] values = result.values();
+        int count = 0;
+        try {
+            while (true) {
+                if (count > MAX_COUNT) {
+                    return result.set(Status.NO_CONVERGENCE, count, Double.NaN);
+                }
+                functionCallable.evaluate(x, 2, values);
+                double dz = values[1];
+                double ddz = values[2];
+                double g = values[0] - y;
+                if (Double.isNaN(ddz)) {
+                    xNew = x - g / dz;
+                } else {
+                    xNew = x - 2 * g * dz / (2 * dz * dz - g * ddz);
+                }
+                if (Double.isNaN(xNew)) {
+                    return result.set(Status.OUT_OF_RANGE, count + 1, Double.NaN);
+                }
+                if (Math.abs((xNew - x) / xNew) < 0.0001) {
+                    return result.set(Status.OK, count + 1, xNew);
+                }
+                x = xNew;
+                count++;
+            }
+        } catch (SolverException ex) {
+            return result.set(Status.NO_CONVERGENCE, count + 1, Double.NaN);
+        }
+    }
+
+    /**
+     * Newton's Method safeguarded by bisection to solve f(x)=y for x within
+     * [lower, upper], for f increasing on the bracket.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0
+     * @param lower lower end of the bracket
+     * @param upper upper end of the bracket
+     * @return x x
+     * @throws eu.sergehelfrich.ersa.solver.SolverException Solver does not
+     * converge
+     * @see #solveBracketed(DifferentiableFunctionCallable, double, double,
+     * double, double, SolverResult)
+     */
+    public double solveBracketed(DifferentiableFunctionCallable functionCallable, double y, double x0,
+            double lower, double upper) throws SolverException {
+        return checked(solveBracketed(functionCallable, y, x0, lower, upper, new SolverResult()));
+    }
+
+    /**
+     * Newton's Method safeguarded by bisection to solve f(x)=y for x within
+     * [lower, upper], for f increasing on the bracket, without throwing. Every
+     * evaluation narrows the bracket; a Newton step that leaves the bracket or
+     * does not at least halve the step of two iterations before is replaced
+     * by a bisection, and after {@value #BRACKETED_NEWTON_COUNT} iterations
+     * the solver only bisects. It therefore converges within
+     * {@link #getBracketedBudget(double, double)} iterations, even where f is
+     * discontinuous. If there is no root in the bracket the status is
+     * {@link Status#OUT_OF_RANGE}.
+     *
+     * @param functionCallable f(x)=y
+     * @param y y
+     * @param x0 x0, clamped to the bracket
+     * @param lower lower end of the bracket
+     * @param upper upper end of the bracket
+     * @param result status and iteration count, output
+     * @return x x, NaN if the status is not OK
+     */
+    public double solveBracketed(DifferentiableFunctionCallable functionCallable, double y, double x0,
+            double lower, double upper, SolverResult result) {
+
+        double low = lower;
+        double high = upper;
+        double x = Math.max(lower, Math.min(upper, x0));
+        double step = upper - lower;
+        double previousStep = step;
+        boolean below = false;
+        boolean above = false;
+        int budget = getBracketedBudget(lower, upper);
+        double[] values = result.values();
+        int count = 0;
+        try {
+            while (true) {
+                if (count >= budget) {
+                    return result.set(Status.NO_CONVERGENCE, count, Double.NaN);
+                }
+                // the derivative is only needed while Newton steps are taken
+                if (count < BRACKETED_NEWTON_COUNT) {
+                    functionCallable.evaluate(x, 1, values);
+                } else {
+                    values[0] = functionCallable.function(x);
+                }
+                double g = values[0] - y;
+                count++;
+                if (Double.isNaN(g)) {
+                    return result.set(Status.OUT_OF_RANGE, count, Double.NaN);
+                } else if (g < 0) {
+                    low = x;
+                    below = true;
+                } else if (g > 0) {
+                    high = x;
+                    above = true;
+                } else {
+                    return result.set(Status.OK, count, x);
+                }
+                double xNew = Double.NaN;
+                if (count <= BRACKETED_NEWTON_COUNT) {
+                    xNew = x - g / values[1];
+                    // a step beyond an end that was never evaluated evaluates the end, where the root may be
+                    if (!below && xNew < lower) {
+                        xNew = lower;
+                    } else if (!above && xNew > upper) {
+                        xNew = upper;
+                    }
+                }
+                double stepBefore = previousStep;
+                previousStep = step;
+                if ((xNew > low || !below && xNew == lower) && (xNew < high || !above && xNew == upper)
+                        && Math.abs(xNew - x) <= 0.5 * Math.abs(stepBefore)) {
+                    step = xNew - x;
+                } else {
+                    xNew = 0.5 * (low + high);
+                    step = 0.5 * (high - low);
+                }
+                if (Math.abs(xNew - x) < TOLERANCE * Math.abs(xNew) || high - low < TOLERANCE * Math.abs(xNew)) {
+                    // converging on an end that was never evaluated: the root may lie beyond it
+                    if (!below && xNew - lower < TOLERANCE * Math.abs(xNew) && functionCallable.function(lower) > y
+                            || !above && upper - xNew < TOLERANCE * Math.abs(xNew) && functionCallable.function(upper) < y) {
+                        return result.set(Status.OUT_OF_RANGE, count, Double.NaN);
+                    }
+                    return result.set(Status.OK, count, xNew);
+                }
+                x = xNew;
+            }
+        } catch (SolverException ex) {
+            return result.set(Status.NO_CONVERGENCE, count, Double.NaN);
+        }
+    }
+
+    /**
+     * Worst-case iteration count of the bracketed solver, 28 for the
+     * temperature range of {@link eu.sergehelfrich.ersa.Temperature}
+     *
+     * @param lower lower end of the bracket
+     * @param upper upper end of the bracket
+     * @return iterations
+     */
+    public static int getBracketedBudget(double lower, double upper) {
+        // bisections until the bracket is narrower than the tolerance at its smallest magnitude
+        double tolerance = TOLERANCE * Math.max(Math.abs(lower), Double.MIN_NORMAL);
+        double bisections = Math.ceil((Math.log(upper - lower) - Math.log(tolerance)) / Math.log(2));
+        return BRACKETED_NEWTON_COUNT + 1 + (int) Math.max(0, bisections);
+    }
+
+    private static double checked(double x) throws SolverException {
+        if (Double.isNaN(x)) {
+            throw new SolverException("Solver does not converge!");
         }
+        return x;
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+import eu.sergehelfrich.ersa.instrumentation.Instrumentation;
+
+/**
+ * Status and iteration count of the non-throwing calculation paths. An
+ * instance can be reused for any number of calculations, but not shared
+ * between threads.
+ *
+ * @author helfrich
+ */
+public class SolverResult {
+
+    private int status;
+    private int iterations;
+
+    /**
+     * Function value and derivatives of the solvers, kept here so that a
+     * calculation allocates nothing
+     */
+    private final double[] values = new double[3];
+
+    /**
+     *
+     * @return status code of the last calculation
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     *
+     * @param status status code
+     * @see eu.sergehelfrich.ersa.solver.Status
+     */
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     *
+     * @return number of iterations of the last calculation
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     *
+     * @param iterations number of iterations
+     */
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     *
+     * @return scratch space for f(x), f'(x) and f''(x)
+     */
+    double[] values() {
+        return values;
+    }
+
+    /**
+     *
+     * @param status status code
+     * @param iterations number of iterations
+     * @return NaN if the status is not OK, else the value
+     */
+    double set(int status, int iterations, double value) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.solver(status, iterations);
+        }
+        this.status = status;
+        this.iterations = iterations;
+        return status == Status.OK ? value : Double.NaN;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+/**
+ * Status codes reported by the non-throwing calculation paths
+ *
+ * @author helfrich
+ */
+public final class Status {
+
+    /**
+     * The calculation succeeded
+     */
+    public static final int OK = 0;
+
+    /**
+     * The input or an intermediate value was outside the valid range
+     */
+    public static final int OUT_OF_RANGE = 1;
+
+    /**
+     * The solver did not converge
+     */
+    public static final int NO_CONVERGENCE = 2;
+
+    private Status() {
+    }
+
+}
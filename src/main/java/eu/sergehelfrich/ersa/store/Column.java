@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped column file of 8-byte values. The file starts with a header of
+ * magic number, version and row count, followed by the values in little-endian
+ * order. The mapping grows by doubling; the channel is closed once the file is
+ * mapped, so an open column holds no file descriptor.
+ *
+ * @author helfrich
+ */
+final class Column {
+
+    static final int MAGIC = 0x45525341; // "ERSA"
+    static final int VERSION = 1;
+    static final int HEADER = 16;
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER) / Long.BYTES;
+
+    private static final int COUNT = 8;
+
+    private final Path file;
+    private volatile MappedByteBuffer buffer;
+
+    /**
+     * Open or create a column file
+     *
+     * @param file file
+     * @param initialCapacity capacity (rows) of a new file
+     * @throws IOException if the file cannot be mapped or is not a column file
+     */
+    Column(Path file, int initialCapacity) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                buffer = map(channel, HEADER + (long) initialCapacity * Long.BYTES);
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(COUNT, 0);
+            } else {
+                if (size < HEADER || size > HEADER + (long) MAX_CAPACITY * Long.BYTES) {
+                    throw new IOException("Not a column file: " + file);
+                }
+                buffer = map(channel, size);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || count() > capacity()) {
+                    throw new IOException("Not a column file: " + file);
+                }
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        return mapped;
+    }
+
+    /**
+     *
+     * @return committed row count
+     */
+    long count() {
+        return buffer.getLong(COUNT);
+    }
+
+    void count(long count) {
+        buffer.putLong(COUNT, count);
+    }
+
+    int capacity() {
+        return (buffer.capacity() - HEADER) / Long.BYTES;
+    }
+
+    /**
+     * Grow the mapping to hold at least the given number of rows
+     *
+     * @param rows rows
+     * @throws IOException if the file cannot be mapped
+     */
+    void ensureCapacity(int rows) throws IOException {
+        int capacity = capacity();
+        if (rows <= capacity) {
+            return;
+        }
+        if (rows > MAX_CAPACITY) {
+            throw new IllegalStateException("Column full: " + file);
+        }
+        int grown = (int) Math.min(MAX_CAPACITY, Math.max(rows, 2L * capacity));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = map(channel, HEADER + (long) grown * Long.BYTES);
+        }
+    }
+
+    long getLong(int index) {
+        return buffer.getLong(HEADER + index * Long.BYTES);
+    }
+
+    void putLong(int index, long value) {
+        buffer.putLong(HEADER + index * Long.BYTES, value);
+    }
+
+    void putDouble(int index, double value) {
+        buffer.putDouble(HEADER + index * Long.BYTES, value);
+    }
+
+    /**
+     * Read-only view of a range of rows, sharing the mapped memory
+     *
+     * @param from first row
+     * @param to row after the last
+     * @return view
+     */
+    LongBuffer longs(int from, int to) {
+        return slice(from, to).asLongBuffer();
+    }
+
+    /**
+     * Read-only view of a range of rows, sharing the mapped memory
+     *
+     * @param from first row
+     * @param to row after the last
+     * @return view
+     */
+    DoubleBuffer doubles(int from, int to) {
+        return slice(from, to).asDoubleBuffer();
+    }
+
+    private ByteBuffer slice(int from, int to) {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.limit(HEADER + to * Long.BYTES).position(HEADER + from * Long.BYTES);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Write the mapped pages to the storage device
+     */
+    void force() {
+        buffer.force();
+    }
+
+}
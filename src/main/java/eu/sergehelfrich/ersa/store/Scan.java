@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.store;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Result of a range scan. The buffers are read-only views of the mapped
+ * column files; nothing is copied. They can be passed straight to the
+ * {@link eu.sergehelfrich.ersa.Dew} and
+ * {@link eu.sergehelfrich.ersa.preservation.Metrics} batch methods, e.g.
+ * {@code dew.dewPoint(scan.getRelativeHumidity(), scan.getTemperature(), Scale.CELSIUS, dewPoint, status)}.
+ *
+ * @author helfrich
+ */
+public class Scan {
+
+    static final Scan EMPTY = new Scan(LongBuffer.allocate(0).asReadOnlyBuffer(),
+            DoubleBuffer.allocate(0).asReadOnlyBuffer(), DoubleBuffer.allocate(0).asReadOnlyBuffer());
+
+    private final LongBuffer timestamps;
+    private final DoubleBuffer temperature;
+    private final DoubleBuffer relativeHumidity;
+
+    Scan(LongBuffer timestamps, DoubleBuffer temperature, DoubleBuffer relativeHumidity) {
+        this.timestamps = timestamps;
+        this.temperature = temperature;
+        this.relativeHumidity = relativeHumidity;
+    }
+
+    /**
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return timestamps.limit();
+    }
+
+    /**
+     *
+     * @return timestamps (ms), ascending
+     */
+    public LongBuffer getTimestamps() {
+        return timestamps.duplicate();
+    }
+
+    /**
+     *
+     * @return temperature (deg. C)
+     */
+    public DoubleBuffer getTemperature() {
+        return temperature.duplicate();
+    }
+
+    /**
+     *
+     * @return relative humidity (%)
+     */
+    public DoubleBuffer getRelativeHumidity() {
+        return relativeHumidity.duplicate();
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Timestamp, temperature and relative humidity columns of one sensor. Appends
+ * are serialized; scans are lock-free and see every row whose count was
+ * published before the scan started.
+ *
+ * @author helfrich
+ */
+final class SensorColumns {
+
+    static final int INITIAL_CAPACITY = 4096;
+
+    private final Column timestamps;
+    private final Column temperature;
+    private final Column relativeHumidity;
+
+    /* Published after the values of a row are written */
+    private volatile int size;
+
+    SensorColumns(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        timestamps = new Column(directory.resolve("timestamp.col"), INITIAL_CAPACITY);
+        temperature = new Column(directory.resolve("temperature.col"), INITIAL_CAPACITY);
+        relativeHumidity = new Column(directory.resolve("humidity.col"), INITIAL_CAPACITY);
+        // a row is complete once the timestamp count includes it, which is written last
+        size = (int) Math.min(timestamps.count(), Math.min(temperature.count(), relativeHumidity.count()));
+    }
+
+    synchronized void append(long timestamp, double temperature, double relativeHumidity) throws IOException {
+        int row = size;
+        if (row > 0 && timestamp < timestamps.getLong(row - 1)) {
+            throw new IllegalArgumentException("Samples out of order!");
+        }
+        this.timestamps.ensureCapacity(row + 1);
+        this.temperature.ensureCapacity(row + 1);
+        this.relativeHumidity.ensureCapacity(row + 1);
+        this.timestamps.putLong(row, timestamp);
+        this.temperature.putDouble(row, temperature);
+        this.relativeHumidity.putDouble(row, relativeHumidity);
+        this.temperature.count(row + 1);
+        this.relativeHumidity.count(row + 1);
+        this.timestamps.count(row + 1);
+        size = row + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @param from first timestamp (ms), inclusive
+     * @param to last timestamp (ms), exclusive
+     * @return rows in the range
+     */
+    Scan scan(long from, long to) {
+        int rows = size;
+        int first = lowerBound(from, rows);
+        int last = Math.max(first, lowerBound(to, rows));
+        return new Scan(timestamps.longs(first, last), temperature.doubles(first, last), relativeHumidity.doubles(first, last));
+    }
+
+    private int lowerBound(long timestamp, int rows) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps.getLong(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    void force() {
+        timestamps.force();
+        temperature.force();
+        relativeHumidity.force();
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded append-only store of (timestamp, temperature, relative humidity)
+ * readings per sensor. Each sensor has a directory with one memory-mapped
+ * column file per quantity, so the history lives off the heap and survives a
+ * restart. Range scans return views of the mapped files without copying.
+ *
+ * <p>
+ * Appends are durable against a process crash as soon as they return; call
+ * {@link #flush()} to also write them to the storage device. Readings of one
+ * sensor must be appended in chronological order. Sensor IDs are mapped to
+ * directory names by keeping {@code [a-z0-9_-]} and escaping every other byte
+ * of their UTF-8 form as {@code %XX}, which is safe on case-insensitive file
+ * systems.
+ *
+ * @author helfrich
+ */
+public class TimeSeriesStore implements Closeable {
+
+    private final Path directory;
+    private final ConcurrentHashMap<String, SensorColumns> sensors = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Open or create a store
+     *
+     * @param directory store directory
+     * @throws IOException if the directory cannot be created or read
+     */
+    public TimeSeriesStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path entry : entries) {
+                String sensorId = decode(entry.getFileName().toString());
+                if (sensorId != null) {
+                    sensors.put(sensorId, new SensorColumns(entry));
+                }
+            }
+        }
+    }
+
+    /**
+     * Append a reading
+     *
+     * @param sensorId sensor ID, not empty
+     * @param timestamp time (ms), not before the last reading of the sensor
+     * @param temperature deg. C
+     * @param relativeHumidity %
+     * @throws IOException if the column files cannot be grown
+     */
+    public void append(String sensorId, long timestamp, double temperature, double relativeHumidity) throws IOException {
+        checkOpen();
+        SensorColumns columns = sensors.get(sensorId);
+        if (columns == null) {
+            // an empty ID would map to the store directory itself
+            if (sensorId.isEmpty()) {
+                throw new IllegalArgumentException("Empty sensor ID!");
+            }
+            try {
+                columns = sensors.computeIfAbsent(sensorId, id -> {
+                    try {
+                        return new SensorColumns(directory.resolve(encode(id)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        columns.append(timestamp, temperature, relativeHumidity);
+    }
+
+    /**
+     * Readings of a sensor in a time range
+     *
+     * @param sensorId sensor ID
+     * @param from first timestamp (ms), inclusive
+     * @param to last timestamp (ms), exclusive
+     * @return readings, empty if the sensor is unknown
+     */
+    public Scan scan(String sensorId, long from, long to) {
+        checkOpen();
+        SensorColumns columns = sensors.get(sensorId);
+        return columns == null ? Scan.EMPTY : columns.scan(from, to);
+    }
+
+    /**
+     *
+     * @param sensorId sensor ID
+     * @return number of readings of the sensor
+     */
+    public int size(String sensorId) {
+        SensorColumns columns = sensors.get(sensorId);
+        return columns == null ? 0 : columns.size();
+    }
+
+    /**
+     *
+     * @return sensor IDs, sorted
+     */
+    public Set<String> getSensorIds() {
+        return Collections.unmodifiableSet(new TreeSet<>(sensors.keySet()));
+    }
+
+    /**
+     * Write all appended readings to the storage device
+     */
+    public void flush() {
+        checkOpen();
+        for (SensorColumns columns : sensors.values()) {
+            columns.force();
+        }
+    }
+
+    /**
+     * Flush and close the store. Scans taken before remain readable; the
+     * mappings are released once they are no longer referenced.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+            sensors.clear();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Store closed!");
+        }
+    }
+
+    static String encode(String sensorId) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : sensorId.getBytes(StandardCharsets.UTF_8)) {
+            if (b >= 'a' && b <= 'z' || b >= '0' && b <= '9' || b == '_' || b == '-') {
+                name.append((char) b);
+            } else {
+                name.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return name.toString();
+    }
+
+    /**
+     *
+     * @param name directory name
+     * @return sensor ID, null if the name is not an encoded sensor ID
+     */
+    static String decode(String name) {
+        byte[] bytes = new byte[name.length()];
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '%' && i + 2 < name.length()) {
+                int high = Character.digit(name.charAt(i + 1), 16);
+                int low = Character.digit(name.charAt(i + 2), 16);
+                if (high < 0 || low < 0) {
+                    return null;
+                }
+                bytes[length++] = (byte) (high << 4 | low);
+                i += 2;
+            } else if (c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '_' || c == '-') {
+                bytes[length++] = (byte) c;
+            } else {
+                return null;
+            }
+        }
+        if (length == 0) {
+            return null;
+        }
+        String sensorId = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        // only the canonical encoding names a sensor
+        return encode(sensorId).equals(name) ? sensorId : null;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Saturation vapor pressure kernel on the Vector API, for Java 17 and later
+ * with {@code --add-modules jdk.incubator.vector}. The water formula is
+ * evaluated in the same order as {@link Dew#pvsWater(double)} and gives
+ * identical results; the ice formula uses the vector logarithm and
+ * exponential, which may differ from {@link Math#log(double)} and
+ * {@link Math#exp(double)} in the last bit.
+ *
+ * @author helfrich
+ */
+final class VectorPvsKernel implements PvsKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     *
+     * @throws UnsupportedOperationException the platform has no vectors of
+     * two or more doubles
+     */
+    VectorPvsKernel() throws UnsupportedOperationException {
+        if (SPECIES.length() < 2) {
+            throw new UnsupportedOperationException("No vector support!");
+        }
+    }
+
+    @Override
+    public void pvs(double[] temperature, double[] pressure, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            pvs(DoubleVector.fromArray(SPECIES, temperature, i)).intoArray(pressure, i);
+        }
+        if (i < to) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, to);
+            pvs(DoubleVector.fromArray(SPECIES, temperature, i, tail)).intoArray(pressure, i, tail);
+        }
+    }
+
+    @Override
+    public void pvsWater(double[] temperature, double[] pressure, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            water(DoubleVector.fromArray(SPECIES, temperature, i)).intoArray(pressure, i);
+        }
+        if (i < to) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, to);
+            water(DoubleVector.fromArray(SPECIES, temperature, i, tail)).intoArray(pressure, i, tail);
+        }
+    }
+
+    @Override
+    public void pvsIce(double[] temperature, double[] pressure, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            ice(DoubleVector.fromArray(SPECIES, temperature, i)).intoArray(pressure, i);
+        }
+        if (i < to) {
+            VectorMask<Double> tail = SPECIES.indexInRange(i, to);
+            ice(DoubleVector.fromArray(SPECIES, temperature, i, tail)).intoArray(pressure, i, tail);
+        }
+    }
+
+    private static DoubleVector pvs(DoubleVector temperature) {
+        VectorMask<Double> valid = temperature.compare(VectorOperators.GE, Temperature.MIN)
+                .and(temperature.compare(VectorOperators.LE, Temperature.MAX));
+        VectorMask<Double> ice = temperature.compare(VectorOperators.LT, Temperature.CELSIUS_OFFSET);
+        DoubleVector pressure;
+        // readings are usually all above or all below the melting point
+        if (ice.allTrue()) {
+            pressure = ice(temperature);
+        } else if (!ice.anyTrue()) {
+            pressure = water(temperature);
+        } else {
+            pressure = water(temperature).blend(ice(temperature), ice);
+        }
+        return DoubleVector.broadcast(SPECIES, Double.NaN).blend(pressure, valid);
+    }
+
+    private static DoubleVector water(DoubleVector temperature) {
+        DoubleVector th = temperature.add(DoubleVector.broadcast(SPECIES, Dew.N9).div(temperature.sub(Dew.N10)));
+        DoubleVector a = th.add(Dew.N1).mul(th).add(Dew.N2);
+        DoubleVector b = th.mul(Dew.N3).add(Dew.N4).mul(th).add(Dew.N5);
+        DoubleVector c = th.mul(Dew.N6).add(Dew.N7).mul(th).add(Dew.N8);
+
+        DoubleVector p = c.mul(2).div(b.neg().add(b.mul(b).sub(a.mul(4).mul(c)).lanewise(VectorOperators.SQRT)));
+        p = p.mul(p);
+        p = p.mul(p);
+        return p.mul(1e6);
+    }
+
+    private static DoubleVector ice(DoubleVector temperature) {
+        DoubleVector lnP = DoubleVector.broadcast(SPECIES, Dew.K0).div(temperature).add(Dew.K1)
+                .add(temperature.mul(Dew.K4).add(Dew.K3).mul(temperature).add(Dew.K2).mul(temperature))
+                .add(temperature.lanewise(VectorOperators.LOG).mul(Dew.K5));
+        return lnP.lanewise(VectorOperators.EXP);
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverException;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class DewPointCacheTest {
+
+    private final Dew dew = new Dew();
+
+    public DewPointCacheTest() {
+    }
+
+    /**
+     * Test of dewPoint method, of class DewPointCache.
+     */
+    @Test
+    public void testDewPoint() throws SolverException {
+        System.out.println("dewPoint");
+        DewPointCache cache = new DewPointCache(dew, 1024);
+        double temperature = 20.4 + Temperature.CELSIUS_OFFSET;
+        double expected = dew.dewPoint(50.3, temperature);
+        assertEquals(expected, cache.dewPoint(50.3, temperature), 1e-9);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        SolverResult result = new SolverResult();
+        assertEquals(expected, cache.dewPoint(50.3, temperature, result), 1e-9);
+        assertEquals(Status.OK, result.getStatus());
+        assertEquals(0, result.getIterations());
+        // inputs within half a step share the grid point
+        assertEquals(expected, cache.dewPoint(50.26, temperature + 0.04), 1e-9);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        cache.clear();
+        assertEquals(0, cache.getHits());
+        cache.dewPoint(50.3, temperature);
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Test of dewPoint method for inputs that cannot be cached, of class
+     * DewPointCache.
+     */
+    @Test
+    public void testDewPointOutOfRange() {
+        System.out.println("dewPoint out of range");
+        DewPointCache cache = new DewPointCache(dew, 1024);
+        SolverResult result = new SolverResult();
+        assertTrue(Double.isNaN(cache.dewPoint(50, Temperature.MAX + 10, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+        assertTrue(Double.isNaN(cache.dewPoint(50, Temperature.MAX + 10, result)));
+        assertEquals(0, cache.getHits());
+        assertTrue(Double.isNaN(cache.dewPoint(50, Double.NaN, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+        assertTrue(Double.isNaN(cache.dewPoint(-5, 293.15, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+        assertTrue(Double.isNaN(cache.pvsOrNaN(Double.NaN)));
+        assertTrue(Double.isNaN(cache.pvsOrNaN(Temperature.MIN - 1)));
+    }
+
+    /**
+     * Test of dewPoint method with a temperature out of range, of class
+     * DewPointCache.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDewPointThrows() throws SolverException {
+        System.out.println("dewPoint throws");
+        new DewPointCache(dew, 1024).dewPoint(50, Temperature.MAX + 10);
+    }
+
+    /**
+     * Test of pvs method, of class DewPointCache.
+     */
+    @Test
+    public void testPvs() {
+        System.out.println("pvs");
+        DewPointCache cache = new DewPointCache(dew, 1024, 0.5, 1);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(dew.pvs(-10 + Temperature.CELSIUS_OFFSET), cache.pvs(-10.2 + Temperature.CELSIUS_OFFSET), 1e-9);
+            assertEquals(dew.pvs(20.5 + Temperature.CELSIUS_OFFSET), cache.pvs(20.6 + Temperature.CELSIUS_OFFSET), 1e-9);
+        }
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    /**
+     * Test of eviction, of class DewPointCache.
+     */
+    @Test
+    public void testEviction() {
+        System.out.println("eviction");
+        DewPointCache cache = new DewPointCache(dew, 256);
+        assertEquals(256, cache.getCapacity());
+        SolverResult result = new SolverResult();
+        for (int t = 0; t < 100; t++) {
+            for (int rh = 0; rh < 100; rh++) {
+                cache.dewPoint(10 + rh * 0.5, 273.15 + t * 0.1, result);
+            }
+        }
+        assertEquals(0, cache.getHits());
+        assertEquals(10_000, cache.getMisses());
+        assertTrue(cache.getEvictions() >= 10_000 - cache.getCapacity());
+        // a hot key survives a stream of cold ones
+        double hot = 273.15 + 20;
+        cache.dewPoint(50, hot, result);
+        for (int i = 0; i < 10_000; i++) {
+            cache.dewPoint(50, hot, result);
+            cache.dewPoint(10 + i % 100 * 0.5, 300 + i / 100 * 0.1, result);
+        }
+        assertTrue(cache.getHits() >= 9_000);
+    }
+
+    /**
+     * Test of dewPoint method from several threads, of class DewPointCache.
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        System.out.println("concurrent");
+        DewPointCache cache = new DewPointCache(dew, 512);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                SolverResult result = new SolverResult();
+                for (int i = 0; i < 20_000; i++) {
+                    int k = (i * 31 + seed * 7) % 2000;
+                    double temperature = 263.15 + k % 40;
+                    double relativeHumidity = 20 + k / 40;
+                    double expected = dew.dewPoint(relativeHumidity, temperature, result);
+                    double cached = cache.dewPoint(relativeHumidity, temperature, result);
+                    if (Math.abs(expected - cached) > 1e-9) {
+                        failure.set(temperature + " " + relativeHumidity + ": " + expected + " != " + cached);
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(80_000, cache.getHits() + cache.getMisses());
+    }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class DewPointTableTest {
+
+    private static Dew dew;
+
+    public DewPointTableTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        dew = new Dew();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dew = null;
+    }
+
+    /**
+     * Test of dewPoint method with bilinear interpolation, of class DewPointTable.
+     */
+    @Test
+    public void testDewPointBilinear() throws Exception {
+        System.out.println("dewPoint bilinear");
+        DewPointTable table = new DewPointTable(dew, 263.15, 303.15, 1, 20, 100, 1, Interpolation.BILINEAR);
+        assertEquals(Interpolation.BILINEAR, table.getInterpolation());
+        assertTrue(table.getMaxError() < 0.05);
+        assertEquals(dew.dewPoint(20, 283.15), table.dewPoint(20, 283.15), 1e-9);
+        assertEquals(dew.dewPoint(100, 283.15), table.dewPoint(100, 283.15), 1e-9);
+        assertEquals(dew.dewPoint(62.3, 291.37), table.dewPoint(62.3, 291.37), table.getMaxError());
+    }
+
+    /**
+     * Test of dewPoint method with cubic interpolation, of class DewPointTable.
+     */
+    @Test
+    public void testDewPointCubic() throws Exception {
+        System.out.println("dewPoint cubic");
+        DewPointTable table = new DewPointTable(dew, 263.15, 303.15, 1, 20, 100, 1, Interpolation.CUBIC);
+        assertEquals(dew.dewPoint(62.3, 291.37), table.dewPoint(62.3, 291.37), table.getMaxError());
+    }
+
+    /**
+     * Test of dewPoint method outside the table, of class DewPointTable.
+     */
+    @Test
+    public void testDewPointOutside() {
+        System.out.println("dewPoint outside");
+        DewPointTable table = new DewPointTable(dew, 263.15, 303.15, 1, 20, 100, 1, Interpolation.BILINEAR);
+        assertTrue(Double.isNaN(table.dewPoint(50, 313.15)));
+        assertTrue(Double.isNaN(table.dewPoint(10, 283.15)));
+        assertTrue(Double.isNaN(table.getMaxError(313.15)));
+    }
+
+    /**
+     * Test of getMaxError method, of class DewPointTable.
+     */
+    @Test
+    public void testGetMaxError() {
+        System.out.println("getMaxError");
+        SolverResult result = new SolverResult();
+        for (Interpolation interpolation : Interpolation.values()) {
+            DewPointTable table = new DewPointTable(dew, 263.15, 303.15, 1, 20, 100, 1, interpolation);
+            double max = 0;
+            for (int i = 0; i <= 400; i++) {
+                double temperature = 263.15 + i * 0.1;
+                double bound = table.getMaxError(temperature);
+                assertTrue(bound <= table.getMaxError());
+                for (int j = 0; j <= 800; j++) {
+                    double relativeHumidity = 20 + j * 0.1;
+                    double error = Math.abs(table.dewPoint(relativeHumidity, temperature)
+                            - dew.dewPoint(relativeHumidity, temperature, result));
+                    assertTrue(error <= bound);
+                    max = Math.max(max, error);
+                }
+            }
+            // the bound is not far above the actual error
+            assertTrue(max > table.getMaxError() / 10);
+        }
+    }
+
+    /**
+     * Test of dewPoint method around the melting point, of class
+     * DewPointTable.
+     */
+    @Test
+    public void testDewPointMelting() throws Exception {
+        System.out.println("dewPoint melting");
+        for (Interpolation interpolation : Interpolation.values()) {
+            // the grid is aligned with the melting point
+            DewPointTable table = new DewPointTable(dew, 263.4, 303.15, 1, 20, 100, 1, interpolation);
+            assertEquals(263.15, table.getMinTemperature(), 1e-9);
+            assertEquals(303.15, table.getMaxTemperature(), 1e-9);
+            assertEquals(dew.dewPoint(20, Temperature.CELSIUS_OFFSET),
+                    table.dewPoint(20, Temperature.CELSIUS_OFFSET), 1e-9);
+            assertEquals(dew.dewPoint(20, Math.nextDown(Temperature.CELSIUS_OFFSET)),
+                    table.dewPoint(20, Math.nextDown(Temperature.CELSIUS_OFFSET)), 1e-9);
+            // no overshoot next to it
+            double previous = table.dewPoint(90, 271.15);
+            for (int i = 1; i <= 400; i++) {
+                double dewPoint = table.dewPoint(90, 271.15 + i * 0.01);
+                assertTrue(dewPoint > previous);
+                previous = dewPoint;
+            }
+        }
+    }
+
+    /**
+     * Test of getMinRelativeHumidity method, of class DewPointTable.
+     */
+    @Test
+    public void testGetMinRelativeHumidity() {
+        System.out.println("getMinRelativeHumidity");
+        // the frost point of dry air near Temperature.MIN is below Temperature.MIN
+        DewPointTable table = new DewPointTable(dew, Temperature.MIN, Temperature.MIN + 10, 1, 1, 100, 1,
+                Interpolation.BILINEAR);
+        assertEquals(1, table.getMinRelativeHumidity(), 0);
+        double temperature = Temperature.MIN + 5;
+        double relativeHumidity = table.getMinRelativeHumidity(temperature);
+        assertTrue(relativeHumidity > 1 && relativeHumidity < 100);
+        assertTrue(Double.isNaN(table.dewPoint(relativeHumidity * 0.99, temperature)));
+        assertFalse(Double.isNaN(table.dewPoint(relativeHumidity, temperature)));
+        assertFalse(Double.isNaN(table.dewPoint(100, temperature)));
+        assertTrue(table.getMaxError() < 0.05);
+        // there is no dew point above the critical temperature
+        table = new DewPointTable(dew, 633.15, 663.15, 1, 1, 100, 1, Interpolation.BILINEAR);
+        assertEquals(1, table.getMinRelativeHumidity(640), 1e-9);
+        assertTrue(Double.isNaN(table.getMinRelativeHumidity(650)));
+        assertTrue(Double.isNaN(table.getMaxError(650)));
+        assertTrue(Double.isNaN(table.dewPoint(50, 650)));
+        assertTrue(table.getMaxError() > 0);
+    }
+
+    /**
+     * Test of getMemoryFootprint method, of class DewPointTable.
+     */
+    @Test
+    public void testGetMemoryFootprint() {
+        System.out.println("getMemoryFootprint");
+        DewPointTable table = new DewPointTable(dew, 263.15, 303.15, 1, 20, 100, 1, Interpolation.BILINEAR);
+        // 41 temperatures, 0 deg. C twice, 162 relative humidities, and 40 columns
+        assertEquals(42 * 162 * Double.BYTES + 40 * (Integer.BYTES + Double.BYTES), table.getMemoryFootprint());
+    }
+
+}
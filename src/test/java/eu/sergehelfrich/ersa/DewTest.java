@@ -16,6 +16,13 @@
  */
 package eu.sergehelfrich.ersa;
 
+import eu.sergehelfrich.ersa.solver.Solver;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import org.junit.AfterClass;
@@ -71,6 +78,279 @@ public class DewTest {
         assertEquals(expectedDewPoint, dew.dewPoint(relativeHumidity, temperature), .05);
     }
 
+    /**
+     * Test of dewPoint method with a result, of class Dew.
+     */
+    @Test
+    public void testDewPointResult() {
+        System.out.println("dewPoint result");
+        SolverResult result = new SolverResult();
+        assertEquals(expectedDewPoint, dew.dewPoint(relativeHumidity, temperature, result), .05);
+        assertEquals(Status.OK, result.getStatus());
+        assertTrue(result.getIterations() > 0);
+        assertTrue(Double.isNaN(dew.dewPoint(relativeHumidity, Temperature.MIN - 1, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+    }
+
+    /**
+     * Test of dewPoint method with the closed-form method, of class Dew.
+     */
+    @Test
+    public void testDewPointClosedForm() throws Exception {
+        System.out.println("dewPoint closed form");
+        Dew closedForm = new Dew(DewPointMethod.CLOSED_FORM);
+        assertEquals(expectedDewPoint, closedForm.dewPoint(relativeHumidity, temperature), .05);
+        assertEquals(dew.dewPoint(relativeHumidity, temperature), closedForm.dewPoint(relativeHumidity, temperature), .003);
+    }
+
+    /**
+     * Test of dewPoint method with a result and for arrays allocating nothing
+     * per calculation, of class Dew.
+     */
+    @Test
+    public void testDewPointAllocation() {
+        System.out.println("dewPoint allocation");
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long id = Thread.currentThread().getId();
+        SolverResult result = new SolverResult();
+        int length = 1000;
+        double[] rh = new double[length];
+        double[] t = new double[length];
+        double[] dewPoint = new double[length];
+        int[] status = new int[length];
+        for (int i = 0; i < length; i++) {
+            rh[i] = relativeHumidity + i % 10;
+            t[i] = temperature;
+        }
+        for (DewPointMethod method : DewPointMethod.values()) {
+            Dew calculator = new Dew(method);
+            // the first round warms up
+            for (int round = 0; round < 2; round++) {
+                double sum = 0;
+                long before = threads.getThreadAllocatedBytes(id);
+                for (int i = 0; i < 20000; i++) {
+                    sum += calculator.dewPoint(rh[i % length], temperature, result);
+                }
+                for (int i = 0; i < 20; i++) {
+                    calculator.dewPoint(rh, t, dewPoint, status);
+                }
+                long allocated = threads.getThreadAllocatedBytes(id) - before;
+                assertTrue(sum > 0);
+                if (round > 0) {
+                    assertTrue(method + " allocated " + allocated + " bytes", allocated < 4096);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of dewPoint method with Newton's and Halley's methods, of class Dew.
+     */
+    @Test
+    public void testDewPointAnalyticDerivative() throws Exception {
+        System.out.println("dewPoint analytic derivative");
+        assertEquals(expectedDewPoint, new Dew(DewPointMethod.NEWTON).dewPoint(relativeHumidity, temperature), .05);
+        assertEquals(expectedDewPoint, new Dew(DewPointMethod.HALLEY).dewPoint(relativeHumidity, temperature), .05);
+    }
+
+    /**
+     * Test of pvsWater method with derivatives in one pass, of class Dew.
+     */
+    @Test
+    public void testPvsWaterValues() {
+        System.out.println("pvsWater values");
+        double[] values = new double[3];
+        for (double t = Temperature.CELSIUS_OFFSET; t <= 640; t += 0.5) {
+            Dew.pvsWater(t, 2, values);
+            double pressure = dew.pvsWater(t);
+            double derivative = dew.pvsWaterDerivative(t, pressure);
+            assertEquals(pressure, values[0], 1e-12 * pressure);
+            assertEquals(derivative, values[1], 1e-12 * Math.abs(derivative));
+            double secondDerivative = dew.pvsWaterSecondDerivative(t, pressure, derivative);
+            assertEquals(secondDerivative, values[2], 1e-12 * Math.abs(secondDerivative));
+        }
+    }
+
+    /**
+     * Test of dewPoint method with the bracketed solver, of class Dew.
+     */
+    @Test
+    public void testDewPointBracketed() throws Exception {
+        System.out.println("dewPoint bracketed");
+        Dew bracketed = new Dew(DewPointMethod.BRACKETED);
+        SolverResult result = new SolverResult();
+        assertEquals(expectedDewPoint, bracketed.dewPoint(relativeHumidity, temperature, result), .05);
+        assertTrue(result.getIterations() <= Solver.getBracketedBudget(Temperature.MIN, temperature));
+        // supersaturated air has its dew point above the temperature
+        double supersaturated = bracketed.dewPoint(110, temperature, result);
+        assertEquals(Status.OK, result.getStatus());
+        assertEquals(dew.dewPoint(110, temperature), supersaturated, .05);
+        assertTrue(supersaturated > temperature);
+        assertTrue(Double.isNaN(bracketed.dewPoint(1, Temperature.MIN + 1, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+    }
+
+    /**
+     * Test of dewPoint method near the critical point of water, of class Dew.
+     */
+    @Test
+    public void testDewPointCritical() {
+        System.out.println("dewPoint critical");
+        SolverResult result = new SolverResult();
+        for (DewPointMethod method : DewPointMethod.values()) {
+            Dew critical = new Dew(method);
+            // the pole of pvsWater lies between the temperature and the dew point
+            assertTrue(Double.isNaN(critical.dewPoint(72.5, 676.15, result)));
+            assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+            assertTrue(Double.isNaN(critical.dewPoint(91.5, 672.9, result)));
+            assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+            // supersaturated air with a dew point above the critical temperature
+            assertTrue(Double.isNaN(critical.dewPoint(110, 640, result)));
+            assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+            assertEquals(591.362, critical.dewPoint(50, 647, result), .01);
+            assertEquals(Status.OK, result.getStatus());
+            assertEquals(646.168, critical.dewPoint(99, 647, result), .01);
+            assertEquals(Status.OK, result.getStatus());
+        }
+    }
+
+    /**
+     * Test of dewPoint method iteration counts with the Magnus-Tetens initial
+     * guess, of class Dew.
+     */
+    @Test
+    public void testDewPointIterations() {
+        System.out.println("dewPoint iterations");
+        SolverResult result = new SolverResult();
+        for (DewPointMethod method : DewPointMethod.values()) {
+            Dew iterative = new Dew(method);
+            for (double rh = 5; rh <= 100; rh += 5) {
+                iterative.dewPoint(rh, temperature, result);
+                assertEquals(Status.OK, result.getStatus());
+                assertTrue(result.getIterations() <= 2);
+            }
+        }
+    }
+
+    /**
+     * Test of dewPoint method for arrays, of class Dew.
+     */
+    @Test
+    public void testDewPointArray() {
+        System.out.println("dewPoint array");
+        double[] rh = {relativeHumidity, relativeHumidity, 0};
+        double[] t = {temperature, Temperature.MAX + 1, temperature};
+        double[] result = new double[3];
+        int[] status = new int[3];
+        dew.dewPoint(rh, t, result, status);
+        assertEquals(expectedDewPoint, result[0], .05);
+        assertEquals(Status.OK, status[0]);
+        assertTrue(Double.isNaN(result[1]));
+        assertEquals(Status.OUT_OF_RANGE, status[1]);
+        assertTrue(Double.isNaN(result[2]));
+        assertEquals(Status.OUT_OF_RANGE, status[2]);
+    }
+
+    /**
+     * Test of dewPoint method for buffers, of class Dew.
+     */
+    @Test
+    public void testDewPointBuffer() {
+        System.out.println("dewPoint buffer");
+        DoubleBuffer rh = DoubleBuffer.wrap(new double[]{0, relativeHumidity});
+        DoubleBuffer t = DoubleBuffer.wrap(new double[]{0, temperature});
+        rh.position(1);
+        t.position(1);
+        double[] result = new double[1];
+        int[] status = new int[1];
+        dew.dewPoint(rh, t, result, status);
+        assertEquals(expectedDewPoint, result[0], .05);
+        assertEquals(Status.OK, status[0]);
+        assertEquals(1, rh.position());
+    }
+
+    /**
+     * Test of dewPoint method for float arrays and buffers, of class Dew.
+     */
+    @Test
+    public void testDewPointFloat() {
+        System.out.println("dewPoint float");
+        // longer than a widening block and not a multiple of it
+        int length = 1003;
+        float[] rh = new float[length];
+        float[] t = new float[length];
+        for (int i = 0; i < length; i++) {
+            rh[i] = (float) (5 + 0.09 * i);
+            t[i] = (float) (temperature - 25 + 0.05 * i);
+        }
+        t[300] = (float) (Temperature.MAX + 1);
+        float[] result = new float[length];
+        int[] status = new int[length];
+        dew.dewPoint(rh, t, result, status);
+        SolverResult expected = new SolverResult();
+        for (int i = 0; i < length; i++) {
+            assertEquals((float) dew.dewPoint(rh[i], t[i], expected), result[i], 0);
+            assertEquals(expected.getStatus(), status[i]);
+        }
+        assertEquals(Status.OUT_OF_RANGE, status[300]);
+
+        FloatBuffer rhBuffer = FloatBuffer.wrap(rh, 1, length - 1);
+        FloatBuffer tBuffer = FloatBuffer.wrap(t, 1, length - 1);
+        float[] bufferResult = new float[length - 1];
+        dew.dewPoint(rhBuffer, tBuffer, bufferResult, new int[length - 1]);
+        assertEquals(1, rhBuffer.position());
+        assertArrayEquals(Arrays.copyOfRange(result, 1, length), bufferResult, 0);
+
+        float[] parallelResult = new float[length];
+        dew.dewPointParallel(rh, t, parallelResult, status);
+        assertArrayEquals(result, parallelResult, 0);
+        dew.dewPointParallel(rhBuffer, tBuffer, bufferResult, new int[length - 1]);
+        assertArrayEquals(Arrays.copyOfRange(result, 1, length), bufferResult, 0);
+    }
+
+    /**
+     * Test of dewPoint method with a temperature scale, of class Dew.
+     */
+    @Test
+    public void testDewPointScale() {
+        System.out.println("dewPoint scale");
+        double celsius = temperature - Temperature.CELSIUS_OFFSET;
+        double[] result = new double[1];
+        int[] status = new int[1];
+        dew.dewPoint(new double[]{relativeHumidity}, new double[]{celsius}, Scale.CELSIUS, result, status);
+        assertEquals(expectedDewPoint - Temperature.CELSIUS_OFFSET, result[0], .05);
+        assertEquals(Status.OK, status[0]);
+        DoubleBuffer rh = DoubleBuffer.wrap(new double[]{0, relativeHumidity}, 1, 1);
+        DoubleBuffer t = DoubleBuffer.wrap(new double[]{0, Temperature.fromKelvin(temperature, Scale.FAHRENHEIT)}, 1, 1);
+        dew.dewPoint(rh, t, Scale.FAHRENHEIT, result, status);
+        assertEquals(Temperature.fromKelvin(expectedDewPoint, Scale.FAHRENHEIT), result[0], .1);
+        assertEquals(1, t.position());
+    }
+
+    /**
+     * Test of dewPointParallel method, of class Dew.
+     */
+    @Test
+    public void testDewPointParallel() {
+        System.out.println("dewPointParallel");
+        int length = 100000;
+        double[] rh = new double[length];
+        double[] t = new double[length];
+        Arrays.fill(rh, relativeHumidity);
+        Arrays.fill(t, temperature);
+        double[] result = new double[length];
+        int[] status = new int[length];
+        dew.dewPointParallel(rh, t, result, status);
+        for (int i = 0; i < length; i++) {
+            assertEquals(expectedDewPoint, result[i], .05);
+            assertEquals(Status.OK, status[i]);
+        }
+    }
+
     /**
      * Test of pvs method, of class Dew.
      */
@@ -80,6 +360,78 @@ public class DewTest {
         assertEquals(611, dew.pvs(273.15), 5);
     }
 
+    /**
+     * Test of pvs, pvsWater and pvsIce methods for arrays, of class Dew.
+     */
+    @Test
+    public void testPvsArray() {
+        System.out.println("pvs array");
+        // not a multiple of the vector length, across the melting point and out of range
+        int length = 1003;
+        double[] t = new double[length];
+        for (int i = 0; i < length; i++) {
+            t[i] = temperature - 50 + 0.1 * i;
+        }
+        t[7] = Temperature.MIN - 1;
+        t[length - 1] = Double.NaN;
+        double[] pressure = new double[length];
+        double[] water = new double[length];
+        double[] ice = new double[length];
+        dew.pvs(t, pressure);
+        dew.pvsWater(t, water);
+        dew.pvsIce(t, ice);
+        for (int i = 0; i < length; i++) {
+            double expected = dew.pvsOrNaN(t[i]);
+            assertEquals(expected, pressure[i], expected * 1e-14);
+            assertEquals(dew.pvsWater(t[i]), water[i], water[i] * 1e-14);
+            assertEquals(dew.pvsIce(t[i]), ice[i], ice[i] * 1e-14);
+        }
+        assertTrue(Double.isNaN(pressure[7]));
+        assertTrue(Double.isNaN(pressure[length - 1]));
+    }
+
+    /**
+     * Test of isVectorized method, of class Dew. The Gradle test tasks set
+     * ersa.test.vectorized to the expected kernel, so a kernel that fails to
+     * load does not go unnoticed.
+     */
+    @Test
+    public void testIsVectorized() {
+        System.out.println("isVectorized");
+        String expected = System.getProperty("ersa.test.vectorized");
+        if (expected != null) {
+            assertEquals(Boolean.parseBoolean(expected), Dew.isVectorized());
+        }
+    }
+
+    /**
+     * Test of pvs method for arrays of different lengths, of class Dew.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPvsArrayLength() {
+        System.out.println("pvs array length");
+        dew.pvs(new double[2], new double[1]);
+    }
+
+    /**
+     * Test of pvsOrNaN method, of class Dew.
+     */
+    @Test
+    public void testPvsOrNaN() {
+        System.out.println("pvsOrNaN");
+        assertEquals(611, dew.pvsOrNaN(273.15), 5);
+        assertTrue(Double.isNaN(dew.pvsOrNaN(Temperature.MAX + 1)));
+    }
+
+    /**
+     * Test of pvs method out of range, of class Dew.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPvsOutOfRange() {
+        System.out.println("pvs out of range");
+        dew.pvs(Temperature.MIN - 1);
+    }
+
     /**
      * Test of pvsIce method, of class Dew.
      */
@@ -99,4 +451,51 @@ public class DewTest {
         assertEquals(2339, dew.pvsWater(293.15), 5);
     }
 
+    /**
+     * Test of pvsIceDerivative and pvsIceSecondDerivative methods, of class Dew.
+     */
+    @Test
+    public void testPvsIceDerivative() {
+        System.out.println("pvsIceDerivative");
+        double h = 1e-3;
+        double p = dew.pvsIce(263.15);
+        double derivative = dew.pvsIceDerivative(263.15, p);
+        assertEquals((dew.pvsIce(263.15 + h) - dew.pvsIce(263.15 - h)) / (2 * h), derivative, 1e-4);
+        assertEquals((dew.pvsIce(263.15 + h) - 2 * p + dew.pvsIce(263.15 - h)) / (h * h),
+                dew.pvsIceSecondDerivative(263.15, p, derivative), 1e-3);
+    }
+
+    /**
+     * Test of pvsWaterDerivative and pvsWaterSecondDerivative methods, of class Dew.
+     */
+    @Test
+    public void testPvsWaterDerivative() {
+        System.out.println("pvsWaterDerivative");
+        double h = 1e-3;
+        double p = dew.pvsWater(293.15);
+        double derivative = dew.pvsWaterDerivative(293.15, p);
+        assertEquals((dew.pvsWater(293.15 + h) - dew.pvsWater(293.15 - h)) / (2 * h), derivative, 1e-3);
+        assertEquals((dew.pvsWater(293.15 + h) - 2 * p + dew.pvsWater(293.15 - h)) / (h * h),
+                dew.pvsWaterSecondDerivative(293.15, p, derivative), 1e-2);
+    }
+
+    /**
+     * Test of tsIce method, of class Dew.
+     */
+    @Test
+    public void testTsIce() {
+        System.out.println("tsIce");
+        assertEquals(263.15, dew.tsIce(dew.pvsIce(263.15)), 1e-4);
+    }
+
+    /**
+     * Test of tsWater method, of class Dew.
+     */
+    @Test
+    public void testTsWater() {
+        System.out.println("tsWater");
+        assertEquals(283.15, dew.tsWater(dew.pvsWater(283.15)), 1e-6);
+        assertEquals(373.15, dew.tsWater(dew.pvsWater(373.15)), 1e-6);
+    }
+
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class PrecisionTest {
+
+    private final Dew exact = new Dew(DewPointMethod.SOLVER, Precision.EXACT);
+
+    /**
+     * Test of pvsOrNaN method with Precision.FAST, of class Dew.
+     */
+    @Test
+    public void testPvsFast() {
+        System.out.println("pvs fast");
+        assertPvs(new Dew(DewPointMethod.SOLVER, Precision.FAST), 3e-8);
+    }
+
+    /**
+     * Test of pvsOrNaN method with Precision.FASTEST, of class Dew.
+     */
+    @Test
+    public void testPvsFastest() {
+        System.out.println("pvs fastest");
+        assertPvs(new Dew(DewPointMethod.SOLVER, Precision.FASTEST), 4e-4);
+    }
+
+    /**
+     * Test of dewPoint method with Precision.FASTEST, of class Dew.
+     */
+    @Test
+    public void testDewPointFastest() {
+        System.out.println("dewPoint fastest");
+        for (DewPointMethod method : DewPointMethod.values()) {
+            Dew approximate = new Dew(method, Precision.FASTEST);
+            Dew reference = new Dew(method);
+            SolverResult result = new SolverResult();
+            for (double t = 233.15; t <= 323.15; t += 5) {
+                for (double rh = 10; rh <= 100; rh += 10) {
+                    double expected = reference.dewPoint(rh, t, new SolverResult());
+                    assertEquals(expected, approximate.dewPoint(rh, t, result), 0.01);
+                    assertEquals(Status.OK, result.getStatus());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of getPrecision method, of class Dew.
+     */
+    @Test
+    public void testGetPrecision() {
+        System.out.println("getPrecision");
+        assertEquals(Precision.EXACT, new Dew().getPrecision());
+        assertEquals(Precision.FAST, new Dew(DewPointMethod.HALLEY, Precision.FAST).getPrecision());
+    }
+
+    private void assertPvs(Dew dew, double maxRelativeError) {
+        for (double t = Temperature.MIN; t <= PvsApproximation.MAX_TEMPERATURE; t += 0.01) {
+            double expected = exact.pvsOrNaN(t);
+            assertEquals(expected, dew.pvsOrNaN(t), expected * maxRelativeError);
+        }
+        // exact above the approximated range and in the array variant
+        for (double t = 373.2; t < 640; t += 1) {
+            assertEquals(exact.pvsOrNaN(t), dew.pvsOrNaN(t), 0);
+        }
+        double[] t = {Temperature.MIN - 1, 250, 300, 400};
+        double[] pressure = new double[t.length];
+        dew.pvs(t, pressure);
+        assertTrue(Double.isNaN(pressure[0]));
+        for (int i = 1; i < t.length; i++) {
+            assertEquals(dew.pvsOrNaN(t[i]), pressure[i], 0);
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import eu.sergehelfrich.ersa.solver.Status;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class PsychrometricsTest {
+
+    private static Dew dew;
+    private static Psychrometrics psychrometrics;
+
+    @BeforeClass
+    public static void setUpClass() {
+        dew = new Dew();
+        psychrometrics = new Psychrometrics(dew);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dew = null;
+        psychrometrics = null;
+    }
+
+    /**
+     * Test of state method, of class Psychrometrics.
+     */
+    @Test
+    public void testState() throws Exception {
+        System.out.println("state");
+        PsychrometricState state = psychrometrics.state(50, 293.15);
+        assertEquals(Status.OK, state.getStatus());
+        assertTrue(state.getIterations() > 0);
+        assertEquals(2339, state.getSaturationVaporPressure(), 1);
+        assertEquals(1169.6, state.getVaporPressure(), 0.5);
+        assertEquals(dew.dewPoint(50, 293.15), state.getDewPoint(), 1e-9);
+        assertEquals(293.15 - state.getDewPoint(), state.getDewPointDepression(), 1e-9);
+        assertEquals(8.64, state.getAbsoluteHumidity(), 0.01);
+        assertEquals(7.26, state.getMixingRatio(), 0.01);
+        assertEquals(8.8, new Psychrometrics(dew, 84000).state(50, 293.15).getMixingRatio(), 0.05);
+    }
+
+    /**
+     * Test of state method out of range, of class Psychrometrics.
+     */
+    @Test
+    public void testStateOutOfRange() {
+        System.out.println("state out of range");
+        PsychrometricState state = new PsychrometricState();
+        psychrometrics.state(0, 293.15, state);
+        assertEquals(Status.OUT_OF_RANGE, state.getStatus());
+        assertTrue(Double.isNaN(state.getDewPoint()));
+        assertTrue(Double.isNaN(state.getDewPointDepression()));
+        assertEquals(0, state.getAbsoluteHumidity(), 0);
+        assertEquals(0, state.getMixingRatio(), 0);
+        psychrometrics.state(50, Temperature.MAX + 1, state);
+        assertEquals(Status.OUT_OF_RANGE, state.getStatus());
+        assertTrue(Double.isNaN(state.getVaporPressure()));
+        assertTrue(Double.isNaN(state.getAbsoluteHumidity()));
+        // the vapor pressure exceeds the air pressure above the boiling point
+        psychrometrics.state(100, 393.15, state);
+        assertEquals(Status.OK, state.getStatus());
+        assertTrue(Double.isNaN(state.getMixingRatio()));
+    }
+
+    /**
+     * Test of state method for arrays, of class Psychrometrics.
+     */
+    @Test
+    public void testStateColumns() {
+        System.out.println("state columns");
+        double[] rh = {50, 0, 80, 30, 95};
+        double[] t = {293.15, 293.15, 263.15, Temperature.MIN - 1, 303.15};
+        PsychrometricColumns columns = new PsychrometricColumns(8);
+        psychrometrics.state(rh, t, columns);
+        assertEquals(5, columns.size());
+        PsychrometricState state = new PsychrometricState();
+        for (int i = 0; i < rh.length; i++) {
+            psychrometrics.state(rh[i], t[i], state);
+            assertEquals(state.getStatus(), columns.getStatus()[i]);
+            assertEquals(state.getVaporPressure(), columns.getVaporPressure()[i], 1e-9);
+            assertEquals(state.getSaturationVaporPressure(), columns.getSaturationVaporPressure()[i], 1e-9);
+            assertEquals(state.getDewPoint(), columns.getDewPoint()[i], 1e-9);
+            assertEquals(state.getDewPointDepression(), columns.getDewPointDepression()[i], 1e-9);
+            assertEquals(state.getAbsoluteHumidity(), columns.getAbsoluteHumidity()[i], 1e-9);
+            assertEquals(state.getMixingRatio(), columns.getMixingRatio()[i], 1e-9);
+        }
+    }
+
+    /**
+     * Test of state method for arrays of different lengths, of class
+     * Psychrometrics.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testStateColumnsLength() {
+        System.out.println("state columns length");
+        psychrometrics.state(new double[3], new double[3], new PsychrometricColumns(2));
+    }
+
+}
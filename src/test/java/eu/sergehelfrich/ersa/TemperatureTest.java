@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class TemperatureTest {
+
+    public TemperatureTest() {
+    }
+
+    /**
+     * Test of getTemperature and getKelvin methods, of class Temperature.
+     */
+    @Test
+    public void testGetTemperature() {
+        System.out.println("getTemperature");
+        Temperature temperature = new Temperature(68, Scale.FAHRENHEIT);
+        assertEquals(68, temperature.getTemperature(), 1e-9);
+        assertEquals(293.15, temperature.getKelvin(), 1e-9);
+        temperature.setScale(Scale.CELSIUS);
+        assertEquals(20, temperature.getTemperature(), 1e-9);
+    }
+
+    /**
+     * Test of toKelvin and fromKelvin methods, of class Temperature.
+     */
+    @Test
+    public void testToKelvin() {
+        System.out.println("toKelvin");
+        assertEquals(293.15, Temperature.toKelvin(20, Scale.CELSIUS), 1e-9);
+        assertEquals(293.15, Temperature.toKelvin(68, Scale.FAHRENHEIT), 1e-9);
+        assertEquals(293.15, Temperature.toKelvin(293.15, Scale.KELVIN), 1e-9);
+        assertEquals(68, Temperature.fromKelvin(293.15, Scale.FAHRENHEIT), 1e-9);
+    }
+
+    /**
+     * Test of convert method, of class Temperature.
+     */
+    @Test
+    public void testConvert() {
+        System.out.println("convert");
+        double[] values = {-40, 0, 100, 37};
+        Temperature.convert(values, Scale.CELSIUS, Scale.FAHRENHEIT);
+        assertArrayEquals(new double[]{-40, 32, 212, 98.6}, values, 1e-9);
+        Temperature.convert(values, 1, 3, Scale.FAHRENHEIT, Scale.KELVIN);
+        assertArrayEquals(new double[]{-40, 273.15, 373.15, 98.6}, values, 1e-9);
+    }
+
+}
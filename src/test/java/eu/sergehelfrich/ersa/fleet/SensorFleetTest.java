@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.fleet;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.preservation.Risk;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class SensorFleetTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static Dew dew;
+    private static Metrics metrics;
+
+    public SensorFleetTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        dew = new Dew();
+        metrics = new Metrics();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        dew = null;
+        metrics = null;
+    }
+
+    /**
+     * Test of add and snapshot methods, of class SensorFleet.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        SensorFleet fleet = new SensorFleet(dew, metrics);
+        assertNull(fleet.snapshot("a"));
+        fleet.add("a", 0, 10, 50);
+        fleet.add("a", MINUTE, 10, 50);
+        SensorSnapshot snapshot = fleet.snapshot("a");
+        assertEquals("a", snapshot.getSensorId());
+        assertEquals(2, snapshot.getCount());
+        assertEquals(MINUTE, snapshot.getTimestamp());
+        assertEquals(273.21 - 273.15, snapshot.getDewPoint(), .05);
+        assertEquals(metrics.preservationIndex(10, 50), snapshot.getPreservationIndex());
+        assertEquals(metrics.preservationIndex(10, 50), snapshot.getTimeWeightedPreservationIndex(), 1e-9);
+        assertEquals(0, snapshot.getMold());
+        assertEquals(Risk.GOOD, snapshot.getMoldRisk());
+        assertEquals(metrics.emc(10, 50), snapshot.getEmc(), 0);
+        assertEquals(1, fleet.getSensorIds().size());
+        assertTrue(fleet.remove("a"));
+        assertNull(fleet.snapshot("a"));
+    }
+
+    /**
+     * Test of remove method with a writer that still holds the removed
+     * state, of class SensorFleet.
+     */
+    @Test
+    public void testRemove() {
+        System.out.println("remove");
+        SensorState state = new SensorState("a", dew, metrics);
+        assertTrue(state.add(0, 10, 50));
+        state.remove();
+        // a removed state refuses the reading, so the fleet retries with a new one
+        assertFalse(state.add(MINUTE, 10, 50));
+        assertEquals(1, state.snapshot().getCount());
+
+        SensorFleet fleet = new SensorFleet(dew, metrics);
+        fleet.add("a", 0, 10, 50);
+        assertTrue(fleet.remove("a"));
+        assertFalse(fleet.remove("a"));
+        fleet.add("a", MINUTE, 10, 50);
+        assertEquals(1, fleet.snapshot("a").getCount());
+        assertEquals(MINUTE, fleet.snapshot("a").getTimestamp());
+    }
+
+    /**
+     * Test of add method from several threads, of class SensorFleet.
+     */
+    @Test
+    public void testAddConcurrent() throws Exception {
+        System.out.println("add concurrent");
+        SensorFleet fleet = new SensorFleet(dew, metrics);
+        int threads = 8;
+        int sensors = 50;
+        int readings = 500;
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int r = 0; r < readings; r++) {
+                    for (int s = 0; s < sensors; s++) {
+                        // each sensor is written by exactly one thread, so its readings stay ordered
+                        fleet.add("sensor" + (thread * sensors + s), r * MINUTE, 20, 50);
+                    }
+                }
+            }));
+        }
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        while (writers.get(0).isAlive()) {
+            for (SensorSnapshot snapshot : fleet.snapshots()) {
+                assertEquals((snapshot.getCount() - 1) * MINUTE, snapshot.getTimestamp());
+            }
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals(threads * sensors, fleet.snapshots().size());
+        for (SensorSnapshot snapshot : fleet.snapshots()) {
+            assertEquals(readings, snapshot.getCount());
+        }
+    }
+
+}
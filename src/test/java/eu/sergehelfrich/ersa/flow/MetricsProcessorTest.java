@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.flow;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Temperature;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class MetricsProcessorTest {
+
+    private final Dew dew = new Dew();
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Test of the enriched readings, of class MetricsProcessor.
+     */
+    @Test
+    public void testEnrich() {
+        System.out.println("enrich");
+        MetricsProcessor processor = new MetricsProcessor(dew, metrics, Runnable::run, 4);
+        Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        assertEquals(8, upstream.requested);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        processor.subscribe(collector);
+        for (int i = 0; i < 10; i++) {
+            processor.onNext(new Reading("a", i, 10 + 3 * i, 40 + 5 * i));
+        }
+        processor.onComplete();
+        assertTrue(collector.completed);
+        assertEquals(10, collector.received.size());
+        SolverResult result = new SolverResult();
+        for (int i = 0; i < 10; i++) {
+            EnrichedReading enriched = collector.received.get(i);
+            Reading reading = enriched.getReading();
+            assertEquals(i, reading.getTimestamp());
+            double t = reading.getTemperature();
+            double rh = reading.getRelativeHumidity();
+            assertEquals(dew.dewPoint(rh, t + Temperature.CELSIUS_OFFSET, result) - Temperature.CELSIUS_OFFSET,
+                    enriched.getDewPoint(), 1e-9);
+            assertEquals(Status.OK, enriched.getStatus());
+            assertEquals(metrics.preservationIndex(t, rh), enriched.getPreservationIndex());
+            assertEquals(metrics.mold(t, rh), enriched.getMold());
+            assertEquals(metrics.emc(t, rh), enriched.getEmc(), 0);
+            assertEquals(metrics.naturalAging(enriched.getPreservationIndex()), enriched.getNaturalAging());
+            assertEquals(metrics.moldRisk(enriched.getMold()), enriched.getMoldRisk());
+            assertEquals(metrics.mechanicalDamage(enriched.getEmc()), enriched.getMechanicalDamage());
+            assertEquals(metrics.metalCorrosion(enriched.getEmc()), enriched.getMetalCorrosion());
+        }
+    }
+
+    /**
+     * Test of backpressure, of class MetricsProcessor.
+     */
+    @Test
+    public void testBackpressure() {
+        System.out.println("backpressure");
+        MetricsProcessor processor = new MetricsProcessor(dew, metrics, Runnable::run, 4);
+        Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        Collector collector = new Collector(3);
+        processor.subscribe(collector);
+        // the publisher sends as much as requested
+        long sent = 0;
+        while (sent < upstream.requested) {
+            processor.onNext(new Reading("a", sent++, 20, 50));
+        }
+        assertEquals(3, collector.received.size());
+        assertEquals(8, upstream.requested);
+        collector.subscription.request(10);
+        assertEquals(8, collector.received.size());
+        // replenished once a batch has been consumed
+        assertEquals(8 + 7, upstream.requested);
+        while (sent < upstream.requested) {
+            processor.onNext(new Reading("a", sent++, 20, 50));
+        }
+        assertEquals(13, collector.received.size());
+        assertFalse(collector.completed);
+    }
+
+    /**
+     * Test of cancel, of class MetricsProcessor.
+     */
+    @Test
+    public void testCancel() {
+        System.out.println("cancel");
+        MetricsProcessor processor = new MetricsProcessor(dew, metrics, Runnable::run, 4);
+        Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        Collector collector = new Collector(1);
+        processor.subscribe(collector);
+        processor.onNext(new Reading("a", 0, 20, 50));
+        collector.subscription.cancel();
+        assertTrue(upstream.cancelled);
+        processor.onNext(new Reading("a", 1, 20, 50));
+        processor.onComplete();
+        assertEquals(1, collector.received.size());
+        assertFalse(collector.completed);
+    }
+
+    /**
+     * Test of errors, of class MetricsProcessor.
+     */
+    @Test
+    public void testError() {
+        System.out.println("error");
+        MetricsProcessor processor = new MetricsProcessor(dew, metrics, Runnable::run, 4);
+        Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        Collector collector = new Collector(0);
+        processor.subscribe(collector);
+        processor.onNext(new Reading("a", 0, 20, 50));
+        IllegalStateException failure = new IllegalStateException();
+        processor.onError(failure);
+        assertSame(failure, collector.error);
+        assertTrue(collector.received.isEmpty());
+
+        processor = new MetricsProcessor(dew, metrics, Runnable::run, 4);
+        upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        collector = new Collector(0);
+        processor.subscribe(collector);
+        collector.subscription.request(0);
+        assertTrue(collector.error instanceof IllegalArgumentException);
+        assertTrue(upstream.cancelled);
+
+        Collector second = new Collector(1);
+        processor.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    /**
+     * Test of a slow subscriber behind a publisher, of class
+     * MetricsProcessor.
+     */
+    @Test
+    public void testPublisher() throws InterruptedException {
+        System.out.println("publisher");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        int count = 2000;
+        try (SubmissionPublisher<Reading> publisher = new SubmissionPublisher<>(executor, 16)) {
+            MetricsProcessor processor = new MetricsProcessor(dew, metrics, executor, 32);
+            publisher.subscribe(processor);
+            CountDownLatch completed = new CountDownLatch(1);
+            long[] timestamps = new long[count];
+            AtomicInteger received = new AtomicInteger();
+            processor.subscribe(new Flow.Subscriber<EnrichedReading>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(EnrichedReading item) {
+                    timestamps[received.get()] = item.getReading().getTimestamp();
+                    received.incrementAndGet();
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            for (int i = 0; i < count; i++) {
+                publisher.submit(new Reading("a", i, 20, 50));
+                // at most the publisher buffer, two batches and one reading in flight
+                assertTrue(i + 1 - received.get() <= 16 + 2 * 32 + 1);
+            }
+            publisher.close();
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertEquals(count, received.get());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, timestamps[i]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class Upstream implements Flow.Subscription {
+
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class Collector implements Flow.Subscriber<EnrichedReading> {
+
+        private final long initial;
+        final List<EnrichedReading> received = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        Collector(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initial > 0) {
+                subscription.request(initial);
+            }
+        }
+
+        @Override
+        public void onNext(EnrichedReading item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Temperature;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.solver.SolverException;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class CsvIngesterTest {
+
+    private static final int ROWS = 20_000;
+    private static final long START = 1_520_000_000_000L;
+    private static final long MINUTE = 60_000L;
+
+    private static Dew dew;
+    private static Metrics metrics;
+    private static Path file;
+
+    public CsvIngesterTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        dew = new Dew();
+        metrics = new Metrics();
+        file = Files.createTempFile("ersa", ".csv");
+        StringBuilder csv = new StringBuilder("timestamp,temperature,humidity\r\n");
+        for (int i = 0; i < ROWS; i++) {
+            long timestamp = START + i * MINUTE;
+            // alternate between epoch and ISO timestamps and vary the line length
+            csv.append(i % 2 == 0 ? Long.toString(timestamp) : Instant.ofEpochMilli(timestamp).toString())
+                    .append(',').append(temperature(i)).append(',').append(relativeHumidity(i))
+                    .append(i % 3 == 0 ? ",note\r\n" : "\n");
+        }
+        csv.append("garbage\n\n");
+        Files.write(file, csv.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        Files.deleteIfExists(file);
+        dew = null;
+        metrics = null;
+    }
+
+    private static double temperature(int i) {
+        return (i % 600 - 100) / 10.0;
+    }
+
+    private static double relativeHumidity(int i) {
+        return 20 + (i % 81);
+    }
+
+    /**
+     * Test of ingest method, of class CsvIngester.
+     */
+    @Test
+    public void testIngest() throws IOException {
+        System.out.println("ingest");
+        ConcurrentHashMap<Long, double[]> rows = new ConcurrentHashMap<>();
+        CsvIngester ingester = new CsvIngester(dew, metrics);
+        IngestSummary summary = ingester.ingest(file, batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                double[] row = {batch.getTemperature()[i], batch.getRelativeHumidity()[i], batch.getDewPoint()[i],
+                    batch.getStatus()[i], batch.getPreservationIndex()[i], batch.getMold()[i], batch.getEmc()[i]};
+                assertNull(rows.put(batch.getTimestamps()[i], row));
+            }
+        }, 7);
+        assertEquals(ROWS, summary.getRows());
+        assertEquals(2, summary.getSkipped());
+        assertEquals(ROWS, rows.size());
+        assertEquals(START, summary.getFirstTimestamp());
+        assertEquals(START + (ROWS - 1) * MINUTE, summary.getLastTimestamp());
+        assertTrue(summary.getRowsPerSecond() > 0);
+
+        SolverResult result = new SolverResult();
+        long preservationIndexSum = 0;
+        for (int i = 0; i < ROWS; i++) {
+            double temperature = temperature(i);
+            double relativeHumidity = relativeHumidity(i);
+            double[] row = rows.get(START + i * MINUTE);
+            assertEquals(temperature, row[0], 0);
+            assertEquals(relativeHumidity, row[1], 0);
+            double dewPoint = dew.dewPoint(relativeHumidity, temperature + Temperature.CELSIUS_OFFSET, result);
+            assertEquals(dewPoint - Temperature.CELSIUS_OFFSET, row[2], 1e-9);
+            assertEquals(Status.OK, (int) row[3]);
+            assertEquals(metrics.preservationIndex(temperature, relativeHumidity), (int) row[4]);
+            assertEquals(metrics.mold(temperature, relativeHumidity), (int) row[5]);
+            assertEquals(metrics.emc(temperature, relativeHumidity), row[6], 0);
+            preservationIndexSum += (int) row[4];
+        }
+        assertEquals((double) preservationIndexSum / ROWS, summary.getMeanPreservationIndex(), 1e-9);
+
+        IngestSummary single = ingester.ingest(file);
+        assertEquals(summary.getRows(), single.getRows());
+        assertEquals(summary.getMoldRows(), single.getMoldRows());
+        assertEquals(summary.getMinimumDewPoint(), single.getMinimumDewPoint(), 0);
+        assertEquals(summary.getMaximumEmc(), single.getMaximumEmc(), 0);
+    }
+
+    /**
+     * Test of bounds method, of class CsvIngester.
+     */
+    @Test
+    public void testBounds() throws IOException {
+        System.out.println("bounds");
+        byte[] bytes = Files.readAllBytes(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int chunks : new int[]{1, 2, 13, 1000}) {
+                long[] bounds = CsvIngester.bounds(channel, bytes.length, chunks);
+                assertEquals(0, bounds[0]);
+                assertEquals(bytes.length, bounds[chunks]);
+                for (int i = 1; i < chunks; i++) {
+                    assertTrue(bounds[i] >= bounds[i - 1]);
+                    assertTrue(bounds[i] == bytes.length || bytes[(int) bounds[i] - 1] == '\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of ingest method with a semicolon separated file, of class
+     * CsvIngester.
+     */
+    @Test
+    public void testIngestSemicolon() throws IOException, SolverException {
+        System.out.println("ingestSemicolon");
+        Path semicolon = Files.createTempFile("ersa", ".csv");
+        try {
+            Files.write(semicolon, "Zeit;T;rF\n2018-03-01 12:00:00;20,5;50\n2018-03-01 12:01:00;-300;50\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            IngestSummary summary = new CsvIngester(dew, metrics, ';', ',').ingest(semicolon);
+            assertEquals(2, summary.getRows());
+            assertEquals(1, summary.getSkipped());
+            assertEquals(1, summary.getFailures());
+            assertEquals(dew.dewPoint(50, 20.5 + Temperature.CELSIUS_OFFSET) - Temperature.CELSIUS_OFFSET,
+                    summary.getMaximumDewPoint(), 1e-9);
+        } finally {
+            Files.delete(semicolon);
+        }
+    }
+
+    /**
+     * Test of ingest method with an empty file, of class CsvIngester.
+     */
+    @Test
+    public void testIngestEmpty() throws IOException {
+        System.out.println("ingestEmpty");
+        Path empty = Files.createTempFile("ersa", ".csv");
+        try {
+            IngestSummary summary = new CsvIngester(dew, metrics).ingest(empty);
+            assertEquals(0, summary.getRows());
+            assertTrue(Double.isNaN(summary.getMeanPreservationIndex()));
+        } finally {
+            Files.delete(empty);
+        }
+    }
+
+    /**
+     * Test of ingest method with a missing file, of class CsvIngester.
+     */
+    @Test(expected = IOException.class)
+    public void testIngestMissing() throws IOException {
+        System.out.println("ingestMissing");
+        new CsvIngester(dew, metrics).ingest(file.resolveSibling("missing.csv"));
+    }
+
+}
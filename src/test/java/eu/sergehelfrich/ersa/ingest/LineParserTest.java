@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class LineParserTest {
+
+    public LineParserTest() {
+    }
+
+    private static LineParser parser(String text, char delimiter, char decimalSeparator) {
+        return new LineParser(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)), delimiter, decimalSeparator);
+    }
+
+    /**
+     * Test of number method, of class LineParser.
+     */
+    @Test
+    public void testNumber() {
+        System.out.println("number");
+        String[] numbers = {"0", "20.4", "-3.25", "+7", ".5", "85.", "1e3", "-1.5E-2", "0.1", "123456789.123456789",
+            "3.141592653589793238", "0.000000000000000000001", "6.02214076e23"};
+        for (String number : numbers) {
+            LineParser parser = parser(number + "\n", ',', '.');
+            assertTrue(parser.nextLine());
+            assertEquals(number, Double.parseDouble(number), parser.number(), Math.ulp(Double.parseDouble(number)) * 2);
+            assertTrue(parser.endLine());
+        }
+        LineParser parser = parser("20,4;\"85,6\"\n", ';', ',');
+        assertTrue(parser.nextLine());
+        assertEquals(20.4, parser.number(), 0);
+        assertEquals(85.6, parser.number(), 0);
+        assertTrue(parser.endLine());
+    }
+
+    /**
+     * Test of number method with invalid input, of class LineParser.
+     */
+    @Test
+    public void testNumberInvalid() {
+        System.out.println("numberInvalid");
+        String[] numbers = {"", "-", ".", "abc", "1.2.3", "1e", "NaN", "12x"};
+        for (String number : numbers) {
+            LineParser parser = parser(number + "\n", ',', '.');
+            parser.nextLine();
+            parser.number();
+            assertFalse(number, parser.endLine());
+        }
+    }
+
+    /**
+     * Test of timestamp method, of class LineParser.
+     */
+    @Test
+    public void testTimestamp() {
+        System.out.println("timestamp");
+        String[][] timestamps = {
+            {"1520000000000", "2018-03-02T14:13:20Z"},
+            {"2018-03-01", "2018-03-01T00:00:00Z"},
+            {"2018-03-01T12:30", "2018-03-01T12:30:00Z"},
+            {"2018-03-01 12:30:15", "2018-03-01T12:30:15Z"},
+            {"2018-03-01T12:30:15.25Z", "2018-03-01T12:30:15.250Z"},
+            {"2018-03-01T12:30:15+02:00", "2018-03-01T10:30:15Z"},
+            {"2018-03-01T12:30:15-0130", "2018-03-01T14:00:15Z"},
+            {"1969-12-31T23:59:59Z", "1969-12-31T23:59:59Z"},
+            {"2000-02-29T00:00:00Z", "2000-02-29T00:00:00Z"},
+            {"2024-02-29", "2024-02-29T00:00:00Z"},
+            {"2018-04-30", "2018-04-30T00:00:00Z"}
+        };
+        for (String[] timestamp : timestamps) {
+            LineParser parser = parser(timestamp[0] + ",1,2\n", ',', '.');
+            assertTrue(parser.nextLine());
+            assertEquals(timestamp[0], Instant.parse(timestamp[1]).toEpochMilli(), parser.timestamp());
+            assertEquals(1, parser.number(), 0);
+            assertEquals(2, parser.number(), 0);
+            assertTrue(parser.endLine());
+        }
+        String[] invalid = {"timestamp", "2018-13-01", "2018-03-01T25:00", "2018-03-01T12", "2018-03-01T12:00+25:00",
+            "2023-02-31", "2023-02-29", "1900-02-29", "2018-04-31", "2018-03-32"};
+        for (String timestamp : invalid) {
+            LineParser parser = parser(timestamp + ",1,2\n", ',', '.');
+            parser.nextLine();
+            parser.timestamp();
+            parser.number();
+            parser.number();
+            assertFalse(timestamp, parser.endLine());
+        }
+    }
+
+    /**
+     * Test of epochDay method, of class LineParser.
+     */
+    @Test
+    public void testEpochDay() {
+        System.out.println("epochDay");
+        for (LocalDate date = LocalDate.of(1599, 12, 1); date.getYear() < 2401; date = date.plusDays(17)) {
+            assertEquals(date.toEpochDay(), LineParser.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        }
+    }
+
+    /**
+     * Test of lengthOfMonth method, of class LineParser.
+     */
+    @Test
+    public void testLengthOfMonth() {
+        System.out.println("lengthOfMonth");
+        for (int year = 1599; year <= 2401; year++) {
+            for (int month = 1; month <= 12; month++) {
+                assertEquals(YearMonth.of(year, month).lengthOfMonth(), LineParser.lengthOfMonth(year, month));
+            }
+        }
+    }
+
+    /**
+     * Test of line handling, of class LineParser.
+     */
+    @Test
+    public void testLines() {
+        System.out.println("lines");
+        LineParser parser = parser("\r\n1,2,3,extra\r\n\n4\t5\t6", '\t', '.');
+        assertTrue(parser.nextLine());
+        parser.timestamp();
+        assertFalse(parser.endLine());
+        assertTrue(parser.nextLine());
+        assertEquals(4, parser.timestamp());
+        assertEquals(5, parser.number(), 0);
+        assertEquals(6, parser.number(), 0);
+        assertTrue(parser.endLine());
+        assertFalse(parser.nextLine());
+        parser = parser("1,2\n", ',', '.');
+        parser.nextLine();
+        parser.timestamp();
+        parser.number();
+        parser.number();
+        assertFalse(parser.endLine());
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import eu.sergehelfrich.ersa.solver.Status;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class InstrumentationTest {
+
+    private final Instrumentation instrumentation = Instrumentation.getInstance();
+
+    @Before
+    public void setUp() {
+        instrumentation.reset();
+    }
+
+    /**
+     * Test of solver method, of class Instrumentation.
+     */
+    @Test
+    public void testSolver() {
+        System.out.println("solver");
+        Instrumentation.solver(Status.OK, 3);
+        Instrumentation.solver(Status.NO_CONVERGENCE, 11);
+        Instrumentation.solver(Status.OUT_OF_RANGE, 1);
+        assertEquals(3, instrumentation.getSolverCalls());
+        assertEquals(15, instrumentation.getSolverIterations());
+        assertEquals(1, instrumentation.getSolverNoConvergence());
+        assertEquals(1, instrumentation.getSolverOutOfRange());
+    }
+
+    /**
+     * Test of dewPoint method, of class Instrumentation.
+     */
+    @Test
+    public void testDewPoint() {
+        System.out.println("dewPoint");
+        SolverResult result = new SolverResult();
+        result.setStatus(Status.OK);
+        Instrumentation.dewPoint(System.nanoTime(), 50, 283.15, 273.21, result);
+        result.setStatus(Status.OUT_OF_RANGE);
+        Instrumentation.dewPoint(System.nanoTime(), 0, 283.15, Double.NaN, result);
+        assertEquals(2, instrumentation.getDewPointCalls());
+        assertEquals(1, instrumentation.getDewPointOutOfRange());
+        assertEquals(0, instrumentation.getDewPointNoConvergence());
+        assertTrue(instrumentation.getDewPointLatencyP50() > 0);
+        assertTrue(instrumentation.getDewPointLatencyP99() >= instrumentation.getDewPointLatencyP50());
+        assertEquals(2, Arrays.stream(instrumentation.getDewPointLatencyHistogram()).sum());
+    }
+
+    /**
+     * Test that the library does not record while disabled, of class
+     * Instrumentation.
+     */
+    @Test
+    public void testDisabled() throws Exception {
+        System.out.println("disabled");
+        assertFalse(Instrumentation.ENABLED);
+        assertFalse(instrumentation.isEnabled());
+        new Dew().dewPoint(50, 283.15);
+        assertEquals(0, instrumentation.getSolverCalls());
+        assertEquals(0, instrumentation.getDewPointCalls());
+    }
+
+    /**
+     * Test of register method, of class Instrumentation.
+     */
+    @Test
+    public void testRegister() throws Exception {
+        System.out.println("register");
+        Instrumentation.register();
+        Instrumentation.register();
+        Instrumentation.preservationIndexClamped();
+        Instrumentation.emcClamped();
+        Instrumentation.emcClamped();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Instrumentation.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "PreservationIndexClamped"));
+        assertEquals(2L, server.getAttribute(name, "EmcClamped"));
+        assertEquals(false, server.getAttribute(name, "Enabled"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, instrumentation.getEmcClamped());
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.instrumentation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Test of getPercentile method, of class LatencyHistogram.
+     */
+    @Test
+    public void testGetPercentile() {
+        System.out.println("getPercentile");
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(-1, histogram.getPercentile(50));
+        assertTrue(Double.isNaN(histogram.getMean()));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(128, histogram.getPercentile(50));
+        assertEquals(128, histogram.getPercentile(99));
+        assertEquals(8192, histogram.getPercentile(100));
+        assertEquals(149, histogram.getMean(), 1e-9);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    /**
+     * Test of bucket method, of class LatencyHistogram.
+     */
+    @Test
+    public void testBucket() {
+        System.out.println("bucket");
+        assertEquals(0, LatencyHistogram.bucket(-1));
+        assertEquals(0, LatencyHistogram.bucket(0));
+        assertEquals(1, LatencyHistogram.bucket(1));
+        assertEquals(2, LatencyHistogram.bucket(2));
+        assertEquals(2, LatencyHistogram.bucket(3));
+        assertEquals(11, LatencyHistogram.bucket(1024));
+        assertEquals(63, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+}
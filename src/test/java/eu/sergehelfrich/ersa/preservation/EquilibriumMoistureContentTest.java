@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class EquilibriumMoistureContentTest {
+
+    private static final long HOUR = Metrics.DAY / 24;
+
+    private static Metrics metrics;
+
+    public EquilibriumMoistureContentTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        metrics = new Metrics();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        metrics = null;
+    }
+
+    /**
+     * Test of add method with constant conditions, of class EquilibriumMoistureContent.
+     */
+    @Test
+    public void testAddConstant() {
+        System.out.println("add constant");
+        EquilibriumMoistureContent emc = new EquilibriumMoistureContent(metrics);
+        assertNull(emc.getMechanicalDamage());
+        for (int i = 0; i < 100; i++) {
+            emc.add(i * HOUR, 31.78, 62.84);
+        }
+        assertEquals(11.1F, emc.getEmc(), 0);
+        assertEquals(11.1F, emc.getMinimum(), 0);
+        assertEquals(11.1F, emc.getMaximum(), 0);
+        assertEquals(0, emc.getDimensionalChange(), 0);
+        assertEquals(Risk.OK, emc.getMechanicalDamage());
+        assertEquals(Risk.RISK, emc.getMetalCorrosion());
+        assertEquals(Risk.GOOD, emc.getDimensionalChangeRisk());
+    }
+
+    /**
+     * Test of add method with a sliding window, of class EquilibriumMoistureContent.
+     */
+    @Test
+    public void testAddWindow() {
+        System.out.println("add window");
+        EquilibriumMoistureContent emc = new EquilibriumMoistureContent(metrics, 10 * Metrics.DAY);
+        long t = 0;
+        for (; t < 40 * Metrics.DAY; t += HOUR) {
+            emc.add(t, 20, 20);
+        }
+        float dry = metrics.emc(20, 20);
+        assertEquals(dry, emc.getMinimum(), 0);
+        for (; t < 80 * Metrics.DAY; t += HOUR) {
+            emc.add(t, 20, 80);
+        }
+        float wet = metrics.emc(20, 80);
+        // the lagged humidity has caught up and the dry period left the window
+        assertEquals(wet, emc.getMinimum(), 0);
+        assertEquals(wet, emc.getMaximum(), 0);
+        assertEquals(Risk.RISK, emc.getMechanicalDamage());
+    }
+
+    /**
+     * Test of add method with a rising and falling humidity, of class EquilibriumMoistureContent.
+     */
+    @Test
+    public void testAddRange() {
+        System.out.println("add range");
+        EquilibriumMoistureContent emc = new EquilibriumMoistureContent(metrics);
+        long t = 0;
+        for (; t < 40 * Metrics.DAY; t += HOUR) {
+            emc.add(t, 20, 30);
+        }
+        for (; t < 80 * Metrics.DAY; t += HOUR) {
+            emc.add(t, 20, 70);
+        }
+        assertEquals(metrics.emc(20, 30), emc.getMinimum(), 0);
+        assertEquals(metrics.emc(20, 70), emc.getMaximum(), 0);
+        assertEquals(metrics.dimensionalChange(metrics.emc(20, 30), metrics.emc(20, 70)), emc.getDimensionalChange(), 0);
+    }
+
+}
@@ -18,6 +18,9 @@ package eu.sergehelfrich.ersa.preservation;
 
 import eu.sergehelfrich.ersa.Scale;
 import eu.sergehelfrich.ersa.Temperature;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -68,6 +71,11 @@ public class MetricsTest {
         int expResult = 184;
         int result = metrics.preservationIndex(temperature, relativeHumidity);
         assertEquals(expResult, result);
+
+        temperature = new Temperature(43.484, Scale.FAHRENHEIT);
+        result = metrics.preservationIndex(temperature, relativeHumidity);
+        assertEquals(expResult, result);
+        assertEquals(Scale.FAHRENHEIT, temperature.getScale());
     }
 
     /**
@@ -133,6 +141,108 @@ public class MetricsTest {
         assertEquals(expResult, result, 0.0);      
     }
 
+    /**
+     * Test of mold and emc methods with relative humidity out of range, of
+     * class Metrics.
+     */
+    @Test
+    public void testClamping() {
+        System.out.println("clamping");
+        assertEquals(metrics.mold(20, 100), metrics.mold(20, 120));
+        assertTrue(metrics.mold(20, 120) > 0);
+        assertEquals(metrics.emc(20, 100), metrics.emc(20, 130), 0);
+        assertEquals(metrics.emc(20, 0), metrics.emc(20, -10), 0);
+        // not the first column of the next temperature row
+        assertEquals(metrics.emc(20, 100), metrics.emc(20, 101), 0);
+        assertEquals(metrics.emc(-20, 50), metrics.emc(-40, 50), 0);
+        assertEquals(metrics.emc(65, 50), metrics.emc(80, 50), 0);
+        double[] temperature = {20, 20, 20};
+        double[] relativeHumidity = {120, 130, -10};
+        int[] mold = new int[3];
+        float[] emc = new float[3];
+        metrics.mold(temperature, relativeHumidity, mold);
+        metrics.emc(temperature, relativeHumidity, emc);
+        assertEquals(metrics.mold(20, 100), mold[0]);
+        assertEquals(metrics.emc(20, 100), emc[1], 0);
+        assertEquals(metrics.emc(20, 0), emc[2], 0);
+        float[] floatTemperature = {20, 20, 20};
+        float[] floatRelativeHumidity = {120, 130, -10};
+        metrics.mold(floatTemperature, floatRelativeHumidity, mold);
+        metrics.emc(floatTemperature, floatRelativeHumidity, emc);
+        assertEquals(metrics.mold(20, 100), mold[0]);
+        assertEquals(metrics.emc(20, 100), emc[1], 0);
+        assertEquals(metrics.emc(20, 0), emc[2], 0);
+    }
+
+    /**
+     * Test of the batch methods, of class Metrics.
+     */
+    @Test
+    public void testBatch() {
+        System.out.println("batch");
+        double[] temperature = {6.38, 20.4, 25, -30, 70};
+        double[] relativeHumidity = {62.84, 85.6, 99, 50, 10};
+        int[] preservationIndex = new int[5];
+        int[] mold = new int[5];
+        float[] emc = new float[5];
+        metrics.preservationIndex(temperature, relativeHumidity, preservationIndex);
+        metrics.mold(temperature, relativeHumidity, mold);
+        metrics.emc(temperature, relativeHumidity, emc);
+        for (int i = 0; i < temperature.length; i++) {
+            assertEquals(metrics.preservationIndex(temperature[i], relativeHumidity[i]), preservationIndex[i]);
+            assertEquals(metrics.mold(temperature[i], relativeHumidity[i]), mold[i]);
+            assertEquals(metrics.emc(temperature[i], relativeHumidity[i]), emc[i], 0);
+        }
+        DoubleBuffer t = DoubleBuffer.wrap(temperature, 1, 3);
+        DoubleBuffer rh = DoubleBuffer.wrap(relativeHumidity, 1, 3);
+        int[] bufferMold = new int[3];
+        metrics.mold(t, rh, bufferMold);
+        assertEquals(1, t.position());
+        assertArrayEquals(new int[]{mold[1], mold[2], mold[3]}, bufferMold);
+    }
+
+    /**
+     * Test of the float batch methods, of class Metrics.
+     */
+    @Test
+    public void testBatchFloat() {
+        System.out.println("batch float");
+        float[] temperature = {6.4F, 20.4F, 24.5F, -30, 70, 30.5F};
+        float[] relativeHumidity = {62.8F, 85.6F, 99, 50, 10, 75.5F};
+        int[] preservationIndex = new int[6];
+        int[] mold = new int[6];
+        float[] emc = new float[6];
+        metrics.preservationIndex(temperature, relativeHumidity, preservationIndex);
+        metrics.mold(temperature, relativeHumidity, mold);
+        metrics.emc(temperature, relativeHumidity, emc);
+        for (int i = 0; i < temperature.length; i++) {
+            assertEquals(metrics.preservationIndex(temperature[i], relativeHumidity[i]), preservationIndex[i]);
+            assertEquals(metrics.mold(temperature[i], relativeHumidity[i]), mold[i]);
+            assertEquals(metrics.emc(temperature[i], relativeHumidity[i]), emc[i], 0);
+        }
+        FloatBuffer t = FloatBuffer.wrap(temperature, 1, 3);
+        FloatBuffer rh = FloatBuffer.wrap(relativeHumidity, 1, 3);
+        int[] bufferPreservationIndex = new int[3];
+        int[] bufferMold = new int[3];
+        float[] bufferEmc = new float[3];
+        metrics.preservationIndex(t, rh, bufferPreservationIndex);
+        metrics.mold(t, rh, bufferMold);
+        metrics.emc(t, rh, bufferEmc);
+        assertEquals(1, t.position());
+        assertArrayEquals(Arrays.copyOfRange(preservationIndex, 1, 4), bufferPreservationIndex);
+        assertArrayEquals(Arrays.copyOfRange(mold, 1, 4), bufferMold);
+        assertArrayEquals(Arrays.copyOfRange(emc, 1, 4), bufferEmc, 0);
+    }
+
+    /**
+     * Test of the batch methods with mismatched arrays, of class Metrics.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchLength() {
+        System.out.println("batchLength");
+        metrics.emc(new double[3], new double[2], new float[3]);
+    }
+
     /**
      * Test of moldRisk method, of class Metrics.
      */
@@ -215,5 +325,26 @@ public class MetricsTest {
         result = metrics.metalCorrosion(emc);
         assertEquals(expResult, result);
     }
-       
+
+    /**
+     * Test of dimensionalChange method, of class Metrics.
+     */
+    @Test
+    public void testDimensionalChange() {
+        System.out.println("dimensionalChange");
+        assertEquals(0, metrics.dimensionalChange(8F, 8F), 0);
+        assertEquals(3 * Metrics.DIMENSIONAL_CHANGE_COEFFICIENT, metrics.dimensionalChange(7F, 10F), 1e-6);
+    }
+
+    /**
+     * Test of dimensionalChangeRisk method, of class Metrics.
+     */
+    @Test
+    public void testDimensionalChangeRisk() {
+        System.out.println("dimensionalChangeRisk");
+        assertEquals(Risk.GOOD, metrics.dimensionalChangeRisk(0.2F));
+        assertEquals(Risk.OK, metrics.dimensionalChangeRisk(1F));
+        assertEquals(Risk.RISK, metrics.dimensionalChangeRisk(2F));
+    }
+
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class MoldRiskFactorTest {
+
+    private static Metrics metrics;
+
+    public MoldRiskFactorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        metrics = new Metrics();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        metrics = null;
+    }
+
+    /**
+     * Test of add method, of class MoldRiskFactor.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        MoldRiskFactor mrf = new MoldRiskFactor(metrics);
+        // 4 days to germination
+        assertEquals(4, metrics.mold(44, 100));
+        mrf.add(0, 44, 100);
+        assertEquals(0.5, mrf.add(2 * Metrics.DAY, 20, 50), 1e-9);
+        // no mold risk, the sum is kept
+        assertEquals(0.5, mrf.add(5 * Metrics.DAY, 44, 100), 1e-9);
+        assertEquals(0.75, mrf.add(6 * Metrics.DAY, 44, 100), 1e-9);
+        assertEquals(0, mrf.add(7 * Metrics.DAY, 44, 100), 1e-9);
+        assertEquals(1, mrf.getResets());
+        assertEquals(1, mrf.getPeak(), 1e-9);
+        assertEquals(4, mrf.getMold());
+    }
+
+    /**
+     * Test of add method with an interval covering several germinations, of
+     * class MoldRiskFactor.
+     */
+    @Test
+    public void testAddLongGap() {
+        System.out.println("add long gap");
+        MoldRiskFactor mrf = new MoldRiskFactor(metrics);
+        mrf.add(0, 44, 100);
+        // 10.5 days at 4 days to germination
+        assertEquals(0.625, mrf.add(10 * Metrics.DAY + Metrics.DAY / 2, 44, 100), 1e-9);
+        assertEquals(2, mrf.getResets());
+        assertEquals(0.75, mrf.add(11 * Metrics.DAY, 44, 100), 1e-9);
+        assertEquals(0.125, mrf.add(12 * Metrics.DAY + Metrics.DAY / 2, 44, 100), 1e-9);
+        assertEquals(3, mrf.getResets());
+    }
+
+    /**
+     * Test of add method without mold risk, of class MoldRiskFactor.
+     */
+    @Test
+    public void testAddNoRisk() {
+        System.out.println("add no risk");
+        MoldRiskFactor mrf = new MoldRiskFactor(metrics);
+        for (int i = 0; i < 100; i++) {
+            mrf.add(i * Metrics.DAY, 20, 50);
+        }
+        assertEquals(0, mrf.getMoldRiskFactor(), 0);
+        assertEquals(0, mrf.getPeak(), 0);
+        assertEquals(0, mrf.getResets());
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class MovingAverageTest {
+
+    public MovingAverageTest() {
+    }
+
+    /**
+     * Test of add method, of class MovingAverage.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        MovingAverage average = new MovingAverage(100, 10);
+        assertTrue(Double.isNaN(average.getAverage()));
+        average.add(0, 1, 1);
+        average.add(50, 3, 1);
+        assertEquals(2, average.getAverage(), 1e-9);
+        average.add(55, 6, 2);
+        assertEquals(4, average.getAverage(), 1e-9);
+        // the first sample leaves the window
+        average.add(105, 0, 0);
+        assertEquals(5, average.getAverage(), 1e-9);
+        // all samples leave the window
+        average.add(1000, 7, 1);
+        assertEquals(7, average.getAverage(), 1e-9);
+        // too old
+        average.add(0, 100, 1);
+        assertEquals(7, average.getAverage(), 1e-9);
+    }
+
+}
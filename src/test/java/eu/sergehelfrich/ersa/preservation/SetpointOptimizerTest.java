@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class SetpointOptimizerTest {
+
+    private static Metrics metrics;
+    private static SetpointOptimizer optimizer;
+
+    public SetpointOptimizerTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        metrics = new Metrics();
+        optimizer = new SetpointOptimizer(metrics);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        metrics = null;
+        optimizer = null;
+    }
+
+    /**
+     * Heating, cooling and humidity control against an outdoor climate of 10
+     * deg. C and 70 %
+     */
+    private static double cost(double temperature, double relativeHumidity) {
+        return Math.abs(temperature - 10) * 3 + Math.abs(relativeHumidity - 70) + (temperature < 5 ? 20 : 0);
+    }
+
+    private boolean feasible(int temperature, int relativeHumidity) {
+        return metrics.mold(temperature, relativeHumidity) == 0
+                && metrics.mechanicalDamage(metrics.emc(temperature, relativeHumidity)) == Risk.OK;
+    }
+
+    private List<Setpoint> bruteForce(EnergyCost cost, int minPreservationIndex) {
+        List<Setpoint> feasible = new ArrayList<>();
+        for (int t = SetpointOptimizer.MIN_TEMPERATURE; t <= SetpointOptimizer.MAX_TEMPERATURE; t++) {
+            for (int rh = SetpointOptimizer.MIN_RELATIVE_HUMIDITY; rh <= SetpointOptimizer.MAX_RELATIVE_HUMIDITY; rh++) {
+                if (feasible(t, rh) && metrics.preservationIndex(t, rh) >= minPreservationIndex) {
+                    feasible.add(new Setpoint(t, rh, metrics.preservationIndex(t, rh), metrics.emc(t, rh), cost.cost(t, rh)));
+                }
+            }
+        }
+        List<Setpoint> front = new ArrayList<>();
+        for (Setpoint a : feasible) {
+            boolean dominated = false;
+            for (Setpoint b : feasible) {
+                boolean noWorse = b.getPreservationIndex() >= a.getPreservationIndex() && b.getCost() <= a.getCost();
+                boolean better = b.getPreservationIndex() > a.getPreservationIndex() || b.getCost() < a.getCost();
+                // of equal setpoints the one with the lowest temperature and relative humidity is kept
+                boolean earlier = b.getTemperature() < a.getTemperature()
+                        || b.getTemperature() == a.getTemperature() && b.getRelativeHumidity() < a.getRelativeHumidity();
+                if (noWorse && (better || earlier)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(a);
+            }
+        }
+        front.sort((a, b) -> b.getPreservationIndex() - a.getPreservationIndex());
+        return front;
+    }
+
+    private static void assertSetpoints(List<Setpoint> expected, List<Setpoint> result) {
+        assertEquals(expected.size(), result.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), result.get(i).toString());
+        }
+    }
+
+    /**
+     * Test of the table monotonicity the optimizer relies on.
+     */
+    @Test
+    public void testMonotonic() {
+        System.out.println("monotonic");
+        for (int t = SetpointOptimizer.MIN_TEMPERATURE; t <= SetpointOptimizer.MAX_TEMPERATURE; t++) {
+            for (int rh = SetpointOptimizer.MIN_RELATIVE_HUMIDITY; rh < SetpointOptimizer.MAX_RELATIVE_HUMIDITY; rh++) {
+                assertTrue(metrics.preservationIndex(t, rh + 1) <= metrics.preservationIndex(t, rh));
+                assertTrue(metrics.emc(t, rh + 1) >= metrics.emc(t, rh));
+                assertFalse(metrics.mold(t, rh) > 0 && metrics.mold(t, rh + 1) == 0);
+            }
+        }
+    }
+
+    /**
+     * Test of optimize method, of class SetpointOptimizer.
+     */
+    @Test
+    public void testOptimize() {
+        System.out.println("optimize");
+        AtomicInteger evaluations = new AtomicInteger();
+        List<Setpoint> result = optimizer.optimize((t, rh) -> {
+            evaluations.incrementAndGet();
+            assertTrue(feasible((int) t, (int) rh));
+            return cost(t, rh);
+        });
+        assertFalse(result.isEmpty());
+        assertSetpoints(bruteForce(SetpointOptimizerTest::cost, 0), result);
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i).getPreservationIndex() < result.get(i - 1).getPreservationIndex());
+            assertTrue(result.get(i).getCost() < result.get(i - 1).getCost());
+        }
+        assertTrue(evaluations.get() < 89 * 90);
+    }
+
+    /**
+     * Test of optimize method with a constant cost, of class
+     * SetpointOptimizer.
+     */
+    @Test
+    public void testOptimizeConstant() {
+        System.out.println("optimize constant");
+        List<Setpoint> result = optimizer.optimize((t, rh) -> 1);
+        assertEquals(1, result.size());
+        assertSetpoints(bruteForce((t, rh) -> 1, 0), result);
+    }
+
+    /**
+     * Test of optimize method with a restricted range, of class
+     * SetpointOptimizer.
+     */
+    @Test
+    public void testOptimizeRange() {
+        System.out.println("optimize range");
+        List<Setpoint> result = optimizer.optimize(SetpointOptimizerTest::cost, 15, 25, 40, 60, 40);
+        assertFalse(result.isEmpty());
+        for (Setpoint setpoint : result) {
+            assertTrue(setpoint.getTemperature() >= 15 && setpoint.getTemperature() <= 25);
+            assertTrue(setpoint.getRelativeHumidity() >= 40 && setpoint.getRelativeHumidity() <= 60);
+            assertTrue(setpoint.getPreservationIndex() >= 40);
+        }
+        assertSetpoints(bruteForce(SetpointOptimizerTest::cost, 100), optimizer.optimize(SetpointOptimizerTest::cost,
+                -100, 100, 0, 100, 100));
+        assertTrue(optimizer.optimize(SetpointOptimizerTest::cost, 30, 20, 40, 60, 0).isEmpty());
+        assertTrue(optimizer.optimize((t, rh) -> Double.NaN).isEmpty());
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class TablesTest {
+
+    public TablesTest() {
+    }
+
+    /**
+     * Test of pi method, of class Tables.
+     */
+    @Test
+    public void testPi() {
+        System.out.println("pi");
+        int[] table = Tables.pi();
+        assertEquals(8010 + 44 * 36, table.length);
+        assertEquals(9999, table[0]);
+        assertSame(table, Tables.pi());
+    }
+
+    /**
+     * Test of emc method, of class Tables.
+     */
+    @Test
+    public void testEmc() {
+        System.out.println("emc");
+        float[] table = Tables.emc();
+        assertEquals(86 * 101, table.length);
+        assertEquals(0F, table[0], 0);
+        assertSame(table, Tables.emc());
+    }
+
+    /**
+     * Test of the binary tables against their JSON sources in src/tables, of
+     * class Tables.
+     */
+    @Test
+    public void testSources() throws IOException {
+        System.out.println("sources");
+        String[] pi = source("pi.json");
+        int[] piTable = Tables.pi();
+        assertEquals(pi.length, piTable.length);
+        for (int i = 0; i < pi.length; i++) {
+            assertEquals(Integer.parseInt(pi[i]), piTable[i]);
+        }
+        String[] emc = source("emc.json");
+        float[] emcTable = Tables.emc();
+        assertEquals(emc.length, emcTable.length);
+        for (int i = 0; i < emc.length; i++) {
+            assertEquals(Float.parseFloat(emc[i]), emcTable[i], 0);
+        }
+    }
+
+    private static String[] source(String name) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get("src", "tables", name)), StandardCharsets.UTF_8).trim();
+        return json.substring(1, json.length() - 1).split("\\s*,\\s*");
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.preservation;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class TimeWeightedPreservationIndexTest {
+
+    private static final long HOUR = Metrics.DAY / 24;
+
+    private static Metrics metrics;
+
+    public TimeWeightedPreservationIndexTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        metrics = new Metrics();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        metrics = null;
+    }
+
+    /**
+     * Test of add method with constant conditions, of class TimeWeightedPreservationIndex.
+     */
+    @Test
+    public void testAddConstant() {
+        System.out.println("add constant");
+        TimeWeightedPreservationIndex twpi = new TimeWeightedPreservationIndex(metrics);
+        assertTrue(Double.isNaN(twpi.getTimeWeightedPreservationIndex()));
+        for (int i = 0; i < 24 * 10; i++) {
+            twpi.add(i * HOUR, 6.38, 62.84);
+        }
+        assertEquals(184, twpi.getTimeWeightedPreservationIndex(), 1e-9);
+        assertEquals(184, twpi.getPreservationIndex());
+    }
+
+    /**
+     * Test of add method with irregular intervals, of class TimeWeightedPreservationIndex.
+     */
+    @Test
+    public void testAddIrregular() {
+        System.out.println("add irregular");
+        TimeWeightedPreservationIndex twpi = new TimeWeightedPreservationIndex(metrics);
+        twpi.add(0, 20, 50);
+        twpi.add(HOUR / 2, 20, 50);
+        twpi.add(3 * HOUR, 20, 50);
+        assertEquals(metrics.preservationIndex(20, 50), twpi.getTimeWeightedPreservationIndex(), 1e-9);
+        assertEquals(20, twpi.getLaggedTemperature(), 1e-9);
+        assertEquals(50, twpi.getLaggedRelativeHumidity(), 1e-9);
+    }
+
+    /**
+     * Test of add method with a change in temperature, of class TimeWeightedPreservationIndex.
+     */
+    @Test
+    public void testAddWeighting() {
+        System.out.println("add weighting");
+        TimeWeightedPreservationIndex twpi = new TimeWeightedPreservationIndex(metrics);
+        long t = 0;
+        for (; t < 10 * Metrics.DAY; t += HOUR) {
+            twpi.add(t, 10, 50);
+        }
+        for (; t < 20 * Metrics.DAY; t += HOUR) {
+            twpi.add(t, 30, 50);
+        }
+        double cold = metrics.preservationIndex(10, 50);
+        double warm = metrics.preservationIndex(30, 50);
+        double result = twpi.getTimeWeightedPreservationIndex();
+        assertTrue(result < (cold + warm) / 2);
+        assertTrue(result > warm);
+    }
+
+    /**
+     * Test of add method with samples out of order, of class TimeWeightedPreservationIndex.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddOutOfOrder() {
+        System.out.println("add out of order");
+        TimeWeightedPreservationIndex twpi = new TimeWeightedPreservationIndex(metrics);
+        twpi.add(HOUR, 20, 50);
+        twpi.add(0, 20, 50);
+    }
+
+}
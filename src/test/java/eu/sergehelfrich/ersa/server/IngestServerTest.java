@@ -0,0 +1,377 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.server;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Temperature;
+import eu.sergehelfrich.ersa.fleet.SensorSnapshot;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class IngestServerTest {
+
+    private final Dew dew = new Dew();
+    private final Metrics metrics = new Metrics();
+    private IngestServer server;
+    private InetSocketAddress http;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new IngestServer(dew, metrics);
+        http = server.startHttp(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * Test of POST /readings, of class IngestServer.
+     */
+    @Test
+    public void testPostReadings() throws IOException {
+        System.out.println("post readings");
+        try (Client client = new Client(http)) {
+            Response response = client.send("POST", "/readings", "a,1000,20.5,55\nb,1000,-5,80\r\n\na,2000,21,56\n");
+            assertEquals(200, response.status);
+            String[] lines = response.body.split("\n");
+            assertEquals(3, lines.length);
+            String[] fields = lines[0].split(",");
+            assertEquals(11, fields.length);
+            assertEquals("a", fields[0]);
+            assertEquals("1000", fields[1]);
+            double dewPoint = dew.dewPoint(55, 20.5 + Temperature.CELSIUS_OFFSET, new SolverResult())
+                    - Temperature.CELSIUS_OFFSET;
+            assertEquals(dewPoint, Double.parseDouble(fields[2]), 1e-9);
+            assertEquals("0", fields[3]);
+            assertEquals(metrics.preservationIndex(20.5, 55), Integer.parseInt(fields[4]));
+            assertEquals(metrics.mold(20.5, 55), Integer.parseInt(fields[5]));
+            assertEquals(metrics.emc(20.5, 55), Float.parseFloat(fields[6]), 0);
+            assertEquals(metrics.naturalAging(metrics.preservationIndex(20.5, 55)).name(), fields[7]);
+            assertEquals(metrics.metalCorrosion(metrics.emc(20.5, 55)).name(), fields[10]);
+            assertTrue(lines[1].startsWith("b,1000,"));
+        }
+        assertEquals(3, server.getReadingCount());
+        SensorSnapshot snapshot = server.getFleet().snapshot("a");
+        assertEquals(2, snapshot.getCount());
+        assertEquals(2000, snapshot.getTimestamp());
+    }
+
+    /**
+     * Test of GET /sensors, of class IngestServer.
+     */
+    @Test
+    public void testGetSensor() throws IOException {
+        System.out.println("get sensor");
+        try (Client client = new Client(http)) {
+            assertEquals(200, client.send("POST", "/readings", "room 1,1000,20,50\n").status);
+            Response response = client.send("GET", "/sensors/room%201", "");
+            assertEquals(200, response.status);
+            assertTrue(response.body.startsWith("room 1,1,1000,20.0,50.0,"));
+            assertEquals(404, client.send("GET", "/sensors/unknown", "").status);
+        }
+    }
+
+    /**
+     * Test of malformed and unsupported requests, of class IngestServer.
+     */
+    @Test
+    public void testErrors() throws IOException {
+        System.out.println("errors");
+        try (Client client = new Client(http)) {
+            assertEquals(400, client.send("POST", "/readings", "a,1000,20,50\na,x,20,50\n").status);
+            assertEquals(405, client.send("GET", "/readings", "").status);
+            assertEquals(405, client.send("DELETE", "/sensors/a", "").status);
+            assertEquals(404, client.send("GET", "/", "").status);
+            assertEquals(400, client.send("GET", "/sensors/%zz", "").status);
+            assertEquals(0, server.getReadingCount());
+            // an older reading is answered but not added
+            assertEquals(200, client.send("POST", "/readings", "a,2000,20,50\na,1000,20,50\n").status);
+            assertEquals(1, server.getReadingCount());
+            assertEquals(1, server.getRejectedCount());
+        }
+        try (Client client = new Client(http)) {
+            client.write("POST /readings HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n");
+            Response response = client.read();
+            assertEquals(411, response.status);
+            assertEquals(-1, client.in.read());
+        }
+        try (Client client = new Client(http)) {
+            // the client closes the stream within the header
+            client.write("GET /sensors/x HTTP/1.1\r\n");
+            client.socket.shutdownOutput();
+            assertEquals(400, client.read().status);
+            assertEquals(-1, client.in.read());
+        }
+        try (Client client = new Client(http)) {
+            // the client closes the stream within a header line
+            client.write("GET /sensors/x HTTP/1.1\r\nHost: loc");
+            client.socket.shutdownOutput();
+            assertEquals(400, client.read().status);
+            assertEquals(-1, client.in.read());
+        }
+        try (Client client = new Client(http)) {
+            // the client closes the stream within the body
+            client.write("POST /readings HTTP/1.1\r\nContent-Length: 100\r\n\r\na,1000,20,50\n");
+            client.socket.shutdownOutput();
+            assertEquals(400, client.read().status);
+            assertEquals(-1, client.in.read());
+        }
+        // the truncated body was not added
+        assertEquals(1, server.getReadingCount());
+    }
+
+    /**
+     * Test of HTTP/1.0 keep-alive connections, of class IngestServer.
+     */
+    @Test
+    public void testHttp10() throws IOException {
+        System.out.println("http 1.0");
+        try (Client client = new Client(http)) {
+            client.write("GET /sensors/x HTTP/1.0\r\nConnection: keep-alive\r\n\r\n");
+            Response response = client.read();
+            assertEquals(404, response.status);
+            assertEquals("keep-alive", response.connection);
+            client.write("GET /sensors/x HTTP/1.0\r\n\r\n");
+            response = client.read();
+            assertEquals(404, response.status);
+            assertEquals("close", response.connection);
+            assertEquals(-1, client.in.read());
+        }
+    }
+
+    /**
+     * Test of readings with values that are not finite, of class
+     * IngestServer.
+     */
+    @Test
+    public void testNotFinite() throws IOException {
+        System.out.println("not finite");
+        try (Client client = new Client(http)) {
+            assertEquals(400, client.send("POST", "/readings", "s1,1000,NaN,50\n").status);
+            assertEquals(400, client.send("POST", "/readings", "s1,1000,20,Infinity\n").status);
+            assertEquals(400, client.send("POST", "/readings", "s1,1000,-Infinity,50\n").status);
+            assertEquals(400, client.send("POST", "/readings", "s1,1000,20,-1\n").status);
+            assertEquals(200, client.send("POST", "/readings", "s1,1000,20,0\n").status);
+        }
+        assertEquals(1, server.getReadingCount());
+        assertEquals(0, server.getFleet().snapshot("s1").getRelativeHumidity(), 0);
+    }
+
+    /**
+     * Test of keep-alive and pipelined requests, of class IngestServer.
+     */
+    @Test
+    public void testPipelining() throws IOException {
+        System.out.println("pipelining");
+        try (Client client = new Client(http)) {
+            client.write(Client.request("POST", "/readings", "a,1000,20,50\n")
+                    + Client.request("GET", "/sensors/a", ""));
+            assertEquals(200, client.read().status);
+            assertTrue(client.read().body.startsWith("a,1,1000,"));
+            assertEquals(1, server.getConnectionCount());
+        }
+    }
+
+    /**
+     * Test of UDP datagrams, of class IngestServer.
+     */
+    @Test
+    public void testUdp() throws Exception {
+        System.out.println("udp");
+        InetSocketAddress udp = server.startUdp(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        byte[] datagram = "a,1000,20,50\nmalformed\nb,1000,25,60\n".getBytes(StandardCharsets.UTF_8);
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.send(new DatagramPacket(datagram, datagram.length, udp));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getReadingCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, server.getReadingCount());
+        assertEquals(1, server.getRejectedCount());
+        assertEquals(25, server.getFleet().snapshot("b").getTemperature(), 0);
+    }
+
+    /**
+     * Load test on localhost: idle connections held open while clients post
+     * readings over keep-alive connections, of class IngestServer.
+     */
+    @Test
+    public void testLoad() throws Exception {
+        System.out.println("load");
+        int idle = 500;
+        int clients = 8;
+        int requests = 200;
+        int readings = 10;
+        List<Client> idleClients = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            for (int i = 0; i < idle; i++) {
+                idleClients.add(new Client(http));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (server.getConnectionCount() < idle && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(idle, server.getConnectionCount());
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                String sensor = "load" + c;
+                results.add(executor.submit(() -> {
+                    int lines = 0;
+                    try (Client client = new Client(http)) {
+                        long timestamp = 0;
+                        for (int r = 0; r < requests; r++) {
+                            StringBuilder body = new StringBuilder();
+                            for (int i = 0; i < readings; i++) {
+                                body.append(sensor).append(',').append(timestamp += 60_000).append(',')
+                                        .append(15 + i).append(',').append(40 + 3 * i).append('\n');
+                            }
+                            Response response = client.send("POST", "/readings", body.toString());
+                            assertEquals(200, response.status);
+                            lines += response.body.split("\n").length;
+                        }
+                    }
+                    return lines;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(requests * readings, (int) result.get());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format(Locale.ROOT, "%d requests, %.0f readings/s, %d idle connections, virtual %b",
+                    clients * requests, clients * requests * readings / seconds, idle, IngestServer.isVirtual()));
+            assertEquals((long) clients * requests * readings, server.getReadingCount());
+            assertEquals(requests * readings, server.getFleet().snapshot("load0").getCount());
+        } finally {
+            executor.shutdown();
+            for (Client client : idleClients) {
+                client.close();
+            }
+        }
+    }
+
+    private static class Response {
+
+        final int status;
+        final String connection;
+        final String body;
+
+        Response(int status, String connection, String body) {
+            this.status = status;
+            this.connection = connection;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Keep-alive HTTP/1.1 client
+     */
+    private static class Client implements AutoCloseable {
+
+        final Socket socket;
+        final InputStream in;
+        private final OutputStream out;
+
+        Client(InetSocketAddress address) throws IOException {
+            socket = new Socket(address.getAddress(), address.getPort());
+            socket.setSoTimeout(10000);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        }
+
+        static String request(String method, String path, String body) {
+            return method + " " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: "
+                    + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body;
+        }
+
+        Response send(String method, String path, String body) throws IOException {
+            write(request(method, path, body));
+            return read();
+        }
+
+        void write(String request) throws IOException {
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        Response read() throws IOException {
+            String status = line();
+            int length = 0;
+            String connection = null;
+            String header;
+            while (!(header = line()).isEmpty()) {
+                if (header.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                    length = Integer.parseInt(header.substring(15).trim());
+                } else if (header.toLowerCase(Locale.ROOT).startsWith("connection:")) {
+                    connection = header.substring(11).trim();
+                }
+            }
+            byte[] body = in.readNBytes(length);
+            return new Response(Integer.parseInt(status.split(" ")[1]), connection,
+                    new String(body, StandardCharsets.UTF_8));
+        }
+
+        private String line() throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("Unexpected end of stream");
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+}
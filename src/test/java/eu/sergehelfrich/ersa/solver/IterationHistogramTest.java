@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.solver;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class IterationHistogramTest {
+
+    /**
+     * Test of getPercentile method, of class IterationHistogram.
+     */
+    @Test
+    public void testGetPercentile() {
+        System.out.println("getPercentile");
+        IterationHistogram histogram = new IterationHistogram(10);
+        assertEquals(-1, histogram.getPercentile(50));
+        assertEquals(-1, histogram.getMax());
+        assertTrue(Double.isNaN(histogram.getMean()));
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3);
+        }
+        histogram.record(5);
+        histogram.record(20);
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getCount(10));
+        assertEquals(3, histogram.getPercentile(50));
+        assertEquals(3, histogram.getPercentile(98));
+        assertEquals(5, histogram.getPercentile(99));
+        assertEquals(10, histogram.getPercentile(100));
+        assertEquals(10, histogram.getMax());
+        assertEquals(3.09, histogram.getMean(), 1e-9);
+    }
+
+    /**
+     * Test of record method with a result, of class IterationHistogram.
+     */
+    @Test
+    public void testRecordResult() {
+        System.out.println("record result");
+        IterationHistogram histogram = new IterationHistogram();
+        SolverResult result = new SolverResult();
+        new Solver().solve((double x) -> x * x, 4, 5, result);
+        histogram.record(result);
+        assertEquals(1, histogram.getCount(result.getIterations()));
+        assertEquals(result.getIterations() + "\t1\n", histogram.toString());
+    }
+
+}
@@ -52,6 +52,149 @@ public class SolverTest {
         assertEquals(2, result, 0.001);
     }
     
+    /**
+     * Test of solve method with a result, of class Solver.
+     */
+    @Test
+    public void testSolveResult() {
+        System.out.println("solve result");
+        SolverResult result = new SolverResult();
+        assertEquals(2, solver.solve((double x) -> f(x), 6, 5, result), 0.001);
+        assertEquals(Status.OK, result.getStatus());
+        assertTrue(result.getIterations() > 0);
+
+        assertTrue(Double.isNaN(solver.solve((double x) -> f(x), 0, 5, result)));
+        assertEquals(Status.NO_CONVERGENCE, result.getStatus());
+
+        assertTrue(Double.isNaN(solver.solve((double x) -> Double.NaN, 0, 5, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+    }
+
+    /**
+     * Test of solve method when it does not converge, of class Solver.
+     */
+    @Test(expected = SolverException.class)
+    public void testSolveNoConvergence() throws Exception {
+        System.out.println("solve no convergence");
+        solver.solve((double x) -> f(x), 0, 5);
+    }
+
+    /**
+     * Test of solveNewton method, of class Solver.
+     */
+    @Test
+    public void testSolveNewton() throws Exception {
+        System.out.println("solveNewton");
+        double result = solver.solveNewton(new DifferentiableFunctionCallable() {
+            @Override
+            public double function(double x) {
+                return f(x);
+            }
+
+            @Override
+            public double derivative(double x, double y) {
+                return 2 * x;
+            }
+        }, 6, 5);
+        assertEquals(2, result, 0.001);
+    }
+
+    /**
+     * Test of solveHalley method, of class Solver.
+     */
+    @Test
+    public void testSolveHalley() throws Exception {
+        System.out.println("solveHalley");
+        double result = solver.solveHalley(new DifferentiableFunctionCallable() {
+            @Override
+            public double function(double x) {
+                return f(x);
+            }
+
+            @Override
+            public double derivative(double x, double y) {
+                return 2 * x;
+            }
+
+            @Override
+            public double secondDerivative(double x, double y, double dy) {
+                return 2;
+            }
+        }, 6, 5);
+        assertEquals(2, result, 0.001);
+    }
+
+    /**
+     * Test of solveBracketed method, of class Solver.
+     */
+    @Test
+    public void testSolveBracketed() throws Exception {
+        System.out.println("solveBracketed");
+        DifferentiableFunctionCallable square = differentiable(x -> f(x), x -> 2 * x);
+        assertEquals(2, solver.solveBracketed(square, 6, 5, 0, 10), 0.001);
+        SolverResult result = new SolverResult();
+        assertEquals(2, solver.solveBracketed(square, 6, 100, 1, 10, result), 0.001);
+        assertEquals(Status.OK, result.getStatus());
+        assertTrue(Double.isNaN(solver.solveBracketed(square, 200, 5, 1, 10, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+        assertTrue(Double.isNaN(solver.solveBracketed(square, 2.5, 5, 1, 10, result)));
+        assertEquals(Status.OUT_OF_RANGE, result.getStatus());
+        // a root within the tolerance of an end is found
+        assertEquals(1.00005, solver.solveBracketed(square, f(1.00005), 5, 1, 10, result), 0.001);
+        assertEquals(Status.OK, result.getStatus());
+    }
+
+    /**
+     * Test of solveBracketed method for functions where Newton's method
+     * fails, of class Solver.
+     */
+    @Test
+    public void testSolveBracketedBudget() {
+        System.out.println("solveBracketed budget");
+        int budget = Solver.getBracketedBudget(173, 678);
+        assertEquals(28, budget);
+        SolverResult result = new SolverResult();
+        // Newton's method diverges for a cube root
+        DifferentiableFunctionCallable cubeRoot = differentiable(x -> Math.cbrt(x - 300),
+                x -> 1 / (3 * Math.cbrt((x - 300) * (x - 300))));
+        // a step at the root, as at the ice/water switch, with a misleading derivative
+        DifferentiableFunctionCallable step = differentiable(x -> x < 273.15 ? x : x + 0.5, x -> 1e-3);
+        // a flat function with a zero derivative
+        DifferentiableFunctionCallable flat = differentiable(x -> x < 400 ? 0 : x - 400, x -> 0);
+        for (double x0 = 173; x0 <= 678; x0 += 5) {
+            assertEquals(300, solver.solveBracketed(cubeRoot, 0, x0, 173, 678, result), 0.03);
+            assertTrue(result.getIterations() <= budget);
+            assertEquals(273.15, solver.solveBracketed(step, 273.3, x0, 173, 678, result), 0.03);
+            assertEquals(Status.OK, result.getStatus());
+            assertTrue(result.getIterations() <= budget);
+            assertEquals(450, solver.solveBracketed(flat, 50, x0, 173, 678, result), 0.05);
+            assertTrue(result.getIterations() <= budget);
+        }
+        assertTrue(Double.isNaN(solver.solveBracketed(differentiable(x -> {
+            throw new SolverException("Failed");
+        }, x -> 1), 0, 300, 173, 678, result)));
+        assertEquals(Status.NO_CONVERGENCE, result.getStatus());
+    }
+
+    private interface Function {
+
+        double apply(double x) throws SolverException;
+    }
+
+    private static DifferentiableFunctionCallable differentiable(Function function, Function derivative) {
+        return new DifferentiableFunctionCallable() {
+            @Override
+            public double function(double x) throws SolverException {
+                return function.apply(x);
+            }
+
+            @Override
+            public double derivative(double x, double y) throws SolverException {
+                return derivative.apply(x);
+            }
+        };
+    }
+
     double f(double x) {
         return Math.pow(x, 2) + 2;
     }
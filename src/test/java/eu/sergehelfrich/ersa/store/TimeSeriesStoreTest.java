@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package eu.sergehelfrich.ersa.store;
+
+import eu.sergehelfrich.ersa.Dew;
+import eu.sergehelfrich.ersa.Scale;
+import eu.sergehelfrich.ersa.Temperature;
+import eu.sergehelfrich.ersa.preservation.Metrics;
+import eu.sergehelfrich.ersa.solver.SolverResult;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author helfrich
+ */
+public class TimeSeriesStoreTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private Path directory;
+
+    public TimeSeriesStoreTest() {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ersa");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static double temperature(int i) {
+        return (i % 400 - 100) / 10.0;
+    }
+
+    private static double relativeHumidity(int i) {
+        return 30 + i % 60;
+    }
+
+    /**
+     * Test of append and scan methods, of class TimeSeriesStore.
+     */
+    @Test
+    public void testAppendScan() throws IOException {
+        System.out.println("append scan");
+        int rows = 3 * SensorColumns.INITIAL_CAPACITY + 5;
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            for (int i = 0; i < rows; i++) {
+                store.append("a", i * MINUTE, temperature(i), relativeHumidity(i));
+            }
+            store.append("b", 0, 20, 50);
+            assertEquals(rows, store.size("a"));
+            assertEquals(1, store.size("b"));
+            assertEquals(0, store.size("c"));
+            Scan scan = store.scan("a", 10 * MINUTE - 1, 5000 * MINUTE);
+            assertEquals(4990, scan.size());
+            LongBuffer timestamps = scan.getTimestamps();
+            DoubleBuffer temperature = scan.getTemperature();
+            DoubleBuffer relativeHumidity = scan.getRelativeHumidity();
+            for (int i = 0; i < scan.size(); i++) {
+                assertEquals((i + 10) * MINUTE, timestamps.get(i));
+                assertEquals(temperature(i + 10), temperature.get(i), 0);
+                assertEquals(relativeHumidity(i + 10), relativeHumidity.get(i), 0);
+            }
+            assertTrue(temperature.isReadOnly());
+            assertEquals(rows, store.scan("a", Long.MIN_VALUE, Long.MAX_VALUE).size());
+            assertEquals(0, store.scan("a", 20 * MINUTE, 10 * MINUTE).size());
+            assertEquals(0, store.scan("c", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    /**
+     * Test of reopening a store, of class TimeSeriesStore.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        System.out.println("reopen");
+        String sensorId = "Room 1/Case A";
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            for (int i = 0; i < 100; i++) {
+                store.append(sensorId, i * MINUTE, temperature(i), relativeHumidity(i));
+            }
+        }
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            assertEquals(1, store.getSensorIds().size());
+            assertTrue(store.getSensorIds().contains(sensorId));
+            assertEquals(100, store.size(sensorId));
+            store.append(sensorId, 100 * MINUTE, 21, 51);
+            Scan scan = store.scan(sensorId, 99 * MINUTE, Long.MAX_VALUE);
+            assertEquals(2, scan.size());
+            assertEquals(temperature(99), scan.getTemperature().get(0), 0);
+            assertEquals(51, scan.getRelativeHumidity().get(1), 0);
+        }
+    }
+
+    /**
+     * Test of append method with readings out of order, of class
+     * TimeSeriesStore.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAppendOutOfOrder() throws IOException {
+        System.out.println("append out of order");
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            store.append("a", MINUTE, 20, 50);
+            store.append("a", 0, 20, 50);
+        }
+    }
+
+    /**
+     * Test of append method with an empty sensor ID, of class
+     * TimeSeriesStore.
+     */
+    @Test
+    public void testAppendEmptyId() throws IOException {
+        System.out.println("append empty ID");
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            try {
+                store.append("", 0, 20, 50);
+                fail("Empty sensor ID accepted");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            assertTrue(store.getSensorIds().isEmpty());
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    /**
+     * Test of close method, of class TimeSeriesStore.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws IOException {
+        System.out.println("closed");
+        TimeSeriesStore store = new TimeSeriesStore(directory);
+        store.close();
+        store.append("a", 0, 20, 50);
+    }
+
+    /**
+     * Test of opening a store with a corrupt column file, of class
+     * TimeSeriesStore.
+     */
+    @Test(expected = IOException.class)
+    public void testCorrupt() throws IOException {
+        System.out.println("corrupt");
+        Path sensor = Files.createDirectory(directory.resolve("a"));
+        Files.write(sensor.resolve("timestamp.col"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        new TimeSeriesStore(directory).close();
+    }
+
+    /**
+     * Test of feeding a scan into the batch paths, of class TimeSeriesStore.
+     */
+    @Test
+    public void testBatch() throws IOException {
+        System.out.println("batch");
+        Dew dew = new Dew();
+        Metrics metrics = new Metrics();
+        try (TimeSeriesStore store = new TimeSeriesStore(directory)) {
+            for (int i = 0; i < 500; i++) {
+                store.append("a", i * MINUTE, temperature(i), relativeHumidity(i));
+            }
+            Scan scan = store.scan("a", 100 * MINUTE, 300 * MINUTE);
+            double[] dewPoint = new double[scan.size()];
+            int[] status = new int[scan.size()];
+            int[] preservationIndex = new int[scan.size()];
+            dew.dewPoint(scan.getRelativeHumidity(), scan.getTemperature(), Scale.CELSIUS, dewPoint, status);
+            metrics.preservationIndex(scan.getTemperature(), scan.getRelativeHumidity(), preservationIndex);
+            SolverResult result = new SolverResult();
+            for (int i = 0; i < scan.size(); i++) {
+                double temperature = temperature(i + 100);
+                double relativeHumidity = relativeHumidity(i + 100);
+                assertEquals(dew.dewPoint(relativeHumidity, temperature + Temperature.CELSIUS_OFFSET, result),
+                        dewPoint[i] + Temperature.CELSIUS_OFFSET, 1e-9);
+                assertEquals(metrics.preservationIndex(temperature, relativeHumidity), preservationIndex[i]);
+            }
+        }
+    }
+
+    /**
+     * Test of encode and decode methods, of class TimeSeriesStore.
+     */
+    @Test
+    public void testEncode() {
+        System.out.println("encode");
+        String[] sensorIds = {"a", "sensor-1_b", "Room 1/Case A", "..", "K\u00fchlraum", "%41"};
+        for (String sensorId : sensorIds) {
+            String name = TimeSeriesStore.encode(sensorId);
+            assertTrue(name, name.matches("[a-z0-9_%A-F-]+"));
+            assertEquals(sensorId, TimeSeriesStore.decode(name));
+        }
+        assertEquals("%52oom%201", TimeSeriesStore.encode("Room 1"));
+        assertNull(TimeSeriesStore.decode("Room"));
+        assertNull(TimeSeriesStore.decode("%61"));
+        assertNull(TimeSeriesStore.decode("%4"));
+    }
+
+}